@@ -0,0 +1,63 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import utilities.ChromeDriverFactory;
+import utilities.ChromeProfile;
+import utilities.DriverBinaryCache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ChromeLaunchBenchmark class measures a full Chrome launch and quit through
+ * ChromeDriverFactory, per profile. It needs Chrome installed; skip it with
+ * "-e ChromeLaunch" on machines without one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChromeLaunchBenchmark {
+
+    /** The ChromeProfile to launch; public so JMH can inject it. */
+    @Param({"standard", "lean"})
+    public String profile;
+
+    private ChromeDriverFactory factory;
+
+    /**
+     * Resolves chromedriver up front, so only the launch itself is measured.
+     */
+    @Setup
+    public void setUp() {
+        DriverBinaryCache.CHROME.resolve();
+        factory = new ChromeDriverFactory("lean".equals(profile) ? ChromeProfile.lean() : ChromeProfile.standard());
+    }
+
+    /**
+     * Launches Chrome and quits it again.
+     *
+     * @return the title of the blank start page.
+     */
+    @Benchmark
+    public String launchAndQuit() {
+        WebDriver driver = factory.openBrowser();
+        try {
+            return driver.getTitle();
+        } finally {
+            factory.closeBrowser(driver);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.chrome.ChromeOptions;
+import utilities.ChromeDriverFactory;
+import utilities.ChromeProfile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DriverFactoryBenchmark class measures the part of a browser launch that runs before
+ * Chrome starts: building the factory and turning a profile into Chrome options.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverFactoryBenchmark {
+
+    /**
+     * Builds a factory with the profile read from system properties.
+     *
+     * @return the factory.
+     */
+    @Benchmark
+    public ChromeDriverFactory newFactory() {
+        return new ChromeDriverFactory();
+    }
+
+    /**
+     * Builds the Chrome options of the lean profile.
+     *
+     * @return the options.
+     */
+    @Benchmark
+    public ChromeOptions leanOptions() {
+        return ChromeProfile.lean().toOptions();
+    }
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import pageobjects.CheckoutPage;
+import pageobjects.StoreHomePage;
+import utilities.CachingElementLocatorFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PageObjectBenchmark class measures the page-object overhead on top of the browser:
+ * initialising @FindBy fields with Selenium's PageFactory and with the caching locator
+ * factory, constructing a page object, and a cached versus a fresh element lookup.
+ *
+ * The page objects drive a StubWebDriver, so no browser or network is involved.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageObjectBenchmark {
+
+    private StubWebDriver driver;
+    private CheckoutPage checkoutPage;
+    private StoreHomePage homePage;
+    private CachingElementLocatorFactory homeElements;
+
+    /**
+     * Creates the stub driver and the page objects.
+     */
+    @Setup
+    public void setUp() {
+        driver = new StubWebDriver();
+        checkoutPage = new CheckoutPage(driver);
+        homePage = new StoreHomePage(driver);
+        homeElements = CachingElementLocatorFactory.initElements(driver, homePage);
+    }
+
+    /**
+     * Initialises the checkout form fields with Selenium's PageFactory.
+     *
+     * @return the page object.
+     */
+    @Benchmark
+    public CheckoutPage pageFactoryInitElements() {
+        PageFactory.initElements(new DefaultElementLocatorFactory(driver), checkoutPage);
+        return checkoutPage;
+    }
+
+    /**
+     * Initialises the checkout form fields with the caching locator factory.
+     *
+     * @return the page object.
+     */
+    @Benchmark
+    public CheckoutPage cachingInitElements() {
+        CachingElementLocatorFactory.initElements(driver, checkoutPage);
+        return checkoutPage;
+    }
+
+    /**
+     * Constructs a checkout page object, as every page transition does.
+     *
+     * @return the page object.
+     */
+    @Benchmark
+    public CheckoutPage newCheckoutPage() {
+        return new CheckoutPage(driver);
+    }
+
+    /**
+     * Reads the cart counter with its element already cached.
+     *
+     * @return the cart count.
+     */
+    @Benchmark
+    public int cachedLookup() {
+        return homePage.getCountCart();
+    }
+
+    /**
+     * Reads the cart counter after dropping the cached element, as after a navigation.
+     *
+     * @return the cart count.
+     */
+    @Benchmark
+    public int freshLookup() {
+        homeElements.invalidate();
+        return homePage.getCountCart();
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import utilities.PersonDataGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The PeopleFiles class provides people.xml files of a given size for the benchmarks.
+ *
+ * Files are generated once into "target/bench-data" and reused by later forks and runs,
+ * so a benchmark with a million people does not spend its setup writing XML. The people
+ * come from PersonDataGenerator with a fixed seed, so every machine reads the same data.
+ */
+final class PeopleFiles {
+
+    private static final Path DATA_DIR = Paths.get("target", "bench-data");
+    private static final long SEED = 42;
+
+    private PeopleFiles() {
+    }
+
+    /**
+     * Returns a people.xml file holding the given number of people.
+     *
+     * @param people the number of person records.
+     * @return the path of the file.
+     */
+    static Path xml(int people) {
+        Path file = DATA_DIR.resolve("people-" + people + "-seed" + SEED + ".xml");
+        if (Files.isRegularFile(file)) {
+            return file;
+        }
+        try {
+            new PersonDataGenerator(SEED).write(file, people);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.Person;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PersonBenchmark class measures constructing a Person and rendering it with
+ * toString, which test names of the parameterized checkout test call for every row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonBenchmark {
+
+    private String firstName;
+    private String lastName;
+    private String address;
+    private String postcode;
+    private String city;
+    private String phone;
+    private String email;
+    private Person person;
+
+    /**
+     * Prepares the field values and a person to render.
+     */
+    @Setup
+    public void setUp() {
+        // Built at run time, so the JIT cannot fold them into constants.
+        firstName = new String("Dana".toCharArray());
+        lastName = new String("Levi".toCharArray());
+        address = new String("Herzl 1".toCharArray());
+        postcode = new String("12345".toCharArray());
+        city = new String("Haifa".toCharArray());
+        phone = new String("050-1234567".toCharArray());
+        email = new String("dana@example.com".toCharArray());
+        person = construct();
+    }
+
+    /**
+     * Constructs a person.
+     *
+     * @return the new person.
+     */
+    @Benchmark
+    public Person construct() {
+        return new Person(firstName, lastName, address, postcode, city, phone, email);
+    }
+
+    /**
+     * Renders a person as a string.
+     *
+     * @return the rendered person.
+     */
+    @Benchmark
+    public String render() {
+        return person.toString();
+    }
+}
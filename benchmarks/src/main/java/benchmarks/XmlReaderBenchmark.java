@@ -0,0 +1,106 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utilities.Person;
+import utilities.PersonDataset;
+import utilities.PersonDatasetCompiler;
+import utilities.XmlReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The XmlReaderBenchmark class measures loading the test people from 1k to 1M records
+ * with the DOM reader, the streaming StAX reader and the compiled binary dataset.
+ *
+ * Each benchmark touches every field of every person, so lazy readers cannot skip work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+public class XmlReaderBenchmark {
+
+    /** Number of people in the data file; public so JMH can inject it. */
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int people;
+
+    private final XmlReader reader = new XmlReader();
+    private String xmlFile;
+    private Path datasetFile;
+
+    /**
+     * Writes the people.xml file and compiles it into a dataset, once per trial.
+     *
+     * @throws IOException if the dataset cannot be compiled.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path xml = PeopleFiles.xml(people);
+        xmlFile = xml.toString();
+        datasetFile = PersonDatasetCompiler.compileIfStale(xml, xml.resolveSibling("people-" + people + ".pds"));
+    }
+
+    /**
+     * Parses the whole file into a DOM and builds a list of people.
+     *
+     * @return a checksum over the people read.
+     */
+    @Benchmark
+    public long domReader() {
+        List<Person> list = reader.readXmlPerson(xmlFile);
+        long sum = 0;
+        for (Person person : list) {
+            sum += weigh(person);
+        }
+        return sum;
+    }
+
+    /**
+     * Streams the people from the file with StAX.
+     *
+     * @return a checksum over the people read.
+     */
+    @Benchmark
+    public long streamReader() {
+        try (Stream<Person> stream = reader.streamXmlPerson(xmlFile)) {
+            return stream.mapToLong(XmlReaderBenchmark::weigh).sum();
+        }
+    }
+
+    /**
+     * Streams the people from the memory-mapped binary dataset.
+     *
+     * @return a checksum over the people read.
+     * @throws IOException if the dataset cannot be opened.
+     */
+    @Benchmark
+    public long datasetReader() throws IOException {
+        try (PersonDataset dataset = PersonDataset.open(datasetFile);
+             Stream<Person> stream = dataset.stream()) {
+            return stream.mapToLong(XmlReaderBenchmark::weigh).sum();
+        }
+    }
+
+    private static long weigh(Person person) {
+        return person.getFirstName().length() + person.getLastName().length() + person.getAddress().length()
+                + person.getPostcode().length() + person.getCity().length() + person.getPhone().length()
+                + person.getEmail().length();
+    }
+}
@@ -0,0 +1,126 @@
+package loadgen;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ArrivalSchedule class hands out the start times of paced journeys to the virtual
+ * users of a LoadRunner: one every 1/rate seconds, from the start of the run until its end.
+ *
+ * All users share one schedule, and each time is given to a single user. Arrivals missed
+ * while every user was busy are dropped, not made up in a burst later: a user that asks
+ * after its slot has passed gets the latest slot it missed, which makes it late, and the
+ * next slot follows one interval after that. The schedule counts late and dropped
+ * arrivals, so a report can tell a store that kept up with the target rate from a load
+ * generator that could not. Times are System.nanoTime() values passed in by the caller,
+ * so the schedule itself never reads a clock.
+ */
+public final class ArrivalSchedule {
+
+    private final double arrivalRate;
+    private final long intervalNanos;
+    private final long startNanos;
+    private final long endNanos;
+    private final AtomicLong nextArrival;
+    private final LongAdder claimed = new LongAdder();
+    private final LongAdder late = new LongAdder();
+
+    /**
+     * Constructs an ArrivalSchedule.
+     *
+     * @param arrivalRate the number of journeys started per second; must be positive.
+     * @param startNanos the time of the first arrival.
+     * @param endNanos the time from which no more journeys start.
+     */
+    public ArrivalSchedule(double arrivalRate, long startNanos, long endNanos) {
+        if (arrivalRate <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive, was " + arrivalRate);
+        }
+        this.arrivalRate = arrivalRate;
+        this.intervalNanos = (long) (1e9 / arrivalRate);
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+        this.nextArrival = new AtomicLong(startNanos);
+    }
+
+    /**
+     * Claims the next arrival for a user that is ready to start a journey.
+     *
+     * @param nowNanos the current time.
+     * @return the time the journey was scheduled for, which is before nowNanos for a late
+     *         arrival, or empty if the run ends before it.
+     */
+    public OptionalLong claim(long nowNanos) {
+        long slot = latestSlot(nextArrival.getAndUpdate(next -> latestSlot(next, nowNanos) + intervalNanos),
+                nowNanos);
+        if (slot >= endNanos) {
+            return OptionalLong.empty();
+        }
+        claimed.increment();
+        if (slot < nowNanos) {
+            late.increment();
+        }
+        return OptionalLong.of(slot);
+    }
+
+    /**
+     * Returns the target number of journeys started per second.
+     *
+     * @return the arrival rate.
+     */
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    /**
+     * Returns how many arrivals the run is scheduled for, from its start until its end.
+     *
+     * @return the number of slots.
+     */
+    public long getScheduled() {
+        return (endNanos - startNanos + intervalNanos - 1) / intervalNanos;
+    }
+
+    /**
+     * Returns how many arrivals users have claimed.
+     *
+     * @return the number of journeys started on the schedule.
+     */
+    public long getClaimed() {
+        return claimed.sum();
+    }
+
+    /**
+     * Returns how many arrivals were claimed after their slot had passed.
+     *
+     * @return the number of late arrivals.
+     */
+    public long getLate() {
+        return late.sum();
+    }
+
+    /**
+     * Returns how many arrivals no user claimed. Until the run ends, this includes the
+     * slots still to come.
+     *
+     * @return the number of dropped arrivals.
+     */
+    public long getDropped() {
+        return Math.max(0, getScheduled() - getClaimed());
+    }
+
+    /**
+     * Returns the time from the first arrival to the end of the schedule.
+     *
+     * @return the length of the schedule.
+     */
+    public long getWindowNanos() {
+        return endNanos - startNanos;
+    }
+
+    // The last slot at or before now, skipping the ones nobody was free for; or the next one if it is still ahead.
+    private long latestSlot(long next, long nowNanos) {
+        return next >= nowNanos ? next : next + (nowNanos - next) / intervalNanos * intervalNanos;
+    }
+}
@@ -0,0 +1,225 @@
+package loadgen;
+
+import utilities.Person;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The HttpShopper class walks the store the way the page objects do, one step per page
+ * object action, but with plain HTTP requests instead of a browser.
+ *
+ * Each shopper is one store session: it keeps its own cookies and remembers the page it
+ * is on, so steps must be called in the order a user would click through the store. The
+ * HTTP client is shared, which lets thousands of shoppers run on virtual threads. Pages
+ * are read with a few regular expressions that match the WooCommerce markup served by
+ * LocalStoreServer; every step checks that it reached the page it expected and throws
+ * IllegalStateException otherwise.
+ */
+public class HttpShopper {
+
+    private static final String ACCESSORIES_PATH = "/product-category/accessories/";
+    private static final int MAX_REDIRECTS = 5;
+    private static final Pattern PRODUCT_LINK = Pattern.compile("href=\"([^\"]*/product/[^\"]+)\"");
+    private static final Pattern ADD_TO_CART_FORM = Pattern.compile(
+            "<form class=\"cart\"[^>]*action=\"([^\"]*)\"[\\s\\S]*?name=\"add-to-cart\" value=\"(\\d+)\"");
+    private static final Pattern CART_COUNT = Pattern.compile("class=\"count\">(\\d+)<");
+
+    private final HttpClient client;
+    private final URI baseUri;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+    private List<URI> products = new ArrayList<>();
+    private URI currentUri;
+    private String currentPage = "";
+
+    /**
+     * Constructs an HttpShopper with a new, empty session.
+     *
+     * @param client the HTTP client to send requests with; it must not follow redirects itself.
+     * @param baseUrl the store's base URL.
+     */
+    public HttpShopper(HttpClient client, String baseUrl) {
+        this.client = client;
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+    }
+
+    /**
+     * Creates an HTTP client suited to many shoppers: HTTP/1.1, no redirects, no cookie store.
+     *
+     * @return a new HTTP client.
+     */
+    public static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Opens the store's home page, like StoreHomePage.goToStore.
+     */
+    public void goToStore() {
+        get(baseUri);
+    }
+
+    /**
+     * Opens the Accessories listing and remembers its products, like StoreHomePage.goToAccessories.
+     */
+    public void goToAccessories() {
+        get(baseUri.resolve(ACCESSORIES_PATH.substring(1)));
+        products = new ArrayList<>();
+        Matcher matcher = PRODUCT_LINK.matcher(currentPage);
+        while (matcher.find()) {
+            URI product = currentUri.resolve(matcher.group(1));
+            if (!products.contains(product)) {
+                products.add(product);
+            }
+        }
+        if (products.isEmpty()) {
+            throw new IllegalStateException("The Accessories listing at " + currentUri + " has no products");
+        }
+    }
+
+    /**
+     * Opens one of the listed products, like AccessoriesPage.selectRandomProduct.
+     *
+     * @param random the source of the choice.
+     */
+    public void selectRandomProduct(Random random) {
+        if (products.isEmpty()) {
+            throw new IllegalStateException("No product listing has been opened");
+        }
+        get(products.get(random.nextInt(products.size())));
+    }
+
+    /**
+     * Submits the product page's add-to-cart form, like ProductPage.addToCart.
+     */
+    public void addToCart() {
+        Matcher form = ADD_TO_CART_FORM.matcher(currentPage);
+        if (!form.find()) {
+            throw new IllegalStateException("No add-to-cart form on " + currentUri);
+        }
+        post(currentUri.resolve(form.group(1)), Map.of("add-to-cart", form.group(2)));
+    }
+
+    /**
+     * Opens the cart page, like StoreHomePage.goToCart.
+     *
+     * @return the number of items the cart header shows.
+     */
+    public int goToCart() {
+        get(baseUri.resolve("cart/"));
+        Matcher count = CART_COUNT.matcher(currentPage);
+        if (!count.find()) {
+            throw new IllegalStateException("No cart count on " + currentUri);
+        }
+        return Integer.parseInt(count.group(1));
+    }
+
+    /**
+     * Opens the checkout form, like CartPage.checkout.
+     */
+    public void checkout() {
+        get(baseUri.resolve("checkout/"));
+        if (!currentPage.contains("name=\"checkout\"")) {
+            throw new IllegalStateException("Checkout redirected to " + currentUri + "; is the cart empty?");
+        }
+    }
+
+    /**
+     * Submits the checkout form with a person's details, like CheckoutPage.fillForm
+     * followed by CheckoutPage.returnErrorElem.
+     *
+     * @param person the person whose details are entered.
+     */
+    public void fillForm(Person person) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("billing_first_name", person.getFirstName());
+        form.put("billing_last_name", person.getLastName());
+        form.put("billing_address_1", person.getAddress());
+        form.put("billing_postcode", person.getPostcode());
+        form.put("billing_city", person.getCity());
+        form.put("billing_phone", person.getPhone());
+        form.put("billing_email", person.getEmail());
+        post(baseUri.resolve("checkout/"), form);
+        if (!currentPage.contains("woocommerce-error")) {
+            throw new IllegalStateException("Checkout at " + currentUri + " did not answer with validation errors");
+        }
+    }
+
+    private void get(URI uri) {
+        send(HttpRequest.newBuilder(uri).GET());
+    }
+
+    private void post(URI uri, Map<String, String> form) {
+        StringJoiner body = new StringJoiner("&");
+        form.forEach((name, value) -> body.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "="
+                + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        send(HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())));
+    }
+
+    private void send(HttpRequest.Builder request) {
+        for (int redirects = 0; redirects <= MAX_REDIRECTS; redirects++) {
+            request.timeout(Duration.ofSeconds(30));
+            if (!cookies.isEmpty()) {
+                StringJoiner header = new StringJoiner("; ");
+                cookies.forEach((name, value) -> header.add(name + "=" + value));
+                request.setHeader("Cookie", header.toString());
+            }
+            HttpRequest built = request.build();
+            HttpResponse<String> response;
+            try {
+                response = client.send(built, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                throw new IllegalStateException("Request to " + built.uri() + " failed: " + e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while requesting " + built.uri(), e);
+            }
+            keepCookies(response.headers());
+            int status = response.statusCode();
+            if (status >= 300 && status < 400 && response.headers().firstValue("Location").isPresent()) {
+                // A redirect after a form post is fetched with GET, as browsers do.
+                URI location = built.uri().resolve(response.headers().firstValue("Location").get());
+                request = HttpRequest.newBuilder(location).GET();
+                continue;
+            }
+            if (status >= 400) {
+                throw new IllegalStateException("Request to " + built.uri() + " returned HTTP " + status);
+            }
+            currentUri = built.uri();
+            currentPage = response.body();
+            return;
+        }
+        throw new IllegalStateException("More than " + MAX_REDIRECTS + " redirects from " + currentUri);
+    }
+
+    private void keepCookies(HttpHeaders headers) {
+        for (String setCookie : headers.allValues("Set-Cookie")) {
+            String pair = setCookie.split(";", 2)[0];
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                cookies.put(pair.substring(0, equals).trim(), pair.substring(equals + 1).trim());
+            }
+        }
+    }
+}
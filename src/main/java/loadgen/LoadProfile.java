@@ -0,0 +1,51 @@
+package loadgen;
+
+import java.time.Duration;
+
+/**
+ * The LoadProfile record describes the load a LoadRunner generates.
+ *
+ * Virtual users start one after another, spread evenly over the ramp-up period, and
+ * then replay shopping journeys until the duration is over. A positive arrival rate
+ * paces the journeys of all users together, so the store sees that many new journeys
+ * per second once every user is running; a rate of 0 lets each user start its next
+ * journey as soon as the previous one ends.
+ *
+ * @param users the number of concurrent virtual users.
+ * @param rampUp the time over which the users are started.
+ * @param arrivalRate the target number of journeys started per second, or 0 for no pacing.
+ * @param duration the total run time, including the ramp-up.
+ */
+public record LoadProfile(int users, Duration rampUp, double arrivalRate, Duration duration) {
+
+    /**
+     * Checks the profile's values.
+     *
+     * @throws IllegalArgumentException if a value is out of range.
+     */
+    public LoadProfile {
+        if (users < 1) {
+            throw new IllegalArgumentException("Load needs at least 1 user, was " + users);
+        }
+        if (rampUp.isNegative() || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Ramp-up must not be negative and duration must be positive");
+        }
+        if (arrivalRate < 0) {
+            throw new IllegalArgumentException("Arrival rate must not be negative, was " + arrivalRate);
+        }
+    }
+
+    /**
+     * Returns the profile given by the "load.users" (default 10), "load.rampup.seconds"
+     * (default 10), "load.rate" (journeys per second, default 0) and "load.duration.seconds"
+     * (default 60) system properties.
+     *
+     * @return the configured profile.
+     */
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(Integer.getInteger("load.users", 10),
+                Duration.ofSeconds(Long.getLong("load.rampup.seconds", 10L)),
+                Double.parseDouble(System.getProperty("load.rate", "0")),
+                Duration.ofSeconds(Long.getLong("load.duration.seconds", 60L)));
+    }
+}
@@ -0,0 +1,201 @@
+package loadgen;
+
+import utilities.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LoadReport class collects the latency and errors of every step a LoadRunner runs,
+ * and reports throughput and latency percentiles per step.
+ *
+ * Steps appear in the report in the order they were first run, so a journey reads from
+ * top to bottom. The "journey" row covers whole journeys. For a paced run it also shows
+ * the arrival rate achieved against the target, and how many arrivals started late or
+ * were dropped because every user was busy; paced journeys are timed from their
+ * scheduled start, so time spent waiting for a free user counts against the store.
+ */
+public class LoadReport {
+
+    /** Step name under which whole journeys are recorded. */
+    public static final String JOURNEY = "journey";
+
+    private final Map<String, LatencyHistogram> latencies = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private volatile long elapsedNanos;
+    private volatile ArrivalSchedule arrivals;
+
+    /**
+     * Records a successful step.
+     *
+     * @param step the step name.
+     * @param nanos how long the step took.
+     */
+    public void recordSuccess(String step, long nanos) {
+        latencies.computeIfAbsent(step, key -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    /**
+     * Records a failed step.
+     *
+     * @param step the step name.
+     */
+    public void recordError(String step) {
+        errors.computeIfAbsent(step, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Sets the run time that throughput is computed over.
+     *
+     * @param nanos the run time.
+     */
+    public void setElapsedNanos(long nanos) {
+        elapsedNanos = nanos;
+    }
+
+    /**
+     * Sets the schedule that paced the journeys, once the run is over.
+     *
+     * @param schedule the arrival schedule of the run.
+     */
+    public void setArrivals(ArrivalSchedule schedule) {
+        arrivals = schedule;
+    }
+
+    /**
+     * Returns the target number of journeys started per second.
+     *
+     * @return the arrival rate, or 0 for a run without pacing.
+     */
+    public double getTargetRate() {
+        ArrivalSchedule schedule = arrivals;
+        return schedule == null ? 0 : schedule.getArrivalRate();
+    }
+
+    /**
+     * Returns how many journeys per second were actually started on the schedule.
+     *
+     * @return the achieved arrival rate, or 0 for a run without pacing.
+     */
+    public double getAchievedRate() {
+        ArrivalSchedule schedule = arrivals;
+        return schedule == null ? 0 : schedule.getClaimed() * 1e9 / schedule.getWindowNanos();
+    }
+
+    /**
+     * Returns how many journeys started after their scheduled time.
+     *
+     * @return the number of late arrivals, or 0 for a run without pacing.
+     */
+    public long getLateArrivals() {
+        ArrivalSchedule schedule = arrivals;
+        return schedule == null ? 0 : schedule.getLate();
+    }
+
+    /**
+     * Returns how many scheduled journeys never started because every user was busy.
+     *
+     * @return the number of dropped arrivals, or 0 for a run without pacing.
+     */
+    public long getDroppedArrivals() {
+        ArrivalSchedule schedule = arrivals;
+        return schedule == null ? 0 : schedule.getDropped();
+    }
+
+    /**
+     * Returns the latency histogram of a step.
+     *
+     * @param step the step name.
+     * @return the histogram, or null if the step never succeeded.
+     */
+    public LatencyHistogram getLatency(String step) {
+        return latencies.get(step);
+    }
+
+    /**
+     * Returns how often a step failed.
+     *
+     * @param step the step name.
+     * @return the number of failures.
+     */
+    public long getErrors(String step) {
+        LongAdder count = errors.get(step);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Returns how many times per second a step succeeded over the whole run.
+     *
+     * @param step the step name.
+     * @return the throughput in successful steps per second.
+     */
+    public double getThroughput(String step) {
+        LatencyHistogram histogram = latencies.get(step);
+        return histogram == null || elapsedNanos == 0 ? 0 : histogram.getCount() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Returns the report as a table, one step per line.
+     *
+     * @return the formatted report.
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-36s %8s %7s %9s %9s %9s %9s %9s%n",
+                "step", "ok", "errors", "per sec", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, LatencyHistogram> row : snapshot().entrySet()) {
+            LatencyHistogram histogram = row.getValue();
+            out.append(String.format(Locale.ROOT, "%-36s %8d %7d %9.2f %9.1f %9.1f %9.1f %9.1f%n", row.getKey(),
+                    histogram.getCount(), getErrors(row.getKey()), getThroughput(row.getKey()),
+                    histogram.getPercentileMillis(50), histogram.getPercentileMillis(95),
+                    histogram.getPercentileMillis(99), histogram.getMaxMillis()));
+        }
+        ArrivalSchedule schedule = arrivals;
+        if (schedule != null) {
+            out.append(String.format(Locale.ROOT, "arrivals: target %.2f/s, achieved %.2f/s, %d late, %d dropped%n",
+                    getTargetRate(), getAchievedRate(), getLateArrivals(), getDroppedArrivals()));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the report as CSV.
+     *
+     * @param file the file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeCsv(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer csv = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            csv.write("step,ok,errors,per_sec,p50_ms,p95_ms,p99_ms,max_ms\n");
+            for (Map.Entry<String, LatencyHistogram> row : snapshot().entrySet()) {
+                LatencyHistogram histogram = row.getValue();
+                csv.write(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n", row.getKey(),
+                        histogram.getCount(), getErrors(row.getKey()), getThroughput(row.getKey()),
+                        histogram.getPercentileMillis(50), histogram.getPercentileMillis(95),
+                        histogram.getPercentileMillis(99), histogram.getMaxMillis()));
+            }
+        }
+    }
+
+    private Map<String, LatencyHistogram> snapshot() {
+        Map<String, LatencyHistogram> rows;
+        synchronized (latencies) {
+            rows = new LinkedHashMap<>(latencies);
+        }
+        for (String failedOnly : errors.keySet()) {
+            rows.putIfAbsent(failedOnly, new LatencyHistogram());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,190 @@
+package loadgen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utilities.LocalStoreServer;
+import utilities.Person;
+import utilities.XmlReader;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The LoadRunner class replays the StoreTest shopping journey as many concurrent virtual
+ * users, each on its own virtual thread, with HttpShopper standing in for the browser.
+ *
+ * A journey opens the store, browses Accessories, picks a product, adds it to the cart,
+ * opens the cart and the checkout, and submits the checkout form with the next person
+ * from the test data. Every journey starts a new store session. Steps are named after
+ * the page object actions they replay, such as "ProductPage.addToCart", so the load
+ * report lines up with the step latency report of the browser tests.
+ *
+ * With an arrival rate, a journey is timed from the slot the ArrivalSchedule gave it
+ * rather than from when a user got round to it, so a store that slows the users down
+ * shows up in the journey latency instead of hiding in fewer samples. A virtual user
+ * stops as soon as its thread is interrupted.
+ *
+ * Run it from the command line against a LocalStoreServer it starts itself, for example:
+ * mvn compile exec:java -Dexec.mainClass=loadgen.LoadRunner -Dload.users=200 -Dload.rate=50
+ * Set "store.base.url" to aim it at another stand-in of the store instead.
+ */
+public final class LoadRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadRunner.class);
+
+    private final LoadProfile profile;
+    private final String baseUrl;
+    private final List<Person> people;
+    private final AtomicInteger nextPerson = new AtomicInteger();
+
+    /**
+     * Constructs a LoadRunner.
+     *
+     * @param profile the number of users, ramp-up, arrival rate and duration.
+     * @param baseUrl the base URL of the store to load.
+     * @param people the people whose details are entered at checkout, used in turn.
+     */
+    public LoadRunner(LoadProfile profile, String baseUrl, List<Person> people) {
+        if (people.isEmpty()) {
+            throw new IllegalArgumentException("Load needs at least one person for the checkout form");
+        }
+        this.profile = profile;
+        this.baseUrl = baseUrl;
+        this.people = List.copyOf(people);
+    }
+
+    /**
+     * Runs the load and waits for every virtual user to finish its last journey.
+     *
+     * @return the latency and errors of every step, and for a paced run how well it kept
+     *         to the arrival rate.
+     * @throws InterruptedException if interrupted while waiting for the users, which are
+     *                              interrupted in turn.
+     */
+    public LoadReport run() throws InterruptedException {
+        LoadReport report = new LoadReport();
+        HttpClient client = HttpShopper.newClient();
+        long start = System.nanoTime();
+        long end = start + profile.duration().toNanos();
+        ArrivalSchedule arrivals = profile.arrivalRate() > 0
+                ? new ArrivalSchedule(profile.arrivalRate(), start, end) : null;
+
+        LOGGER.info("Starting {} virtual users over {} s against {}", profile.users(),
+                profile.rampUp().toSeconds(), baseUrl);
+        List<Thread> users = new ArrayList<>(profile.users());
+        for (int user = 0; user < profile.users(); user++) {
+            long startAt = start + profile.rampUp().toNanos() * user / profile.users();
+            Random random = new Random();
+            users.add(Thread.ofVirtual().name("virtual-user-" + user).start(() -> {
+                if (!sleepUntil(startAt)) {
+                    return;
+                }
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    long journeyStart = System.nanoTime();
+                    if (arrivals != null) {
+                        OptionalLong slot = arrivals.claim(journeyStart);
+                        if (slot.isEmpty()) {
+                            break;
+                        }
+                        journeyStart = slot.getAsLong();
+                        if (!sleepUntil(journeyStart)) {
+                            break;
+                        }
+                    }
+                    journey(new HttpShopper(client, baseUrl), random, report, journeyStart);
+                }
+            }));
+        }
+        try {
+            for (Thread user : users) {
+                user.join();
+            }
+        } catch (InterruptedException e) {
+            users.forEach(Thread::interrupt);
+            throw e;
+        }
+        report.setElapsedNanos(System.nanoTime() - start);
+        if (arrivals != null) {
+            report.setArrivals(arrivals);
+        }
+        return report;
+    }
+
+    /**
+     * Runs a load configured by system properties and prints its report. See LoadProfile
+     * for the load settings; "load.people" names the test data file, "./src/assets/people.xml"
+     * by default, and "load.report" the CSV report, "target/loadgen/load-report.csv" by default.
+     *
+     * @param args not used.
+     * @throws Exception if the store cannot be started or the report cannot be written.
+     */
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        List<Person> people = new XmlReader().readXmlPerson(System.getProperty("load.people",
+                "./src/assets/people.xml"));
+        String configuredUrl = System.getProperty("store.base.url");
+        LocalStoreServer localStore = configuredUrl == null ? LocalStoreServer.start() : null;
+        try {
+            String baseUrl = localStore == null ? configuredUrl : localStore.getBaseUrl();
+            LoadReport report = new LoadRunner(profile, baseUrl, people).run();
+            Path csv = Paths.get(System.getProperty("load.report", "target/loadgen/load-report.csv"));
+            report.writeCsv(csv);
+            System.out.print(report.format());
+            System.out.println("Report written to " + csv);
+        } finally {
+            if (localStore != null) {
+                localStore.close();
+            }
+        }
+    }
+
+    private void journey(HttpShopper shopper, Random random, LoadReport report, long start) {
+        Person person = people.get(Math.floorMod(nextPerson.getAndIncrement(), people.size()));
+        try {
+            step(report, "StoreHomePage.goToStore", shopper::goToStore);
+            step(report, "StoreHomePage.goToAccessories", shopper::goToAccessories);
+            step(report, "AccessoriesPage.selectRandomProduct", () -> shopper.selectRandomProduct(random));
+            step(report, "ProductPage.addToCart", shopper::addToCart);
+            step(report, "StoreHomePage.goToCart", shopper::goToCart);
+            step(report, "CartPage.checkout", shopper::checkout);
+            step(report, "CheckoutPage.fillForm", () -> shopper.fillForm(person));
+            report.recordSuccess(LoadReport.JOURNEY, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            report.recordError(LoadReport.JOURNEY);
+            LOGGER.debug("Journey failed: {}", e.getMessage());
+        }
+    }
+
+    private static void step(LoadReport report, String name, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            report.recordError(name);
+            throw e;
+        }
+        report.recordSuccess(name, System.nanoTime() - start);
+    }
+
+    // Returns false, with the interrupt flag restored, if the user was interrupted and should stop.
+    private static boolean sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            return !Thread.currentThread().isInterrupted();
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,33 +1,51 @@
 package pageobjects;
 
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import utilities.PageWait;
+import utilities.StepMetrics;
 
-import java.util.List;
+import java.util.Random;
 
 /**
  * The AccessoriesPage class represents the accessories section of the online store.
  *
  * It provides methods to interact with the available products, including selecting
- * a random product for further actions.
+ * a random product for further actions. The listed products are read once into a
+ * ProductCatalogue snapshot, so repeated picks neither rescan the list nor need the
+ * browser to return to the listing.
  */
 public class AccessoriesPage {
 
-    private WebDriver driver;
+    private static final String PRODUCT_XPATH = "//ul[@class='products columns-4']/li";
 
-    @FindBy(xpath = "//ul[@class='products columns-4']/li")
-    private List<WebElement> products;
+    private WebDriver driver;
+    private PageWait wait;
+    private Random random;
+    private ProductCatalogue catalogue;
 
     /**
      * Constructs an AccessoriesPage object with the specified WebDriver.
      *
+     * Random picks use ProductCatalogue.newRandom(), which is seeded when the
+     * "catalogue.seed" system property is set.
+     *
      * @param driver the WebDriver instance used to interact with the page.
      */
     public AccessoriesPage(WebDriver driver) {
+        this(driver, ProductCatalogue.newRandom());
+    }
+
+    /**
+     * Constructs an AccessoriesPage object that picks products with the given random source.
+     *
+     * @param driver the WebDriver instance used to interact with the page.
+     * @param random the source of random product picks.
+     */
+    public AccessoriesPage(WebDriver driver, Random random) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        this.wait = new PageWait(driver);
+        this.random = random;
+        this.catalogue = ProductCatalogue.forListing(driver, "accessories", PRODUCT_XPATH);
     }
 
     /**
@@ -36,8 +54,11 @@ public class AccessoriesPage {
      * @return a ProductPage object representing the selected product's page.
      */
     public ProductPage selectRandomProduct() {
-        int randomIndex = (int) (Math.random() * products.size());
-        products.get(randomIndex).click();
-        return new ProductPage(driver);
+        return StepMetrics.time("AccessoriesPage.selectRandomProduct", () -> {
+            ProductCatalogue.Product product = catalogue.pick(random);
+            driver.get(product.url());
+            wait.pageReady("product page");
+            return new ProductPage(driver);
+        });
     }
 }
@@ -0,0 +1,164 @@
+package pageobjects;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import utilities.PageWait;
+import utilities.StepMetrics;
+import utilities.StoreConfig;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.CookieManager;
+import java.net.CookiePolicy;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The CartBuilder class fills a shopping cart over plain HTTP and hands the resulting
+ * session to a browser, skipping the product pages a UI flow would have to load.
+ *
+ * Products are added with WooCommerce's "add-to-cart" request parameter. The session
+ * cookies the store sets in response are then copied into the WebDriver session, which
+ * opens the cart or checkout page directly with the items already in place.
+ *
+ * The product IDs of the Accessories listing are read over HTTP into a ProductCatalogue
+ * snapshot, so all builders for the same store share one copy for the catalogue's time
+ * to live instead of fetching the listing for every cart.
+ */
+public class CartBuilder {
+
+    private static final String ACCESSORIES_PATH = "/product-category/accessories/";
+    // Holds IDs only, so it must not share a name with the browser's "accessories" snapshot.
+    private static final String ACCESSORIES_LISTING = "accessories-ids";
+    private static final Pattern PRODUCT_ID = Pattern.compile("data-product_id=\"(\\d+)\"");
+
+    private final CookieManager cookies = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
+    private final HttpClient client = HttpClient.newBuilder()
+            .cookieHandler(cookies)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final List<Integer> productIds = new ArrayList<>();
+    private final Random random;
+
+    /**
+     * Constructs a CartBuilder that picks random products with ProductCatalogue.newRandom(),
+     * which is seeded when the "catalogue.seed" system property is set.
+     */
+    public CartBuilder() {
+        this(ProductCatalogue.newRandom());
+    }
+
+    /**
+     * Constructs a CartBuilder that picks random products with the given random source.
+     *
+     * @param random the source used by withRandomAccessory().
+     */
+    public CartBuilder(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Adds a specific product to the cart.
+     *
+     * @param productId the WooCommerce product ID.
+     * @return this builder.
+     */
+    public CartBuilder withProduct(int productId) {
+        productIds.add(productId);
+        return this;
+    }
+
+    /**
+     * Adds a product chosen at random from the Accessories listing to the cart.
+     *
+     * @return this builder.
+     * @throws IllegalStateException if the listing has no products.
+     */
+    public CartBuilder withRandomAccessory() {
+        ProductCatalogue catalogue = ProductCatalogue.forListing(ACCESSORIES_LISTING, this::listAccessories);
+        return withProduct(Integer.parseInt(catalogue.pick(random).id()));
+    }
+
+    /**
+     * Adds the products to a new cart and opens the cart page with it.
+     *
+     * @param driver the WebDriver instance that should see the cart.
+     * @return a CartPage object representing the filled cart.
+     */
+    public CartPage openCart(WebDriver driver) {
+        return StepMetrics.time("CartBuilder.openCart", () -> {
+            open(driver, "/cart/", "cart page");
+            return new CartPage(driver);
+        });
+    }
+
+    /**
+     * Adds the products to a new cart and opens the checkout page with it.
+     *
+     * @param driver the WebDriver instance that should see the checkout.
+     * @return a CheckoutPage object representing the checkout form.
+     */
+    public CheckoutPage openCheckout(WebDriver driver) {
+        return StepMetrics.time("CartBuilder.openCheckout", () -> {
+            open(driver, "/checkout/", "checkout page");
+            return new CheckoutPage(driver);
+        });
+    }
+
+    private void open(WebDriver driver, String path, String description) {
+        for (int productId : productIds) {
+            get("/?add-to-cart=" + productId);
+        }
+
+        // Cookies can only be set for the document's own site, so land on a light page first.
+        driver.get(StoreConfig.url("/robots.txt"));
+        for (HttpCookie cookie : cookies.getCookieStore().get(URI.create(StoreConfig.getBaseUrl()))) {
+            driver.manage().addCookie(new Cookie(cookie.getName(), cookie.getValue(), "/"));
+        }
+        driver.get(StoreConfig.url(path));
+        new PageWait(driver).pageReady(description);
+    }
+
+    private List<ProductCatalogue.Product> listAccessories() {
+        List<ProductCatalogue.Product> products = new ArrayList<>();
+        Matcher matcher = PRODUCT_ID.matcher(get(ACCESSORIES_PATH));
+        while (matcher.find()) {
+            products.add(new ProductCatalogue.Product("", matcher.group(1)));
+        }
+        if (products.isEmpty()) {
+            throw new IllegalStateException("The Accessories listing at " + StoreConfig.url(ACCESSORIES_PATH)
+                    + " has no products");
+        }
+        return products;
+    }
+
+    private String get(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(StoreConfig.url(path)))
+                .timeout(Duration.ofMillis(PageWait.DEFAULT_TIMEOUT_MILLIS * 6))
+                .GET()
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Request to " + request.uri() + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while requesting " + request.uri(), e);
+        }
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Request to " + request.uri() + " returned HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+}
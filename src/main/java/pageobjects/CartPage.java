@@ -3,7 +3,10 @@ package pageobjects;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import utilities.CachingElementLocatorFactory;
+import utilities.PagePerformance;
+import utilities.PageWait;
+import utilities.StepMetrics;
 
 /**
  * The CartPage class represents the shopping cart page in the online store.
@@ -14,6 +17,8 @@ import org.openqa.selenium.support.PageFactory;
 public class CartPage {
 
     private WebDriver driver;
+    private PageWait wait;
+    private CachingElementLocatorFactory elements;
 
     @FindBy(className = "wc-proceed-to-checkout")
     private WebElement checkoutBtn;
@@ -25,7 +30,8 @@ public class CartPage {
      */
     public CartPage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        this.wait = new PageWait(driver);
+        this.elements = CachingElementLocatorFactory.initElements(driver, this);
     }
 
     /**
@@ -34,7 +40,13 @@ public class CartPage {
      * @return a CheckoutPage object representing the checkout page.
      */
     public CheckoutPage checkout() {
-        checkoutBtn.click();
-        return new CheckoutPage(driver);
+        CheckoutPage page = StepMetrics.time("CartPage.checkout", () -> {
+            wait.clickable("proceed to checkout button", checkoutBtn).click();
+            elements.invalidate();
+            wait.pageReady("checkout page");
+            return new CheckoutPage(driver);
+        });
+        PagePerformance.capture(driver, "checkout");
+        return page;
     }
 }
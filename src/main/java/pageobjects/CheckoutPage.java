@@ -1,20 +1,95 @@
 package pageobjects;
 
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import utilities.CachingElementLocatorFactory;
+import utilities.PageWait;
 import utilities.Person;
+import utilities.StepMetrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * The CheckoutPage class represents the checkout page in the online store.
  *
  * It provides methods to fill in the checkout form with user information
  * and to retrieve error messages related to the form submission.
+ *
+ * The form can be filled keystroke by keystroke, which fires real key events, or in
+ * one batched script call that sets every billing field and fires its input and change
+ * events in a single WebDriver round trip. The default mode is read from the
+ * "checkout.fill.mode" system property ("keystrokes" or "batched").
  */
 public class CheckoutPage {
 
+    /**
+     * How fillForm enters the person's details.
+     */
+    public enum FillMode {
+        /** One sendKeys call per field, firing real key events. */
+        KEYSTROKES,
+        /** One script call that sets every field and submits the form. */
+        BATCHED;
+
+        /**
+         * Returns the fill mode named by the "checkout.fill.mode" system property, in any case.
+         *
+         * @return the configured fill mode, KEYSTROKES by default.
+         * @throws IllegalArgumentException if the property names no fill mode.
+         */
+        public static FillMode fromSystemProperties() {
+            String mode = System.getProperty("checkout.fill.mode", "keystrokes").trim();
+            try {
+                return valueOf(mode.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("checkout.fill.mode must be one of "
+                        + Arrays.toString(values()).toLowerCase(Locale.ROOT) + ", was \"" + mode + "\"", e);
+            }
+        }
+    }
+
+    /** Billing input IDs, in form order, mapped to the Person value that goes into them. */
+    public static final Map<String, Function<Person, String>> BILLING_FIELDS;
+
+    static {
+        Map<String, Function<Person, String>> fields = new LinkedHashMap<>();
+        fields.put("billing_first_name", Person::getFirstName);
+        fields.put("billing_last_name", Person::getLastName);
+        fields.put("billing_address_1", Person::getAddress);
+        fields.put("billing_postcode", Person::getPostcode);
+        fields.put("billing_city", Person::getCity);
+        fields.put("billing_phone", Person::getPhone);
+        fields.put("billing_email", Person::getEmail);
+        BILLING_FIELDS = Collections.unmodifiableMap(fields);
+    }
+
+    private static final String BATCH_FILL_SCRIPT =
+            "var values = arguments[0];"
+            + "var form = null;"
+            + "for (var id in values) {"
+            + "  var input = document.getElementById(id);"
+            + "  if (!input) { return id; }"
+            + "  input.focus();"
+            + "  input.value = values[id];"
+            + "  input.dispatchEvent(new Event('input', {bubbles: true}));"
+            + "  input.dispatchEvent(new Event('change', {bubbles: true}));"
+            + "  input.blur();"
+            + "  form = input.form;"
+            + "}"
+            + "if (form.requestSubmit) { form.requestSubmit(); } else { form.submit(); }"
+            + "return null;";
+
     private WebDriver driver;
+    private PageWait wait;
+    private CachingElementLocatorFactory elements;
 
     @FindBy(name = "checkout")
     private WebElement form;
@@ -50,16 +125,51 @@ public class CheckoutPage {
      */
     public CheckoutPage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        this.wait = new PageWait(driver);
+        this.elements = CachingElementLocatorFactory.initElements(driver, this);
     }
 
     /**
-     * Fills the checkout form with the provided person's information.
+     * Fills the checkout form with the provided person's information and submits it,
+     * using the fill mode set by the "checkout.fill.mode" system property.
      *
      * @param person the Person object containing the user's details.
+     * @throws IllegalArgumentException if the property names no fill mode.
      */
     public void fillForm(Person person) {
-        firstName.sendKeys(person.getFirstName());
+        fillForm(person, FillMode.fromSystemProperties());
+    }
+
+    /**
+     * Fills the checkout form with the provided person's information and submits it.
+     *
+     * @param person the Person object containing the user's details.
+     * @param mode whether to type each field or set them all in one script call.
+     */
+    public void fillForm(Person person, FillMode mode) {
+        StepMetrics.time("CheckoutPage.fillForm." + mode, () -> {
+            if (mode == FillMode.BATCHED) {
+                fillFormBatched(person);
+            } else {
+                fillFormWithKeystrokes(person);
+            }
+        });
+    }
+
+    private void fillFormBatched(Person person) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Function<Person, String>> field : BILLING_FIELDS.entrySet()) {
+            values.put(field.getKey(), field.getValue().apply(person));
+        }
+        Object missing = ((JavascriptExecutor) driver).executeScript(BATCH_FILL_SCRIPT, values);
+        elements.invalidate();
+        if (missing != null) {
+            throw new NoSuchElementException("Checkout form has no billing field with id '" + missing + "'");
+        }
+    }
+
+    private void fillFormWithKeystrokes(Person person) {
+        wait.visible("checkout form", firstName).sendKeys(person.getFirstName());
         lastName.sendKeys(person.getLastName());
         address.sendKeys(person.getAddress());
         postcode.sendKeys(person.getPostcode());
@@ -68,14 +178,17 @@ public class CheckoutPage {
         email.sendKeys(person.getEmail());
 
         email.submit();  // Submit the form
+        elements.invalidate();
     }
 
     /**
-     * Returns the error element displayed on the checkout page.
+     * Returns the error element displayed on the checkout page, waiting for the
+     * validation result of the submitted form to appear.
      *
      * @return the WebElement representing the error message.
      */
     public WebElement returnErrorElem() {
-        return errorElem;
+        return StepMetrics.time("CheckoutPage.returnErrorElem",
+                () -> wait.visible("checkout validation errors", errorElem));
     }
 }
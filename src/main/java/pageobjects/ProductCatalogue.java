@@ -0,0 +1,153 @@
+package pageobjects;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import utilities.PageWait;
+import utilities.StoreConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The ProductCatalogue class is a snapshot of the products shown on a listing page.
+ *
+ * One script call collects the URL and ID of every listed product when a listing is
+ * first loaded. The snapshot is kept in memory for a limited time, given by the
+ * "catalogue.ttl.seconds" system property, and shared by all sessions that use the
+ * same store. Picking a product then needs no element scan, and the product page can
+ * be opened directly by URL, even when the browser has already left the listing.
+ * Snapshots collected some other way, such as CartBuilder reading a listing over HTTP,
+ * are cached in the same way under their own listing name.
+ */
+public final class ProductCatalogue {
+
+    private static final long TTL_MILLIS = Long.getLong("catalogue.ttl.seconds", 300L) * 1000L;
+    private static final Long SEED = Long.getLong("catalogue.seed");
+    private static final Map<String, ProductCatalogue> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    private static final String COLLECT_SCRIPT =
+            "var items = document.evaluate(arguments[0], document, null,"
+            + " XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "var products = [];"
+            + "for (var i = 0; i < items.snapshotLength; i++) {"
+            + "  var item = items.snapshotItem(i);"
+            + "  var link = item.querySelector('a[href]');"
+            + "  if (!link) { continue; }"
+            + "  var idHolder = item.querySelector('[data-product_id]');"
+            + "  var postClass = /(?:^|\\s)post-(\\d+)/.exec(item.className);"
+            + "  var id = idHolder ? idHolder.getAttribute('data-product_id') : (postClass ? postClass[1] : '');"
+            + "  products.push([link.href, id]);"
+            + "}"
+            + "return products.length ? products : null;";
+
+    private final List<Product> products;
+    private final long expiresAt;
+
+    private ProductCatalogue(List<Product> products, long expiresAt) {
+        this.products = Collections.unmodifiableList(products);
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Returns the snapshot of a listing, collecting it from the page the driver shows
+     * if there is no fresh snapshot yet.
+     *
+     * @param driver the WebDriver instance showing the listing page.
+     * @param listing a name for the listing, such as "accessories".
+     * @param itemXpath the XPath of one product entry on the listing.
+     * @return the product snapshot.
+     */
+    public static ProductCatalogue forListing(WebDriver driver, String listing, String itemXpath) {
+        return forListing(listing, () -> collect(driver, listing, itemXpath));
+    }
+
+    /**
+     * Returns the snapshot of a listing, collecting it with the given collector if there
+     * is no fresh snapshot yet.
+     *
+     * @param listing a name for the listing, distinct from those of snapshots collected otherwise.
+     * @param collector collects the listed products; it should throw rather than return none.
+     * @return the product snapshot.
+     */
+    public static ProductCatalogue forListing(String listing, Supplier<List<Product>> collector) {
+        String key = StoreConfig.getBaseUrl() + "#" + listing;
+        ProductCatalogue snapshot = SNAPSHOTS.get(key);
+        if (snapshot == null || snapshot.isExpired()) {
+            snapshot = new ProductCatalogue(collector.get(), System.currentTimeMillis() + TTL_MILLIS);
+            SNAPSHOTS.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns a random source for product picks. With the "catalogue.seed" system
+     * property set, every call returns a source seeded with that value, so each page
+     * object makes the same sequence of picks no matter how tests are scheduled.
+     *
+     * @return a new random source.
+     */
+    public static Random newRandom() {
+        return SEED == null ? new Random() : new Random(SEED);
+    }
+
+    /**
+     * Drops every cached snapshot.
+     */
+    public static void clear() {
+        SNAPSHOTS.clear();
+    }
+
+    /**
+     * Returns the products in listing order.
+     *
+     * @return the listed products.
+     */
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    /**
+     * Picks one of the listed products.
+     *
+     * @param random the source of the choice.
+     * @return the chosen product.
+     */
+    public Product pick(Random random) {
+        return products.get(random.nextInt(products.size()));
+    }
+
+    /**
+     * Returns whether the snapshot is older than its time to live.
+     *
+     * @return true if the snapshot should be collected again.
+     */
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Product> collect(WebDriver driver, String listing, String itemXpath) {
+        List<List<Object>> rows = new PageWait(driver).until(listing + " product snapshot",
+                d -> (List<List<Object>>) ((JavascriptExecutor) d).executeScript(COLLECT_SCRIPT, itemXpath));
+        List<Product> products = new ArrayList<>(rows.size());
+        for (List<Object> row : rows) {
+            products.add(new Product(String.valueOf(row.get(0)), String.valueOf(row.get(1))));
+        }
+        return products;
+    }
+
+    /**
+     * A product entry on a listing page.
+     *
+     * @param url the absolute URL of the product page, or an empty string if the snapshot was
+     *            read without a browser.
+     * @param id the WooCommerce product ID, or an empty string if the listing does not show it.
+     */
+    public record Product(String url, String id) {
+    }
+}
@@ -3,7 +3,10 @@ package pageobjects;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import utilities.CachingElementLocatorFactory;
+import utilities.PagePerformance;
+import utilities.PageWait;
+import utilities.StepMetrics;
 
 /**
  * The ProductPage class represents a product detail page in the online store.
@@ -14,6 +17,8 @@ import org.openqa.selenium.support.PageFactory;
 public class ProductPage {
 
     private WebDriver driver;
+    private PageWait wait;
+    private CachingElementLocatorFactory elements;
 
     @FindBy(name = "add-to-cart")
     private WebElement addToCartButton;
@@ -25,13 +30,19 @@ public class ProductPage {
      */
     public ProductPage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        this.wait = new PageWait(driver);
+        this.elements = CachingElementLocatorFactory.initElements(driver, this);
     }
 
     /**
      * Adds the product to the shopping cart by clicking the add-to-cart button.
      */
     public void addToCart() {
-        addToCartButton.click();
+        StepMetrics.time("ProductPage.addToCart", () -> {
+            wait.clickable("add to cart button", addToCartButton).click();
+            elements.invalidate();
+            wait.pageReady("product added to cart");
+        });
+        PagePerformance.capture(driver, "product");
     }
 }
@@ -4,19 +4,27 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import utilities.CachingElementLocatorFactory;
+import utilities.PagePerformance;
+import utilities.PageWait;
+import utilities.StepMetrics;
+import utilities.StoreConfig;
+
+import java.util.Random;
 
 /**
  * The StoreHomePage class represents the homepage of the online store.
  *
  * It provides methods to navigate to various sections of the store, such as
  * the Accessories department and the shopping cart. It also allows access
- * to information related to the shopping cart.
+ * to information related to the shopping cart. After each navigation, the
+ * browser's timing of the new page is captured by PagePerformance.
  */
 public class StoreHomePage {
 
     private WebDriver driver;
-    private static final String URL = "https://atid.store";
+    private PageWait wait;
+    private CachingElementLocatorFactory elements;
 
     @FindBy(xpath = "//a[contains(text(),'Accessories')]")
     private WebElement accessories;
@@ -37,14 +45,20 @@ public class StoreHomePage {
      */
     public StoreHomePage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        this.wait = new PageWait(driver);
+        this.elements = CachingElementLocatorFactory.initElements(driver, this);
     }
 
     /**
-     * Navigates to the online store homepage.
+     * Navigates to the online store homepage at the configured base URL.
      */
     public void goToStore() {
-        driver.get(URL);
+        StepMetrics.time("StoreHomePage.goToStore", () -> {
+            driver.get(StoreConfig.getBaseUrl());
+            elements.invalidate();
+            wait.pageReady("store home page");
+        });
+        PagePerformance.capture(driver, "home");
     }
 
     /**
@@ -53,8 +67,24 @@ public class StoreHomePage {
      * @return an instance of the AccessoriesPage.
      */
     public AccessoriesPage goToAccessories() {
-        accessories.click();
-        return new AccessoriesPage(driver);
+        return goToAccessories(ProductCatalogue.newRandom());
+    }
+
+    /**
+     * Navigates to the Accessories department, picking products with the given random source.
+     *
+     * @param random the source of random product picks, for reproducible runs.
+     * @return an instance of the AccessoriesPage.
+     */
+    public AccessoriesPage goToAccessories(Random random) {
+        AccessoriesPage page = StepMetrics.time("StoreHomePage.goToAccessories", () -> {
+            wait.clickable("Accessories link", accessories).click();
+            elements.invalidate();
+            wait.pageReady("Accessories page");
+            return new AccessoriesPage(driver, random);
+        });
+        PagePerformance.capture(driver, "accessories");
+        return page;
     }
 
     /**
@@ -63,10 +93,16 @@ public class StoreHomePage {
      * @return an instance of the CartPage.
      */
     public CartPage goToCart() {
-        Actions actions = new Actions(driver);
-        actions.moveToElement(headerCart).perform();
-        viewCartBtn.click();
-        return new CartPage(driver);
+        CartPage page = StepMetrics.time("StoreHomePage.goToCart", () -> {
+            Actions actions = new Actions(driver);
+            actions.moveToElement(wait.visible("header cart", headerCart)).perform();
+            wait.clickable("View cart link", viewCartBtn).click();
+            elements.invalidate();
+            wait.pageReady("cart page");
+            return new CartPage(driver);
+        });
+        PagePerformance.capture(driver, "cart");
+        return page;
     }
 
     /**
@@ -75,7 +111,9 @@ public class StoreHomePage {
      * @return the number of items in the cart as an integer.
      */
     public int getCountCart() {
-        String countText = countCart.getText();
-        return Integer.parseInt(countText);
+        return StepMetrics.time("StoreHomePage.getCountCart", () -> {
+            String countText = wait.visible("cart count", countCart).getText();
+            return Integer.parseInt(countText);
+        });
     }
 }
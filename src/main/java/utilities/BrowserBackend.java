@@ -0,0 +1,54 @@
+package utilities;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * The BrowserBackend enum lists the browsers TestLifecycleExtension can lease sessions of.
+ *
+ * A test class picks its backend with the UseBackend annotation or with a JUnit tag named
+ * after the backend, such as @Tag("htmlunit"). Classes that do neither use the backend
+ * given by the "browser.backend" system property, Chrome by default.
+ */
+public enum BrowserBackend {
+
+    /** Google Chrome through chromedriver, launched with the configured ChromeProfile. */
+    CHROME(ChromeDriverFactory::new),
+
+    /** HtmlUnit, running inside the test JVM. */
+    HTMLUNIT(HtmlUnitDriverFactory::new);
+
+    private final Supplier<OpenCloseBrowser> factory;
+
+    BrowserBackend(Supplier<OpenCloseBrowser> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns a new factory for sessions of this backend.
+     *
+     * @return the browser factory.
+     */
+    public OpenCloseBrowser newFactory() {
+        return factory.get();
+    }
+
+    /**
+     * Returns the JUnit tag that selects this backend, such as "htmlunit".
+     *
+     * @return the tag name.
+     */
+    public String getTag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the backend named by the "browser.backend" system property, Chrome by default.
+     *
+     * @return the default backend.
+     * @throws IllegalArgumentException if the property names no backend.
+     */
+    public static BrowserBackend fromSystemProperties() {
+        return valueOf(System.getProperty("browser.backend", "chrome").trim().toUpperCase(Locale.ROOT));
+    }
+}
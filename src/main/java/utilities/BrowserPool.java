@@ -0,0 +1,322 @@
+package utilities;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The BrowserPool class keeps a bounded set of browser sessions that tests lease
+ * one at a time and hand back when they are done.
+ *
+ * Sessions are opened lazily through an OpenCloseBrowser implementation, so the pool
+ * never launches more browsers than tests actually run concurrently, and never more
+ * than its configured maximum. When every session is leased, callers wait until one
+ * is released, or until a discarded session frees its slot for a new launch.
+ *
+ * Sessions can also be pre-warmed: prewarm() starts launching them in the background,
+ * and a lease that finds no idle session takes over a launch already under way instead
+ * of starting its own. The pool keeps track of how much launch time pre-warming took
+ * off the tests' critical path and logs it when it is closed. Every launch and quit is
+ * recorded in the RunJournal.
+ */
+public class BrowserPool implements ExtensionContext.Store.CloseableResource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BrowserPool.class);
+    private static final long SLOT_CHECK_MILLIS = 100;
+
+    private final OpenCloseBrowser browserFactory;
+    private final Consumer<WebDriver> sessionSetup;
+    private final int maxSize;
+    private final long leaseTimeoutMillis;
+
+    private final BlockingQueue<WebDriver> idle = new LinkedBlockingQueue<>();
+    private final Set<WebDriver> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final BlockingQueue<WarmLaunch> warming = new LinkedBlockingQueue<>();
+    private final LongAdder hiddenLaunchNanos = new LongAdder();
+    private final LongAdder prewarmWaitNanos = new LongAdder();
+    private final AtomicInteger prewarmedLeases = new AtomicInteger();
+    private ExecutorService prewarmExecutor;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a BrowserPool.
+     *
+     * @param browserFactory the implementation used to open and close sessions.
+     * @param sessionSetup configuration applied once to every newly opened session.
+     * @param maxSize the maximum number of sessions the pool may hold open.
+     * @param leaseTimeoutMillis how long a lease waits for a free session before failing.
+     */
+    public BrowserPool(OpenCloseBrowser browserFactory, Consumer<WebDriver> sessionSetup,
+                       int maxSize, long leaseTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Browser pool size must be at least 1, was " + maxSize);
+        }
+        this.browserFactory = browserFactory;
+        this.sessionSetup = sessionSetup;
+        this.maxSize = maxSize;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+    }
+
+    /**
+     * Leases a session, reusing an idle one when available and opening a new one
+     * while the pool is below its maximum size.
+     *
+     * @return a WebDriver that belongs to the caller until it is released.
+     * @throws IllegalStateException if the pool is closed or no session frees up in time.
+     */
+    public WebDriver lease() {
+        if (closed) {
+            throw new IllegalStateException("Browser pool is closed");
+        }
+        WebDriver driver = idle.poll();
+        if (driver != null) {
+            return driver;
+        }
+        WarmLaunch warm = warming.poll();
+        if (warm != null) {
+            driver = await(warm);
+            if (driver != null) {
+                return driver;
+            }
+        }
+        if (tryReserve()) {
+            return launch();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMillis);
+        for (long remaining = leaseTimeoutMillis; remaining > 0;
+                remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) {
+            try {
+                driver = idle.poll(Math.min(remaining, SLOT_CHECK_MILLIS), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+            }
+            if (driver != null) {
+                return driver;
+            }
+            // A discarded session or a failed launch frees a slot without anything reaching idle.
+            if (!closed && tryReserve()) {
+                return launch();
+            }
+        }
+        throw new IllegalStateException("No browser session became available within "
+                + leaseTimeoutMillis + " ms (pool size " + maxSize + ")");
+    }
+
+    /**
+     * Starts launching sessions in the background, without waiting for them. Later
+     * leases take these sessions as they become ready.
+     *
+     * @param count how many sessions to launch; capped by the free slots in the pool.
+     * @return the number of launches started.
+     */
+    public synchronized int prewarm(int count) {
+        int started = 0;
+        while (started < count && !closed && tryReserve()) {
+            if (prewarmExecutor == null) {
+                prewarmExecutor = Executors.newFixedThreadPool(maxSize, runnable -> {
+                    Thread thread = new Thread(runnable, "browser-prewarm");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            WarmLaunch warm = new WarmLaunch(System.nanoTime());
+            warm.future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return launch();
+                } finally {
+                    warm.finishedNanos = System.nanoTime();
+                }
+            }, prewarmExecutor);
+            warming.add(warm);
+            started++;
+        }
+        if (started > 0) {
+            LOGGER.info("Pre-warming {} browser session(s)", started);
+        }
+        return started;
+    }
+
+    /**
+     * Returns a leased session to the pool so another test can use it.
+     *
+     * @param driver the session previously obtained from lease().
+     */
+    public void release(WebDriver driver) {
+        if (closed) {
+            discard(driver);
+            return;
+        }
+        idle.offer(driver);
+    }
+
+    /**
+     * Closes a leased session that is no longer usable and frees its slot.
+     *
+     * @param driver the session to close.
+     */
+    public void discard(WebDriver driver) {
+        if (sessions.remove(driver)) {
+            reserved.decrementAndGet();
+            long start = System.nanoTime();
+            browserFactory.closeBrowser(driver);
+            RunJournal.record(RunEvent.Type.DRIVER_QUIT, StepMetrics.NO_TEST, "", browserName(),
+                    System.nanoTime() - start, null);
+        }
+    }
+
+    /**
+     * Returns the maximum number of sessions this pool may hold open.
+     *
+     * @return the pool size.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the launch time that pre-warmed sessions spent before a test asked for
+     * them, which is launch time the tests did not have to wait for.
+     *
+     * @return the hidden launch time in milliseconds.
+     */
+    public long getHiddenLaunchMillis() {
+        return hiddenLaunchNanos.sum() / 1_000_000L;
+    }
+
+    /**
+     * Returns how long tests waited for pre-warmed sessions that were still launching.
+     *
+     * @return the wait time in milliseconds.
+     */
+    public long getPrewarmWaitMillis() {
+        return prewarmWaitNanos.sum() / 1_000_000L;
+    }
+
+    /**
+     * Returns whether the pool has been closed.
+     *
+     * @return true once close() has been called.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes every session the pool has opened.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        idle.clear();
+        for (WarmLaunch warm = warming.poll(); warm != null; warm = warming.poll()) {
+            // Let launches under way finish, so they can be quit below instead of leaking a browser.
+            warm.future.handle((driver, error) -> driver).join();
+        }
+        synchronized (this) {
+            if (prewarmExecutor != null) {
+                prewarmExecutor.shutdown();
+            }
+        }
+        for (WebDriver driver : sessions) {
+            discard(driver);
+        }
+        if (prewarmedLeases.get() > 0) {
+            LOGGER.info("Pre-warming hid {} ms of browser launch time over {} session(s); tests waited {} ms"
+                    + " for sessions still launching", getHiddenLaunchMillis(), prewarmedLeases.get(),
+                    getPrewarmWaitMillis());
+        }
+    }
+
+    private boolean tryReserve() {
+        while (true) {
+            int current = reserved.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (reserved.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private WebDriver await(WarmLaunch warm) {
+        long requested = System.nanoTime();
+        WebDriver driver;
+        try {
+            driver = warm.future.get(leaseTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            LOGGER.warn("Pre-warmed browser session failed to launch, launching another", e.getCause());
+            return null;
+        } catch (TimeoutException e) {
+            // The launch holds a slot; hand its session to the next lease once it is ready.
+            warm.future.thenAccept(this::release);
+            throw new IllegalStateException("Pre-warmed browser session did not start within "
+                    + leaseTimeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+        }
+        long finished = warm.finishedNanos;
+        hiddenLaunchNanos.add(Math.min(finished, requested) - warm.startedNanos);
+        prewarmWaitNanos.add(Math.max(0, finished - requested));
+        prewarmedLeases.incrementAndGet();
+        return driver;
+    }
+
+    private WebDriver launch() {
+        WebDriver driver;
+        long start = System.nanoTime();
+        try {
+            driver = browserFactory.openBrowser();
+        } catch (RuntimeException e) {
+            reserved.decrementAndGet();
+            RunJournal.record(RunEvent.Type.DRIVER_LAUNCHED, StepMetrics.NO_TEST, "", browserName(),
+                    System.nanoTime() - start, "failed: " + e);
+            throw e;
+        }
+        RunJournal.record(RunEvent.Type.DRIVER_LAUNCHED, StepMetrics.NO_TEST, "", browserName(),
+                System.nanoTime() - start, null);
+        sessions.add(driver);
+        try {
+            sessionSetup.accept(driver);
+        } catch (RuntimeException e) {
+            discard(driver);
+            throw e;
+        }
+        return driver;
+    }
+
+    private String browserName() {
+        return browserFactory.getClass().getSimpleName();
+    }
+
+    /**
+     * A session launch started by prewarm().
+     */
+    private static final class WarmLaunch {
+        private final long startedNanos;
+        private volatile long finishedNanos;
+        private CompletableFuture<WebDriver> future;
+
+        private WarmLaunch(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+    }
+}
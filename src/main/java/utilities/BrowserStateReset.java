@@ -0,0 +1,41 @@
+package utilities;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * The BrowserStateReset class wipes the client-side state a test leaves behind in a
+ * browser session, so the next test that leases the session starts with an empty cart.
+ *
+ * Resetting an existing session costs two WebDriver commands instead of the seconds
+ * needed to launch a fresh browser: one script clears localStorage, sessionStorage and
+ * the WooCommerce cart fragments cached there, and one deleteAllCookies call drops the
+ * cookies, including the HttpOnly WooCommerce session cookie that scripts cannot see.
+ */
+public final class BrowserStateReset {
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); } catch (e) { }"
+            + "try { window.sessionStorage.clear(); } catch (e) { }";
+
+    private BrowserStateReset() {
+    }
+
+    /**
+     * Clears cookies, web storage and the WooCommerce cart session of the given session.
+     *
+     * Cookies are scoped to the domain of the page currently open in the session, which
+     * is always the store under test for sessions coming back from a test.
+     *
+     * @param driver the session to reset.
+     */
+    public static void reset(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+        } catch (WebDriverException e) {
+            // A fresh session still shows a data: URL, which has no storage to clear.
+        }
+        driver.manage().deleteAllCookies();
+    }
+}
@@ -0,0 +1,84 @@
+package utilities;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+/**
+ * The CachingElementLocator class remembers the elements its delegate finds, so
+ * repeated use of a PageFactory field costs no further findElement round trips.
+ *
+ * Before a cached element is returned, the owning factory checks that the browser still
+ * shows the document it came from. The cache is dropped through invalidate(), which the
+ * factory calls when the document changed, and the decorator when a cached element
+ * turns out to be stale.
+ */
+class CachingElementLocator implements ElementLocator {
+
+    private final ElementLocator delegate;
+    private final CachingElementLocatorFactory factory;
+    private volatile WebElement element;
+    private volatile List<WebElement> elements;
+
+    /**
+     * Constructs a CachingElementLocator.
+     *
+     * @param delegate the locator that performs the actual lookups.
+     * @param factory the factory whose hit and miss counters this locator updates.
+     */
+    CachingElementLocator(ElementLocator delegate, CachingElementLocatorFactory factory) {
+        this.delegate = delegate;
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the cached element, looking it up first if nothing is cached.
+     *
+     * @return the located element.
+     */
+    @Override
+    public WebElement findElement() {
+        WebElement cached = element;
+        if (cached != null && factory.isDocumentUnchanged()) {
+            factory.recordHit();
+            return cached;
+        }
+        factory.recordMiss();
+        factory.beforeFill();
+        cached = delegate.findElement();
+        element = cached;
+        return cached;
+    }
+
+    /**
+     * Returns the cached elements, looking them up first if nothing is cached.
+     *
+     * Empty results are not cached, since they usually mean the page is still rendering.
+     *
+     * @return the located elements.
+     */
+    @Override
+    public List<WebElement> findElements() {
+        List<WebElement> cached = elements;
+        if (cached != null && factory.isDocumentUnchanged()) {
+            factory.recordHit();
+            return cached;
+        }
+        factory.recordMiss();
+        factory.beforeFill();
+        cached = delegate.findElements();
+        if (!cached.isEmpty()) {
+            elements = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Drops the cached element and element list.
+     */
+    void invalidate() {
+        element = null;
+        elements = null;
+    }
+}
@@ -0,0 +1,211 @@
+package utilities;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The CachingElementLocatorFactory class gives each page object an element cache, so
+ * that using a @FindBy field repeatedly sends only one findElement to the browser.
+ *
+ * Unlike @CacheLookup, the cache is safe across navigation. Before a cached element is
+ * used after a command that may have loaded a new document, such as a get, a click or
+ * going back, the factory asks the browser which document it shows, by its
+ * performance.timeOrigin and URL, and drops the cache if the document changed. That
+ * check is one script call per navigation, made outside the test's CommandBudget, and
+ * only when the page object uses its cache again. Navigation commands are known from
+ * the driver's CommandCounter; for a driver without one, the document is checked on
+ * every cache hit. Page objects may still call invalidate() after the actions that
+ * load a new document, which saves the check. An element that still turns out to be
+ * stale is looked up again, and the call is repeated once.
+ *
+ * Hit and miss counters are kept per factory and for the whole JVM.
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+    private static final LongAdder TOTAL_HITS = new LongAdder();
+    private static final LongAdder TOTAL_MISSES = new LongAdder();
+    private static final String DOCUMENT_SCRIPT = "return String(performance.timeOrigin) + ' ' + location.href;";
+    private static final long UNKNOWN = -1;
+
+    private final SearchContext searchContext;
+    private final List<CachingElementLocator> locators = new CopyOnWriteArrayList<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder documentChanges = new LongAdder();
+    private String document;
+    private long checkedNavigation;
+
+    /**
+     * Constructs a CachingElementLocatorFactory.
+     *
+     * @param searchContext the driver or element the page's fields are looked up in.
+     */
+    public CachingElementLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+        this.checkedNavigation = navigationCount();
+    }
+
+    /**
+     * Initializes the page object's @FindBy fields with caching, stale-aware proxies.
+     *
+     * @param searchContext the driver or element the page's fields are looked up in.
+     * @param page the page object to initialize.
+     * @return the factory holding the page's element cache.
+     */
+    public static CachingElementLocatorFactory initElements(SearchContext searchContext, Object page) {
+        CachingElementLocatorFactory factory = new CachingElementLocatorFactory(searchContext);
+        PageFactory.initElements(new CachingFieldDecorator(factory), page);
+        return factory;
+    }
+
+    /**
+     * Creates a caching locator for a field.
+     *
+     * @param field the field to locate.
+     * @return the locator.
+     */
+    @Override
+    public ElementLocator createLocator(Field field) {
+        CachingElementLocator locator = new CachingElementLocator(new DefaultElementLocator(searchContext, field), this);
+        locators.add(locator);
+        return locator;
+    }
+
+    /**
+     * Drops every cached element of the page, for example after it navigated. Elements
+     * cached from here until the next navigation command are taken to belong to the
+     * document the browser shows now.
+     */
+    public synchronized void invalidate() {
+        dropCache();
+        document = null;
+        checkedNavigation = navigationCount();
+    }
+
+    /**
+     * Returns how many times a cache was dropped because the browser showed another document.
+     *
+     * @return the number of document changes detected.
+     */
+    public long getDocumentChanges() {
+        return documentChanges.sum();
+    }
+
+    /**
+     * Returns how many lookups were answered from this page's cache.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns how many lookups had to go to the browser for this page.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns how many lookups were answered from a cache across all pages.
+     *
+     * @return the total number of cache hits.
+     */
+    public static long getTotalHits() {
+        return TOTAL_HITS.sum();
+    }
+
+    /**
+     * Returns how many lookups went to the browser across all pages.
+     *
+     * @return the total number of cache misses.
+     */
+    public static long getTotalMisses() {
+        return TOTAL_MISSES.sum();
+    }
+
+    /**
+     * Checks, before a cached element is used, that the browser still shows the document
+     * the cache was filled from, and drops the cache if it does not.
+     *
+     * @return true if cached elements may be used, false if the cache was dropped.
+     */
+    synchronized boolean isDocumentUnchanged() {
+        if (!(searchContext instanceof WebDriver driver)) {
+            return true;
+        }
+        long navigation = navigationCount();
+        if (navigation != UNKNOWN && navigation == checkedNavigation) {
+            return true;
+        }
+        String current = CommandCounter.uncounted(() -> documentOf(driver));
+        boolean unchanged = document != null && document.equals(current);
+        document = current;
+        checkedNavigation = navigation;
+        if (!unchanged) {
+            dropCache();
+            documentChanges.increment();
+        }
+        return unchanged;
+    }
+
+    /**
+     * Notes that an element is about to be looked up for the cache. Without a navigation
+     * count to go by, the document it comes from is read first, so the next cache hit has
+     * something to compare with.
+     */
+    synchronized void beforeFill() {
+        if (document == null && searchContext instanceof WebDriver driver && navigationCount() == UNKNOWN) {
+            document = CommandCounter.uncounted(() -> documentOf(driver));
+        }
+    }
+
+    private void dropCache() {
+        for (CachingElementLocator locator : locators) {
+            locator.invalidate();
+        }
+    }
+
+    private long navigationCount() {
+        CommandCounter counter = searchContext instanceof WebDriver driver ? CommandCounter.of(driver) : null;
+        return counter == null ? UNKNOWN : counter.getNavigationCount();
+    }
+
+    private static String documentOf(WebDriver driver) {
+        if (driver instanceof JavascriptExecutor script) {
+            try {
+                Object document = script.executeScript(DOCUMENT_SCRIPT);
+                if (document != null) {
+                    return document.toString();
+                }
+            } catch (WebDriverException e) {
+                // Fall back to the URL below, for drivers without JavaScript.
+            }
+        }
+        return String.valueOf(driver.getCurrentUrl());
+    }
+
+    void recordHit() {
+        hits.increment();
+        TOTAL_HITS.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+        TOTAL_MISSES.increment();
+    }
+}
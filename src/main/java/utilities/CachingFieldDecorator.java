@@ -0,0 +1,121 @@
+package utilities;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CachingFieldDecorator class creates PageFactory proxies that recover from stale
+ * cached elements.
+ *
+ * When a call on a cached element fails with StaleElementReferenceException, the
+ * document it came from has gone; the proxy drops the locator's cache, looks the
+ * element up again and repeats the call once.
+ */
+class CachingFieldDecorator extends DefaultFieldDecorator {
+
+    private static final Class<?>[] ELEMENT_INTERFACES = {WebElement.class, WrapsElement.class, Locatable.class};
+
+    /**
+     * Constructs a CachingFieldDecorator.
+     *
+     * @param factory the factory providing caching locators for the page's fields.
+     */
+    CachingFieldDecorator(CachingElementLocatorFactory factory) {
+        super(factory);
+    }
+
+    /**
+     * Creates a proxy for a single-element field.
+     *
+     * @param loader the class loader used for the proxy.
+     * @param locator the locator for the field.
+     * @return the element proxy.
+     */
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        return (WebElement) Proxy.newProxyInstance(loader, ELEMENT_INTERFACES, new ElementHandler(locator, -1));
+    }
+
+    /**
+     * Creates a proxy for a list field whose elements also recover from staleness.
+     *
+     * @param loader the class loader used for the proxy.
+     * @param locator the locator for the field.
+     * @return the list proxy.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<WebElement> proxyForListLocator(ClassLoader loader, ElementLocator locator) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            List<WebElement> found = locator.findElements();
+            List<WebElement> elements = new ArrayList<>(found.size());
+            for (int i = 0; i < found.size(); i++) {
+                elements.add((WebElement) Proxy.newProxyInstance(loader, ELEMENT_INTERFACES,
+                        new ElementHandler(locator, i)));
+            }
+            return invoke(method, elements, args);
+        };
+        return (List<WebElement>) Proxy.newProxyInstance(loader, new Class<?>[]{List.class}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Resolves a single element, or one position of a list, on every call.
+     */
+    private static final class ElementHandler implements InvocationHandler {
+
+        private final ElementLocator locator;
+        private final int index;
+
+        ElementHandler(ElementLocator locator, int index) {
+            this.locator = locator;
+            this.index = index;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            WebElement element = resolve();
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            try {
+                return CachingFieldDecorator.invoke(method, element, args);
+            } catch (StaleElementReferenceException e) {
+                if (!(locator instanceof CachingElementLocator)) {
+                    throw e;
+                }
+                ((CachingElementLocator) locator).invalidate();
+                return CachingFieldDecorator.invoke(method, resolve(), args);
+            }
+        }
+
+        private WebElement resolve() {
+            if (index < 0) {
+                return locator.findElement();
+            }
+            List<WebElement> elements = locator.findElements();
+            if (index >= elements.size()) {
+                throw new StaleElementReferenceException("List element #" + index + " is no longer on the page");
+            }
+            return elements.get(index);
+        }
+    }
+}
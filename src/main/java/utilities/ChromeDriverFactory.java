@@ -1,27 +1,51 @@
 package utilities;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
 
 /**
  * The ChromeDriverFactory class implements the OpenCloseBrowser interface
  * to manage the lifecycle of a Chrome browser instance.
  *
- * This class is responsible for initializing the ChromeDriver using
- * WebDriverManager and providing methods to open and close the browser.
+ * This class is responsible for initializing the ChromeDriver and providing
+ * methods to open and close the browser. The chromedriver and Chrome binaries are
+ * found once through DriverBinaryCache and reused by every launch, without network
+ * access or a search for Chrome; if Chrome rejects the cached driver, for example
+ * after a browser update, both are resolved again and the launch retried once.
+ *
+ * Browsers are launched with a ChromeProfile, which sets headless mode, the
+ * window size and what the browser skips loading. The factory holds nothing
+ * but that profile, so one instance can open any number of independent sessions.
  */
 public class ChromeDriverFactory implements OpenCloseBrowser {
 
-    static WebDriver driver;
+    private final ChromeProfile profile;
+
+    /**
+     * Constructs a ChromeDriverFactory with the profile configured by system properties.
+     */
+    public ChromeDriverFactory() {
+        this(ChromeProfile.fromSystemProperties());
+    }
+
+    /**
+     * Constructs a ChromeDriverFactory with the given profile.
+     *
+     * @param profile the profile every browser is launched with.
+     */
+    public ChromeDriverFactory(ChromeProfile profile) {
+        this.profile = profile;
+    }
 
     /**
-     * Constructs a ChromeDriverFactory with the specified WebDriver instance.
+     * Returns the profile browsers are launched with.
      *
-     * @param driver the WebDriver instance to be managed by this factory.
+     * @return the Chrome profile.
      */
-    public ChromeDriverFactory(WebDriver driver) {
-        ChromeDriverFactory.driver = driver;
+    public ChromeProfile getProfile() {
+        return profile;
     }
 
     /**
@@ -31,8 +55,17 @@ public class ChromeDriverFactory implements OpenCloseBrowser {
      */
     @Override
     public WebDriver openBrowser() {
-        WebDriverManager.chromedriver().setup();
-        return new ChromeDriver();  // Return a new instance of ChromeDriver
+        WebDriver driver;
+        try {
+            driver = new ChromeDriver(toOptions());
+        } catch (SessionNotCreatedException e) {
+            DriverBinaryCache.CHROME.invalidate();
+            driver = new ChromeDriver(toOptions());
+        }
+        if (profile.windowSize() == null) {
+            driver.manage().window().maximize();
+        }
+        return driver;
     }
 
     /**
@@ -44,4 +77,11 @@ public class ChromeDriverFactory implements OpenCloseBrowser {
     public void closeBrowser(WebDriver driver) {
         driver.quit();  // Quit the driver and close all associated windows
     }
+
+    // Resolves chromedriver, which Selenium picks up from its system property, and Chrome.
+    private ChromeOptions toOptions() {
+        ChromeOptions options = profile.toOptions();
+        DriverBinaryCache.CHROME.browserBinary().ifPresent(browser -> options.setBinary(browser.toFile()));
+        return options;
+    }
 }
@@ -0,0 +1,130 @@
+package utilities;
+
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The ChromeProfile record describes how ChromeDriverFactory launches Chrome.
+ *
+ * The "standard" profile is a plain, headed, maximized Chrome, as a user would see the
+ * store. The "lean" profile runs headless at a fixed window size, without extensions or
+ * GPU, and skips what the tests never look at: images, web fonts and analytics hosts.
+ *
+ * The profile is picked with the "chrome.profile" system property, and each setting can
+ * be overridden on its own with "chrome.headless", "chrome.window.size" (such as
+ * "1920,1080"), "chrome.block.images", "chrome.block.fonts" and "chrome.block.hosts"
+ * (a comma-separated list, where "*.example.com" matches subdomains).
+ *
+ * @param name the profile name, for reports.
+ * @param headless whether Chrome runs without a visible window.
+ * @param windowSize the window size as "width,height", or null to maximize the window.
+ * @param disableExtensionsAndGpu whether extensions and GPU acceleration are turned off.
+ * @param blockImages whether images are not loaded.
+ * @param blockFonts whether web fonts are not loaded.
+ * @param blockedHosts the hosts that fail to resolve, such as analytics services.
+ */
+public record ChromeProfile(String name, boolean headless, String windowSize, boolean disableExtensionsAndGpu,
+                            boolean blockImages, boolean blockFonts, List<String> blockedHosts) {
+
+    /** Window size of the lean profile, wide enough for the store's desktop header. */
+    public static final String LEAN_WINDOW_SIZE = "1920,1080";
+
+    /** Analytics and tracking hosts the lean profile blocks. */
+    public static final List<String> ANALYTICS_HOSTS = List.of("*.google-analytics.com",
+            "*.googletagmanager.com", "*.doubleclick.net", "connect.facebook.net", "stats.wp.com",
+            "pixel.wp.com", "*.hotjar.com");
+
+    private static final List<String> FONT_HOSTS = List.of("fonts.googleapis.com", "fonts.gstatic.com",
+            "use.fontawesome.com");
+
+    /**
+     * Returns the standard profile: headed, maximized, nothing blocked.
+     *
+     * @return the standard profile.
+     */
+    public static ChromeProfile standard() {
+        return new ChromeProfile("standard", false, null, false, false, false, List.of());
+    }
+
+    /**
+     * Returns the lean profile: headless, fixed window, no extensions, GPU, images, web
+     * fonts or analytics.
+     *
+     * @return the lean profile.
+     */
+    public static ChromeProfile lean() {
+        return new ChromeProfile("lean", true, LEAN_WINDOW_SIZE, true, true, true, ANALYTICS_HOSTS);
+    }
+
+    /**
+     * Returns the profile named by the "chrome.profile" system property ("standard" by
+     * default), with any per-setting overrides from the other "chrome.*" properties.
+     *
+     * @return the configured profile.
+     * @throws IllegalArgumentException if the profile name is unknown.
+     */
+    public static ChromeProfile fromSystemProperties() {
+        String name = System.getProperty("chrome.profile", "standard");
+        ChromeProfile base = switch (name) {
+            case "standard" -> standard();
+            case "lean" -> lean();
+            default -> throw new IllegalArgumentException("Unknown chrome.profile '" + name
+                    + "', expected 'standard' or 'lean'");
+        };
+        String hosts = System.getProperty("chrome.block.hosts");
+        return new ChromeProfile(name,
+                flag("chrome.headless", base.headless()),
+                System.getProperty("chrome.window.size", base.windowSize()),
+                base.disableExtensionsAndGpu(),
+                flag("chrome.block.images", base.blockImages()),
+                flag("chrome.block.fonts", base.blockFonts()),
+                hosts == null ? base.blockedHosts() : Arrays.stream(hosts.split(","))
+                        .map(String::trim).filter(host -> !host.isEmpty()).collect(Collectors.toList()));
+    }
+
+    /**
+     * Returns the Chrome options that apply this profile.
+     *
+     * @return new ChromeOptions for this profile.
+     */
+    public ChromeOptions toOptions() {
+        ChromeOptions options = new ChromeOptions();
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        if (windowSize != null) {
+            options.addArguments("--window-size=" + windowSize);
+        }
+        if (disableExtensionsAndGpu) {
+            options.addArguments("--disable-extensions", "--disable-gpu");
+        }
+        if (blockImages) {
+            options.addArguments("--blink-settings=imagesEnabled=false");
+            Map<String, Object> prefs = new HashMap<>();
+            prefs.put("profile.managed_default_content_settings.images", 2);
+            options.setExperimentalOption("prefs", prefs);
+        }
+        List<String> unresolved = new ArrayList<>(blockedHosts);
+        if (blockFonts) {
+            options.addArguments("--disable-remote-fonts");
+            unresolved.addAll(FONT_HOSTS);
+        }
+        if (!unresolved.isEmpty()) {
+            options.addArguments("--host-resolver-rules=" + unresolved.stream()
+                    .map(host -> "MAP " + host + " ~NOTFOUND")
+                    .collect(Collectors.joining(", ")));
+        }
+        return options;
+    }
+
+    private static boolean flag(String property, boolean defaultValue) {
+        String value = System.getProperty(property);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
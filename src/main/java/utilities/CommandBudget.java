@@ -0,0 +1,36 @@
+package utilities;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The CommandBudget annotation limits the WebDriver commands a test may send, by count,
+ * by time spent waiting for the browser, or both.
+ *
+ * A test that goes over its budget fails, with the commands it sent broken down by type
+ * and by locator. On a class, the budget applies to every test that does not declare its
+ * own. Only the test body is counted, not the session reset that runs before it.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(CommandBudgetExtension.class)
+public @interface CommandBudget {
+
+    /**
+     * The most commands the test may send.
+     *
+     * @return the command limit; unlimited by default.
+     */
+    int maxCommands() default Integer.MAX_VALUE;
+
+    /**
+     * The most time the test may spend waiting for the browser to answer commands.
+     *
+     * @return the time limit in milliseconds; unlimited by default.
+     */
+    long maxMillis() default Long.MAX_VALUE;
+}
@@ -0,0 +1,80 @@
+package utilities;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * The CommandBudgetExtension class enforces CommandBudget annotations.
+ *
+ * It resets the command counter of the session leased by TestLifecycleExtension right
+ * before the test body runs, and compares the counts against the budget right after. The
+ * counts of every test are also published as report entries and logged at debug level.
+ */
+public class CommandBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommandBudgetExtension.class);
+
+    /**
+     * Callback executed right before the test body.
+     *
+     * This method clears the counts left by the session reset and earlier tests.
+     *
+     * @param context the context of the test method.
+     */
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        CommandCounter counter = CommandCounter.of(TestLifecycleExtension.leasedDriver());
+        if (counter != null) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Callback executed right after the test body.
+     *
+     * This method reports the test's command counts and fails the test if they exceed
+     * its budget.
+     *
+     * @param context the context of the test method.
+     * @throws AssertionFailedError if the test went over its budget.
+     */
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        CommandCounter counter = CommandCounter.of(TestLifecycleExtension.leasedDriver());
+        if (counter == null) {
+            return;
+        }
+        long count = counter.getCommandCount();
+        long millis = counter.getCommandMillis();
+        context.publishReportEntry("webdriver.commands", Long.toString(count));
+        context.publishReportEntry("webdriver.commandMillis", Long.toString(millis));
+        LOGGER.debug("{}: {}", context.getDisplayName(), counter.summary());
+
+        Optional<CommandBudget> budget = budgetOf(context);
+        if (budget.isEmpty() || context.getExecutionException().isPresent()) {
+            return;
+        }
+        if (count > budget.get().maxCommands()) {
+            throw new AssertionFailedError("Test sent " + count + " WebDriver commands, over its budget of "
+                    + budget.get().maxCommands() + ": " + counter.summary());
+        }
+        if (millis > budget.get().maxMillis()) {
+            throw new AssertionFailedError("Test spent " + millis + " ms on WebDriver commands, over its budget of "
+                    + budget.get().maxMillis() + " ms: " + counter.summary());
+        }
+    }
+
+    private static Optional<CommandBudget> budgetOf(ExtensionContext context) {
+        Optional<CommandBudget> budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(),
+                CommandBudget.class);
+        return budget.isPresent() ? budget
+                : AnnotationSupport.findAnnotation(context.getRequiredTestClass(), CommandBudget.class);
+    }
+}
@@ -0,0 +1,233 @@
+package utilities;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * The CommandCounter class sits between a RemoteWebDriver and its command executor and
+ * counts every command the driver sends to the browser.
+ *
+ * Commands are counted by type, such as "findElement" or "getElementText", and element
+ * lookups also by locator, such as "xpath: //a[contains(text(),'Accessories')]". The time
+ * of each lookup is recorded in StepMetrics under "WebDriver.findElement(xpath)" and the
+ * like, so slow locator strategies show up in the step latency report.
+ *
+ * Commands the framework sends for its own bookkeeping, such as reading page timings,
+ * run inside uncounted() and are kept apart from the page objects' count, so they do not
+ * eat into a test's CommandBudget. The counter also keeps a navigation count, which
+ * goes up with every command that usually loads a new document, such as a get or a click;
+ * CachingElementLocatorFactory uses it to tell when its cached elements need checking.
+ */
+public class CommandCounter implements CommandExecutor {
+
+    private static final Set<String> FIND_COMMANDS = Set.of(DriverCommand.FIND_ELEMENT,
+            DriverCommand.FIND_ELEMENTS, DriverCommand.FIND_CHILD_ELEMENT, DriverCommand.FIND_CHILD_ELEMENTS);
+    // Typing and scripts can load a page too, but are left out: form filling would check the document per field.
+    private static final Set<String> NAVIGATING_COMMANDS = Set.of(DriverCommand.GET, DriverCommand.GO_BACK,
+            DriverCommand.GO_FORWARD, DriverCommand.REFRESH, DriverCommand.CLICK_ELEMENT, DriverCommand.SUBMIT_ELEMENT,
+            DriverCommand.SWITCH_TO_WINDOW, DriverCommand.SWITCH_TO_FRAME, DriverCommand.SWITCH_TO_PARENT_FRAME,
+            DriverCommand.CLOSE);
+    private static final ThreadLocal<Boolean> UNCOUNTED = ThreadLocal.withInitial(() -> false);
+
+    private final CommandExecutor delegate;
+    private final Map<String, LongAdder> byCommand = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byLocator = new ConcurrentHashMap<>();
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder uncountedCommands = new LongAdder();
+    private final AtomicLong navigations = new AtomicLong();
+
+    private CommandCounter(CommandExecutor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Starts counting the commands of a driver. Calling it again for the same driver
+     * returns the counter that is already installed.
+     *
+     * @param driver the driver to count commands for.
+     * @return the driver's counter, or null if the driver does not talk to a browser over the wire.
+     */
+    public static CommandCounter install(WebDriver driver) {
+        if (!(driver instanceof RemoteWebDriver remote)) {
+            return null;
+        }
+        CommandExecutor current = remote.getCommandExecutor();
+        if (current instanceof CommandCounter counter) {
+            return counter;
+        }
+        CommandCounter counter = new CommandCounter(current);
+        try {
+            // RemoteWebDriver only lets subclasses swap the executor; reflection works for any driver class.
+            Method setter = RemoteWebDriver.class.getDeclaredMethod("setCommandExecutor", CommandExecutor.class);
+            setter.setAccessible(true);
+            setter.invoke(remote, counter);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not count the commands of " + driver, e);
+        }
+        return counter;
+    }
+
+    /**
+     * Returns the counter installed for a driver.
+     *
+     * @param driver the driver, or null.
+     * @return the driver's counter, or null if none is installed.
+     */
+    public static CommandCounter of(WebDriver driver) {
+        if (driver instanceof RemoteWebDriver remote && remote.getCommandExecutor() instanceof CommandCounter c) {
+            return c;
+        }
+        return null;
+    }
+
+    /**
+     * Sends a command to the browser and counts it.
+     *
+     * @param command the command to send.
+     * @return the browser's response.
+     * @throws IOException if the command cannot be sent.
+     */
+    @Override
+    public Response execute(Command command) throws IOException {
+        if (UNCOUNTED.get()) {
+            uncountedCommands.increment();
+            return delegate.execute(command);
+        }
+        if (NAVIGATING_COMMANDS.contains(command.getName())) {
+            navigations.incrementAndGet();
+        }
+        long start = System.nanoTime();
+        try {
+            return delegate.execute(command);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            commands.increment();
+            nanos.add(elapsed);
+            byCommand.computeIfAbsent(command.getName(), key -> new LongAdder()).increment();
+            if (FIND_COMMANDS.contains(command.getName())) {
+                Object using = command.getParameters().get("using");
+                Object value = command.getParameters().get("value");
+                byLocator.computeIfAbsent(using + ": " + value, key -> new LongAdder()).increment();
+                StepMetrics.record("WebDriver." + command.getName() + "(" + using + ")", elapsed);
+            }
+        }
+    }
+
+    /**
+     * Runs framework bookkeeping whose commands are not counted as the page objects'.
+     *
+     * @param action the bookkeeping, run on the current thread.
+     * @param <T> the type of the action's result.
+     * @return the action's result.
+     */
+    public static <T> T uncounted(Supplier<T> action) {
+        if (UNCOUNTED.get()) {
+            return action.get();
+        }
+        UNCOUNTED.set(true);
+        try {
+            return action.get();
+        } finally {
+            UNCOUNTED.remove();
+        }
+    }
+
+    /**
+     * Returns how many commands may have loaded a new document since the driver was
+     * wrapped. Unlike the other counts it is never reset.
+     *
+     * @return the navigation count.
+     */
+    public long getNavigationCount() {
+        return navigations.get();
+    }
+
+    /**
+     * Returns the number of bookkeeping commands sent inside uncounted() since the last reset.
+     *
+     * @return the uncounted command count.
+     */
+    public long getUncountedCommandCount() {
+        return uncountedCommands.sum();
+    }
+
+    /**
+     * Returns the number of commands sent since the last reset.
+     *
+     * @return the command count.
+     */
+    public long getCommandCount() {
+        return commands.sum();
+    }
+
+    /**
+     * Returns the time spent waiting for the browser since the last reset.
+     *
+     * @return the total command time in milliseconds.
+     */
+    public long getCommandMillis() {
+        return nanos.sum() / 1_000_000L;
+    }
+
+    /**
+     * Returns the command counts by command type, sorted by type.
+     *
+     * @return a copy of the counts.
+     */
+    public Map<String, Long> getCountsByCommand() {
+        return snapshot(byCommand);
+    }
+
+    /**
+     * Returns the element lookup counts by locator, sorted by locator.
+     *
+     * @return a copy of the counts.
+     */
+    public Map<String, Long> getCountsByLocator() {
+        return snapshot(byLocator);
+    }
+
+    /**
+     * Clears every count, typically before a test starts.
+     */
+    public void reset() {
+        byCommand.clear();
+        byLocator.clear();
+        commands.reset();
+        nanos.reset();
+        uncountedCommands.reset();
+    }
+
+    /**
+     * Returns the counts as a few readable lines.
+     *
+     * @return the command count and time, followed by the counts by type and by locator.
+     */
+    public String summary() {
+        return getCommandCount() + " commands in " + getCommandMillis() + " ms"
+                + " (and " + getUncountedCommandCount() + " framework commands)"
+                + "\n  by command: " + getCountsByCommand()
+                + "\n  by locator: " + getCountsByLocator();
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counts) {
+        Map<String, Long> copy = new TreeMap<>();
+        counts.forEach((key, count) -> copy.put(key, count.sum()));
+        return copy;
+    }
+}
@@ -0,0 +1,275 @@
+package utilities;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The DriverBinaryCache class finds a browser driver binary, such as chromedriver, and the
+ * browser binary it drives once and remembers where they are, so launching a browser does
+ * not resolve versions over the network or search for the browser.
+ *
+ * The driver is looked up in this order, stopping at the first hit:
+ * - the path already resolved by this JVM;
+ * - the driver system property, such as "webdriver.chrome.driver", if set on the command line;
+ * - the path saved on disk by an earlier run, if the file is still executable;
+ * - an executable of the driver's name on the PATH, so runners without network access never
+ *   wait on it; skipped after invalidate(), since the browser rejected that driver;
+ * - WebDriverManager, which matches the driver to the installed browser and may download it.
+ *
+ * The browser is the one WebDriverManager found, or else the first executable on the PATH
+ * with one of the browser's usual names, such as "google-chrome". It may stay unknown, in
+ * which case the driver looks for it as usual.
+ *
+ * The result is saved to "&lt;name&gt;.properties" in the directory given by the
+ * "driver.cache.dir" system property, "~/.cache/store-tests" by default, and published
+ * through the driver system property, where Selenium picks it up. When the browser is
+ * updated and the saved driver no longer matches it, invalidate() drops the saved path so
+ * the next resolve() looks it up again.
+ *
+ * CHROME reads its settings from the system properties and the environment; tests build
+ * their own cache with a private directory, PATH and download step.
+ */
+public final class DriverBinaryCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DriverBinaryCache.class);
+    private static final Path CACHE_DIR = Paths.get(System.getProperty("driver.cache.dir",
+            Paths.get(System.getProperty("user.home"), ".cache", "store-tests").toString()));
+
+    /** The cache for chromedriver. */
+    public static final DriverBinaryCache CHROME = new DriverBinaryCache("chromedriver", "webdriver.chrome.driver",
+            () -> download(WebDriverManager.chromedriver()), List.of("google-chrome", "google-chrome-stable",
+                    "chromium", "chromium-browser", "chrome", "chrome.exe"),
+            CACHE_DIR, System.getenv("PATH"), System.getProperty("webdriver.chrome.driver"));
+
+    private final String name;
+    private final String systemProperty;
+    private final Supplier<Download> manager;
+    private final List<String> browserNames;
+    private final Path cacheDir;
+    private final String searchPath;
+    private final String preset;
+    private Path resolved;
+    private Path browser;
+    private boolean pathRejected;
+
+    /**
+     * Constructs a DriverBinaryCache.
+     *
+     * @param name the file name of the driver, such as "chromedriver".
+     * @param systemProperty the system property the driver is published through.
+     * @param manager downloads the driver when no other lookup finds it.
+     * @param browserNames the usual file names of the browser, looked for on the PATH.
+     * @param cacheDir the directory the resolved paths are saved in.
+     * @param searchPath the PATH to search, or null to skip it.
+     * @param preset the driver set on the command line, or null.
+     */
+    public DriverBinaryCache(String name, String systemProperty, Supplier<Download> manager, List<String> browserNames,
+                             Path cacheDir, String searchPath, String preset) {
+        this.name = name;
+        this.systemProperty = systemProperty;
+        this.manager = manager;
+        this.browserNames = browserNames;
+        this.cacheDir = cacheDir;
+        this.searchPath = searchPath;
+        this.preset = preset;
+    }
+
+    /**
+     * Returns the driver binary, looking it up only if this JVM has not done so yet, and
+     * publishes it through the driver system property.
+     *
+     * @return the path of the driver binary.
+     * @throws IllegalStateException if no driver binary can be found.
+     */
+    public synchronized Path resolve() {
+        if (resolved == null) {
+            long start = System.nanoTime();
+            lookUp();
+            System.setProperty(systemProperty, resolved.toString());
+            LOGGER.info("Using {} at {} and the browser at {} (resolved in {} ms)", name, resolved,
+                    browser == null ? "its default location" : browser, (System.nanoTime() - start) / 1_000_000L);
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns the browser binary found along with the driver, resolving both if this JVM
+     * has not done so yet.
+     *
+     * @return the path of the browser binary, or empty if it was not found.
+     * @throws IllegalStateException if no driver binary can be found.
+     */
+    public synchronized Optional<Path> browserBinary() {
+        resolve();
+        return Optional.ofNullable(browser);
+    }
+
+    /**
+     * Forgets the resolved driver and browser, in this JVM and on disk, so the next
+     * resolve() looks them up again, without the PATH. A driver set on the command line is
+     * kept.
+     */
+    public synchronized void invalidate() {
+        LOGGER.info("Dropping the cached {} at {}", name, resolved);
+        resolved = null;
+        browser = null;
+        pathRejected = true;
+        try {
+            Files.deleteIfExists(cacheFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete " + cacheFile(), e);
+        }
+    }
+
+    private void lookUp() {
+        if (preset != null && isExecutable(Paths.get(preset))) {
+            resolved = Paths.get(preset);
+            browser = findOnPath(browserNames);
+            return;
+        }
+        Properties saved = load();
+        if (saved != null && isExecutable(Paths.get(saved.getProperty("path")))) {
+            LOGGER.debug("Found {} {} in {}", name, saved.getProperty("version"), cacheFile());
+            resolved = Paths.get(saved.getProperty("path"));
+            String savedBrowser = saved.getProperty("browser");
+            browser = savedBrowser != null && isExecutable(Paths.get(savedBrowser)) ? Paths.get(savedBrowser) : null;
+            return;
+        }
+
+        Path path = pathRejected ? null : findOnPath(List.of(name, name + ".exe"));
+        String version;
+        String source;
+        if (path != null) {
+            browser = findOnPath(browserNames);
+            version = probeVersion(path);
+            source = "PATH";
+        } else {
+            try {
+                Download download = manager.get();
+                path = download.driver();
+                browser = download.browser() != null && isExecutable(download.browser()) ? download.browser()
+                        : findOnPath(browserNames);
+                version = download.version();
+                source = "WebDriverManager";
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("No " + name + " found on the PATH or by WebDriverManager; set -D"
+                        + systemProperty + " to its location", e);
+            }
+        }
+        resolved = path;
+        save(path, version, source);
+    }
+
+    private Path cacheFile() {
+        return cacheDir.resolve(name + ".properties");
+    }
+
+    private Properties load() {
+        Path file = cacheFile();
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unreadable {}: {}", file, e.getMessage());
+            return null;
+        }
+        return properties.getProperty("path") == null ? null : properties;
+    }
+
+    private void save(Path path, String version, String source) {
+        Properties properties = new Properties();
+        properties.setProperty("path", path.toAbsolutePath().toString());
+        if (browser != null) {
+            properties.setProperty("browser", browser.toAbsolutePath().toString());
+        }
+        properties.setProperty("version", version == null ? "unknown" : version);
+        properties.setProperty("source", source);
+        properties.setProperty("resolvedAt", Instant.now().toString());
+        try {
+            Files.createDirectories(cacheDir);
+            Path temp = Files.createTempFile(cacheDir, name, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, name + " resolved by DriverBinaryCache");
+            }
+            Files.move(temp, cacheFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The driver still works for this JVM; the next run will just resolve it again.
+            LOGGER.warn("Could not save {} to {}: {}", name, cacheFile(), e.getMessage());
+        }
+    }
+
+    private Path findOnPath(List<String> names) {
+        if (searchPath == null) {
+            return null;
+        }
+        for (String directory : searchPath.split(File.pathSeparator)) {
+            for (String candidate : names) {
+                Path file = Paths.get(directory, candidate);
+                if (isExecutable(file)) {
+                    return file;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Download download(WebDriverManager wdm) {
+        wdm.setup();
+        return new Download(Paths.get(wdm.getDownloadedDriverPath()), wdm.getBrowserPath().orElse(null),
+                wdm.getDownloadedDriverVersion());
+    }
+
+    private static String probeVersion(Path driver) {
+        try {
+            Process process = new ProcessBuilder(driver.toString(), "--version").redirectErrorStream(true).start();
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String line = output.readLine();
+                process.waitFor(5, TimeUnit.SECONDS);
+                return line == null ? null : line.trim();
+            }
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static boolean isExecutable(Path file) {
+        return Files.isRegularFile(file) && Files.isExecutable(file);
+    }
+
+    /**
+     * The Download record holds what WebDriverManager set up.
+     *
+     * @param driver the downloaded driver binary.
+     * @param browser the browser it found, or null.
+     * @param version the version of the driver, or null if unknown.
+     */
+    public record Download(Path driver, Path browser, String version) {
+    }
+}
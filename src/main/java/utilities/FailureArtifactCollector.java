@@ -0,0 +1,183 @@
+package utilities;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The FailureArtifactCollector class saves what a browser showed when a test failed: a
+ * screenshot, the page source and the browser console log.
+ *
+ * Only fetching the raw data happens on the test's thread, with one WebDriver command
+ * for each artifact, so the session is free again as soon as possible. Compressing and
+ * writing the files is left to a small pool of background threads with a bounded queue;
+ * when the queue is full, the test's thread does the work itself rather than holding
+ * ever more page sources in memory.
+ *
+ * Artifacts go to the directory named by the "artifacts.dir" system property,
+ * "target/failure-artifacts" by default, and stop being written once they take up the
+ * number of megabytes given by "artifacts.max.mb", 200 by default. flush() waits until
+ * everything captured so far is on disk.
+ */
+public final class FailureArtifactCollector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FailureArtifactCollector.class);
+    private static final FailureArtifactCollector SHARED = new FailureArtifactCollector(
+            Paths.get(System.getProperty("artifacts.dir", "target/failure-artifacts")),
+            Long.getLong("artifacts.max.mb", 200L) * 1024 * 1024);
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final Queue<CompletableFuture<Void>> pending = new ConcurrentLinkedQueue<>();
+    private final ThreadPoolExecutor writers;
+
+    /**
+     * Creates a collector.
+     *
+     * @param directory the directory artifacts are written to.
+     * @param maxBytes the most disk space all artifacts together may use.
+     */
+    public FailureArtifactCollector(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.writers = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "failure-artifacts");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.writers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the collector shared by the whole run.
+     *
+     * @return the collector configured by the "artifacts.*" system properties.
+     */
+    public static FailureArtifactCollector shared() {
+        return SHARED;
+    }
+
+    /**
+     * Fetches the artifacts of a failed test from its browser and queues them to be written.
+     *
+     * @param name the test name, used as the file name prefix.
+     * @param driver the test's session.
+     * @param cause the failure, written next to the artifacts.
+     */
+    public void capture(String name, WebDriver driver, Throwable cause) {
+        byte[] screenshot = null;
+        if (driver instanceof TakesScreenshot camera) {
+            try {
+                screenshot = camera.getScreenshotAs(OutputType.BYTES);
+            } catch (WebDriverException e) {
+                LOGGER.debug("No screenshot for {}: {}", name, e.getMessage());
+            }
+        }
+        String pageSource = null;
+        try {
+            pageSource = driver.getPageSource();
+        } catch (WebDriverException e) {
+            LOGGER.debug("No page source for {}: {}", name, e.getMessage());
+        }
+        List<LogEntry> console = null;
+        try {
+            console = driver.manage().logs().get(LogType.BROWSER).getAll();
+        } catch (WebDriverException | UnsupportedOperationException e) {
+            LOGGER.debug("No console log for {}: {}", name, e.getMessage());
+        }
+
+        byte[] shot = screenshot;
+        String source = pageSource;
+        List<LogEntry> log = console;
+        String prefix = name.replaceAll("[^A-Za-z0-9._#-]", "_");
+        pending.add(CompletableFuture.runAsync(() -> {
+            write(prefix + "-failure.txt", stackTrace(cause).getBytes(StandardCharsets.UTF_8));
+            if (log != null) {
+                write(prefix + "-console.log.gz", gzip(log.stream().map(FailureArtifactCollector::format)
+                        .collect(Collectors.joining("\n"))));
+            }
+            if (source != null) {
+                write(prefix + "-page.html.gz", gzip(source));
+            }
+            if (shot != null) {
+                write(prefix + "-screenshot.png", shot);
+            }
+        }, writers).exceptionally(e -> {
+            LOGGER.warn("Could not save the failure artifacts of {}", name, e);
+            return null;
+        }));
+    }
+
+    /**
+     * Waits until every artifact captured so far has been written.
+     */
+    public void flush() {
+        CompletableFuture<Void> write;
+        while ((write = pending.poll()) != null) {
+            write.join();
+        }
+    }
+
+    private void write(String fileName, byte[] bytes) {
+        if (usedBytes.addAndGet(bytes.length) > maxBytes) {
+            usedBytes.addAndGet(-bytes.length);
+            LOGGER.warn("Skipping {}: failure artifacts would exceed {} MB", fileName, maxBytes / (1024 * 1024));
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve(fileName), bytes);
+        } catch (IOException e) {
+            usedBytes.addAndGet(-bytes.length);
+            throw new UncheckedIOException("Could not write " + fileName, e);
+        }
+    }
+
+    private static byte[] gzip(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String format(LogEntry entry) {
+        return Instant.ofEpochMilli(entry.getTimestamp()) + " " + entry.getLevel() + " " + entry.getMessage();
+    }
+
+    private static String stackTrace(Throwable cause) {
+        StringWriter trace = new StringWriter();
+        cause.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+}
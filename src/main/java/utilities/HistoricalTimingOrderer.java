@@ -0,0 +1,167 @@
+package utilities;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The HistoricalTimingOrderer class orders test classes and test methods by what the
+ * TestTimingStore remembers of earlier runs, so long runs report failures sooner.
+ *
+ * Tests that failed in one of the last few runs go first, the latest failures first; how
+ * many runs count is set with the "test.order.recent.runs" system property, 3 by default.
+ * Tests without history come next, then the rest, fastest first. When parallel execution
+ * is enabled the rest run slowest first instead, so no long test starts last and finishes
+ * alone at the end of the run.
+ *
+ * A class, or a parameterized method, counts the history of all its tests and rows. The
+ * rows themselves keep the order of their data source, since their stored keys are their
+ * positions in it. The history is grouped by test class once, when the orderer is
+ * created, so ordering a class only looks at the history of that class.
+ *
+ * It is set as the default class and method orderer in junit-platform.properties.
+ */
+public class HistoricalTimingOrderer implements ClassOrderer, MethodOrderer {
+
+    private static final int RECENT_RUNS = Integer.getInteger("test.order.recent.runs", 3);
+    private static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+    private static final List<String> METHOD_SEGMENTS = List.of("method", "test-template", "test-factory");
+    private static final Pattern CLASS_SEGMENT = Pattern.compile("\\[class:[^\\]]+\\]");
+
+    private final Map<String, Map<String, TestTimingStore.Timing>> historyByClass = new HashMap<>();
+
+    /**
+     * Constructs a HistoricalTimingOrderer that orders by the shared TestTimingStore, as
+     * JUnit does.
+     */
+    public HistoricalTimingOrderer() {
+        this(TestTimingStore.shared().getHistory());
+    }
+
+    /**
+     * Constructs a HistoricalTimingOrderer that orders by the given history.
+     *
+     * @param history the history of earlier runs, by test unique ID.
+     */
+    public HistoricalTimingOrderer(Map<String, TestTimingStore.Timing> history) {
+        for (Map.Entry<String, TestTimingStore.Timing> entry : history.entrySet()) {
+            Matcher classSegment = CLASS_SEGMENT.matcher(entry.getKey());
+            if (classSegment.find()) {
+                historyByClass.computeIfAbsent(classSegment.group(), key -> new HashMap<>())
+                        .put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Orders the test classes of the run.
+     *
+     * @param context the classes to order.
+     */
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        boolean parallel = isParallel(context.getConfigurationParameter(PARALLEL_ENABLED));
+        Map<ClassDescriptor, History> histories = new IdentityHashMap<>();
+        for (ClassDescriptor descriptor : context.getClassDescriptors()) {
+            String classSegment = classSegment(descriptor.getTestClass());
+            histories.put(descriptor, History.of(historyOf(classSegment), List.of(classSegment)));
+        }
+        context.getClassDescriptors().sort(Comparator.comparing(histories::get, History.order(parallel)));
+    }
+
+    /**
+     * Orders the test methods of a class.
+     *
+     * @param context the methods to order.
+     */
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        boolean parallel = isParallel(context.getConfigurationParameter(PARALLEL_ENABLED));
+        String classSegment = classSegment(context.getTestClass());
+        Map<String, TestTimingStore.Timing> classHistory = historyOf(classSegment);
+        Map<MethodDescriptor, History> histories = new IdentityHashMap<>();
+        for (MethodDescriptor descriptor : context.getMethodDescriptors()) {
+            String signature = signatureOf(descriptor.getMethod());
+            histories.put(descriptor, History.of(classHistory, METHOD_SEGMENTS.stream()
+                    .map(segment -> classSegment + "/[" + segment + ":" + signature + "]")
+                    .collect(Collectors.toList())));
+        }
+        context.getMethodDescriptors().sort(Comparator.comparing(histories::get, History.order(parallel)));
+    }
+
+    /**
+     * Leaves the execution mode to the parallel execution settings; without this JUnit runs
+     * the methods of an ordered class on one thread.
+     *
+     * @return an empty Optional.
+     */
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        return Optional.empty();
+    }
+
+    private Map<String, TestTimingStore.Timing> historyOf(String classSegment) {
+        return historyByClass.getOrDefault(classSegment, Map.of());
+    }
+
+    private static boolean isParallel(Optional<String> parallelEnabled) {
+        return parallelEnabled.map(Boolean::parseBoolean).orElse(false);
+    }
+
+    private static String classSegment(Class<?> testClass) {
+        return "[class:" + testClass.getName() + "]";
+    }
+
+    // Matches how JUnit names methods in unique IDs, such as "testFillForm(utilities.Person)".
+    private static String signatureOf(Method method) {
+        return method.getName() + "(" + Arrays.stream(method.getParameterTypes())
+                .map(Class::getName).collect(Collectors.joining(", ")) + ")";
+    }
+
+    /**
+     * The combined history of the tests whose keys contain one of a few unique ID segments.
+     */
+    private record History(boolean known, long millis, int runsSinceFailure) {
+
+        private static History of(Map<String, TestTimingStore.Timing> history, List<String> segments) {
+            boolean known = false;
+            long millis = 0;
+            int runsSinceFailure = Integer.MAX_VALUE;
+            for (Map.Entry<String, TestTimingStore.Timing> entry : history.entrySet()) {
+                if (segments.stream().noneMatch(entry.getKey()::contains)) {
+                    continue;
+                }
+                TestTimingStore.Timing timing = entry.getValue();
+                known = true;
+                millis += timing.millis();
+                if (timing.failedWithin(RECENT_RUNS)) {
+                    runsSinceFailure = Math.min(runsSinceFailure, timing.runsSinceFailure());
+                }
+            }
+            return new History(known, millis, runsSinceFailure);
+        }
+
+        private static Comparator<History> order(boolean parallel) {
+            Comparator<History> byDuration = Comparator.comparingLong(History::millis);
+            return Comparator.comparingInt(History::runsSinceFailure)
+                    .thenComparing(History::known)
+                    .thenComparing(parallel ? byDuration.reversed() : byDuration);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package utilities;
+
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.gargoylesoftware.htmlunit.WebClient;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+/**
+ * The HtmlUnitDriverFactory class implements the OpenCloseBrowser interface with
+ * HtmlUnit, a browser that runs inside the test JVM.
+ *
+ * An HtmlUnit session starts in milliseconds and needs no browser process or driver
+ * binary, which suits flows that only submit forms and read the resulting markup, such
+ * as the checkout validation. It emulates Chrome with JavaScript enabled, but does not
+ * lay pages out, so anything depending on rendering may behave differently than in
+ * Chrome; BackendCompatibilityTest reports which page-object methods agree.
+ */
+public class HtmlUnitDriverFactory implements OpenCloseBrowser {
+
+    /**
+     * Opens a new HtmlUnit session and returns the WebDriver for it.
+     *
+     * @return a WebDriver instance for the new session.
+     */
+    @Override
+    public WebDriver openBrowser() {
+        return new HtmlUnitDriver(BrowserVersion.CHROME, true) {
+            @Override
+            protected WebClient modifyWebClient(WebClient client) {
+                // Third-party scripts on the store may use APIs HtmlUnit lacks; a real browser ignores such errors too.
+                client.getOptions().setThrowExceptionOnScriptError(false);
+                client.getOptions().setPrintContentOnFailingStatusCode(false);
+                client.getOptions().setDownloadImages(false);
+                return client;
+            }
+        };
+    }
+
+    /**
+     * Closes the specified HtmlUnit session.
+     *
+     * @param driver the WebDriver instance to be closed.
+     */
+    @Override
+    public void closeBrowser(WebDriver driver) {
+        driver.quit();
+    }
+}
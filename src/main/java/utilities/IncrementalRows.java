@@ -0,0 +1,54 @@
+package utilities;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The IncrementalRows annotation lets an incremental run skip the rows of a parameterized
+ * test that passed before with the same arguments, the same code and the same settings.
+ *
+ * The code is the test class, the classes listed here and every class of the packages
+ * listed here; a change to any of them runs every row again. Changes to other classes go
+ * unnoticed, so naming the packages the test drives, such as "pageobjects", is safer than
+ * listing classes that have to be kept current. Incremental runs are turned
+ * on with the "incremental" system property. Verdicts are recorded in every run, so a full
+ * nightly run prepares the next incremental one.
+ *
+ * A row is skipped before any browser is leased for it when the test's argument source
+ * hands its rows through IncrementalRowsExtension.trackRows(...) and the test takes its
+ * WebDriver as a method parameter; JUnit resolves constructor parameters before it
+ * decides whether to skip. Rows of other tests are skipped only once their arguments are
+ * resolved.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(IncrementalRowsExtension.class)
+public @interface IncrementalRows {
+
+    /**
+     * The classes, besides the test class, whose changes make every row run again.
+     *
+     * @return the classes the test depends on.
+     */
+    Class<?>[] value() default {};
+
+    /**
+     * The packages, such as "pageobjects", whose classes all count as code the test depends on.
+     *
+     * @return the names of the packages the test depends on.
+     */
+    String[] packages() default {};
+
+    /**
+     * The system properties, such as "cart.setup", whose values change what the test does.
+     * A row that passed with other values runs again. The browser backend and the store
+     * the run targets always count.
+     *
+     * @return the names of the system properties the test depends on.
+     */
+    String[] properties() default {};
+}
@@ -0,0 +1,204 @@
+package utilities;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.openqa.selenium.WebDriver;
+import org.opentest4j.TestAbortedException;
+
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * The IncrementalRowsExtension class enforces IncrementalRows annotations.
+ *
+ * Every row of an annotated test records its verdict in the shared RowResultCache. With
+ * the "incremental" system property set to true, a row that passed before with the same
+ * arguments, code and settings is not run again, with its cached verdict as a report
+ * entry. New rows, changed rows and rows that failed last time always run.
+ *
+ * The settings are the browser backend of the test class, the store the run targets and
+ * the system properties listed in the annotation, so a row that passed against the local
+ * store or on HtmlUnit runs again against the real store or in Chrome.
+ *
+ * Rows handed out through trackRows(...) are checked as an ExecutionCondition and skipped
+ * as disabled, before their method parameters are resolved, so a skipped row leases no
+ * browser. Other rows are checked when they are invoked and reported as aborted.
+ *
+ * When the run ends, the cache is saved and the verdicts of all rows, cached and executed,
+ * are written to the CSV file named by the "incremental.report" system property,
+ * "target/incremental-rows.csv" by default.
+ */
+public class IncrementalRowsExtension implements ExecutionCondition, InvocationInterceptor, TestWatcher {
+
+    private static final boolean INCREMENTAL = Boolean.getBoolean("incremental");
+    private static final Path REPORT = Paths.get(System.getProperty("incremental.report",
+            "target/incremental-rows.csv"));
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(IncrementalRowsExtension.class);
+    private static final Map<Method, String> FINGERPRINTS = new ConcurrentHashMap<>();
+    private static final Map<String, String> TRACKED_HASHES = new ConcurrentHashMap<>();
+
+    /**
+     * Hands out the rows of a parameterized test, remembering the hash of each row's
+     * arguments by its position, so the row can be skipped before it is set up.
+     *
+     * @param test the test, as "Class.method".
+     * @param rows the rows of the test's argument source, single arguments or Arguments.
+     * @param <T> the type of the rows.
+     * @return the same rows.
+     */
+    public static <T> Stream<T> trackRows(String test, Stream<T> rows) {
+        if (!INCREMENTAL) {
+            return rows;
+        }
+        AtomicInteger position = new AtomicInteger();
+        return rows.peek(row -> TRACKED_HASHES.put(test + "\t#" + position.incrementAndGet(),
+                RowResultCache.hashOf(row instanceof Arguments arguments ? List.of(arguments.get()) : List.of(row))));
+    }
+
+    /**
+     * Disables a tracked row that passed before with the same arguments, code and settings.
+     *
+     * @param context the context of the test class, test or row.
+     * @return disabled for such rows, enabled for everything else.
+     */
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        String position = StepMetricsExtension.rowOf(context);
+        if (!INCREMENTAL || position.isEmpty() || context.getTestMethod().isEmpty()) {
+            return ConditionEvaluationResult.enabled("Not an incremental row");
+        }
+        String test = StepMetricsExtension.testName(context);
+        String hash = TRACKED_HASHES.get(test + "\t" + position);
+        if (hash == null) {
+            return ConditionEvaluationResult.enabled("Row is checked when it is invoked");
+        }
+        RowResultCache.Row row = new RowResultCache.Row(test, position, hash,
+                fingerprintOf(context, context.getRequiredTestMethod()));
+        RowResultCache cache = registerReport(context);
+        if (!cache.hasPassed(row)) {
+            return ConditionEvaluationResult.enabled("Row has no passing verdict for this code and settings");
+        }
+        TRACKED_HASHES.remove(test + "\t" + position);
+        cache.recordCached(row);
+        context.publishReportEntry("incremental.verdict", "passed (cached)");
+        return ConditionEvaluationResult.disabled("Passed in an earlier run with the same data, code and settings");
+    }
+
+    /**
+     * Runs a row of a parameterized test, unless it passed before with the same arguments,
+     * code and settings. Rows skipped by evaluateExecutionCondition never get here.
+     *
+     * @param invocation the row's invocation.
+     * @param invocationContext the test method and the row's arguments.
+     * @param extensionContext the context of the row.
+     * @throws Throwable if the row fails, or TestAbortedException if its cached verdict is used.
+     */
+    @Override
+    public void interceptTestTemplateMethod(Invocation<Void> invocation,
+                                            ReflectiveInvocationContext<Method> invocationContext,
+                                            ExtensionContext extensionContext) throws Throwable {
+        RowResultCache cache = registerReport(extensionContext);
+        String test = StepMetricsExtension.testName(extensionContext);
+        String position = StepMetricsExtension.rowOf(extensionContext);
+        String hash = TRACKED_HASHES.remove(test + "\t" + position);
+        if (hash == null) {
+            // The WebDriver is the test's session, not part of the row.
+            hash = RowResultCache.hashOf(invocationContext.getArguments().stream()
+                    .filter(argument -> !(argument instanceof WebDriver)).toList());
+        }
+        RowResultCache.Row row = new RowResultCache.Row(test, position, hash,
+                fingerprintOf(extensionContext, invocationContext.getExecutable()));
+
+        if (INCREMENTAL && cache.hasPassed(row)) {
+            invocation.skip();
+            cache.recordCached(row);
+            extensionContext.publishReportEntry("incremental.verdict", "passed (cached)");
+            throw new TestAbortedException("Passed in an earlier run with the same data, code and settings");
+        }
+        extensionContext.getStore(NAMESPACE).put(RowResultCache.Row.class, row);
+        invocation.proceed();
+    }
+
+    /**
+     * Records that a row passed.
+     *
+     * @param context the context of the row.
+     */
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        recordVerdict(context, true);
+    }
+
+    /**
+     * Records that a row failed.
+     *
+     * @param context the context of the row.
+     * @param cause the throwable that caused the row to fail.
+     */
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        recordVerdict(context, false);
+    }
+
+    private static void recordVerdict(ExtensionContext context, boolean passed) {
+        RowResultCache.Row row = context.getStore(NAMESPACE).remove(RowResultCache.Row.class,
+                RowResultCache.Row.class);
+        if (row != null) {
+            RowResultCache.shared().recordExecuted(row, passed);
+            context.publishReportEntry("incremental.verdict", passed ? "passed" : "failed");
+        }
+    }
+
+    private static RowResultCache registerReport(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(ReportWriter.class,
+                key -> new ReportWriter(), ReportWriter.class);
+        return RowResultCache.shared();
+    }
+
+    private static String fingerprintOf(ExtensionContext context, Method method) {
+        return FINGERPRINTS.computeIfAbsent(method, key -> {
+            List<Class<?>> classes = new ArrayList<>();
+            classes.add(context.getRequiredTestClass());
+            List<String> settings = new ArrayList<>();
+            settings.add("browser.backend=" + TestLifecycleExtension.backendOf(context).getTag());
+            // A local store gets a new port every run, but it is the same store.
+            settings.add("store=" + (Boolean.getBoolean("store.local") ? "local" : StoreConfig.getBaseUrl()));
+            AnnotationSupport.findAnnotation(method, IncrementalRows.class).ifPresent(annotation -> {
+                classes.addAll(List.of(annotation.value()));
+                for (String packageName : annotation.packages()) {
+                    classes.addAll(RowResultCache.classesIn(packageName));
+                }
+                for (String property : annotation.properties()) {
+                    settings.add(property + "=" + System.getProperty(property, "").trim());
+                }
+            });
+            return RowResultCache.fingerprintOf(classes, settings);
+        });
+    }
+
+    /**
+     * Saves the cache and writes the verdict report when JUnit closes the root context.
+     */
+    private static final class ReportWriter implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() {
+            RowResultCache cache = RowResultCache.shared();
+            cache.save();
+            cache.writeReport(REPORT);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package utilities;
+
+/**
+ * The InvalidPerson class stands in for a person record that could not be read, so a
+ * data source can hand out every row even when some of them are bad.
+ *
+ * Every getter throws the PersonDataException that describes the record, so only the
+ * test that receives this row fails, and its failure names the record and what is wrong
+ * with it. The rows before and after it run as usual.
+ */
+public class InvalidPerson extends Person {
+
+    private final PersonDataException error;
+
+    /**
+     * Constructs an InvalidPerson for a record that could not be read.
+     *
+     * @param error the exception describing the record.
+     */
+    public InvalidPerson(PersonDataException error) {
+        super(null, null, null, null, null, null, null);
+        this.error = error;
+    }
+
+    /**
+     * Returns the exception describing the record.
+     *
+     * @return the PersonDataException thrown by every getter.
+     */
+    public PersonDataException getError() {
+        return error;
+    }
+
+    @Override
+    public String getFirstName() {
+        throw error;
+    }
+
+    @Override
+    public String getLastName() {
+        throw error;
+    }
+
+    @Override
+    public String getAddress() {
+        throw error;
+    }
+
+    @Override
+    public String getPostcode() {
+        throw error;
+    }
+
+    @Override
+    public String getCity() {
+        throw error;
+    }
+
+    @Override
+    public String getPhone() {
+        throw error;
+    }
+
+    @Override
+    public String getEmail() {
+        throw error;
+    }
+
+    /**
+     * Returns a string naming the bad record, which JUnit shows as the row's display name.
+     *
+     * @return a string representation of the invalid record.
+     */
+    @Override
+    public String toString() {
+        return "InvalidPerson{row=" + error.getRow() + ", reason='" + error.getReason() + "'}";
+    }
+}
@@ -0,0 +1,409 @@
+package utilities;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * The LocalStoreServer class is an in-process stand-in for the online store.
+ *
+ * It serves the pages the page objects use, with the same element names and
+ * classes as the real WooCommerce store: the home page, the Accessories listing,
+ * product pages, the cart and the checkout form with its validation errors. Carts
+ * are kept per session cookie, so parallel browser sessions do not see each other's
+ * items. Every request without a known cookie starts a session, so only the most
+ * recently used carts are kept, 10,000 unless the "store.max.carts" system property
+ * says otherwise; a session whose cart was dropped starts again with an empty cart.
+ * The server binds to a free loopback port and starts in milliseconds, which makes
+ * runs deterministic and independent of the network.
+ *
+ * Like a store without payment gateways, every checkout submission reports
+ * "Invalid payment method." in addition to any field errors.
+ */
+public class LocalStoreServer implements AutoCloseable, ExtensionContext.Store.CloseableResource {
+
+    /** Name of the HttpOnly cookie that identifies a cart session. */
+    public static final String SESSION_COOKIE = "wp_woocommerce_session_local";
+
+    private static final int DEFAULT_MAX_CARTS = 10_000;
+    private static final String ACCESSORIES_PATH = "/product-category/accessories/";
+    private static final Pattern POSTCODE = Pattern.compile("\\d{5,7}");
+    private static final Pattern PHONE = Pattern.compile("[0-9+()\\- ]{7,20}");
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+    private static final List<Product> PRODUCTS = List.of(
+            new Product(101, "anchor-bracelet", "Anchor Bracelet", "150.00"),
+            new Product(102, "boho-bangle-bracelet", "Boho Bangle Bracelet", "170.00"),
+            new Product(103, "buddha-bracelet", "Buddha Bracelet", "120.00"),
+            new Product(104, "red-hat", "Red Hat", "90.00"),
+            new Product(105, "black-sunglasses", "Black Sunglasses", "210.00"),
+            new Product(106, "blue-scarf", "Blue Scarf", "60.00"),
+            new Product(107, "leather-belt", "Leather Belt", "80.00"),
+            new Product(108, "silver-watch", "Silver Watch", "450.00"));
+
+    private static final String[][] BILLING_FIELDS = {
+        {"billing_first_name", "First name"},
+        {"billing_last_name", "Last name"},
+        {"billing_address_1", "Street address"},
+        {"billing_postcode", "Postcode / ZIP"},
+        {"billing_city", "Town / City"},
+        {"billing_phone", "Phone"},
+        {"billing_email", "Email address"},
+    };
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Map<Integer, Integer>> carts;
+
+    private LocalStoreServer(HttpServer server, ExecutorService executor, int maxCarts) {
+        this.server = server;
+        this.executor = executor;
+        this.carts = Collections.synchronizedMap(new LinkedHashMap<String, Map<Integer, Integer>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<Integer, Integer>> eldest) {
+                return size() > maxCarts;
+            }
+        });
+    }
+
+    /**
+     * Starts a stand-in store on a free loopback port, keeping as many carts as the
+     * "store.max.carts" system property allows.
+     *
+     * @return the running server.
+     * @throws IOException if no port can be bound.
+     */
+    public static LocalStoreServer start() throws IOException {
+        return start(Integer.getInteger("store.max.carts", DEFAULT_MAX_CARTS));
+    }
+
+    /**
+     * Starts a stand-in store on a free loopback port.
+     *
+     * The JDK's HTTP server reads the JVM-wide "sun.net.httpserver.nodelay" property
+     * once, when the first server of the JVM starts. Unless it is already set, this
+     * method sets it to true: without TCP_NODELAY every response waits about 40 ms for
+     * a delayed ACK, which would dwarf the page time. Set it on the command line to
+     * choose otherwise; it has no effect if another HttpServer started earlier.
+     *
+     * @param maxCarts how many carts to keep before the least recently used is dropped.
+     * @return the running server.
+     * @throws IOException if no port can be bound.
+     */
+    public static LocalStoreServer start(int maxCarts) throws IOException {
+        if (maxCarts < 1) {
+            throw new IllegalArgumentException("The store must keep at least 1 cart, was " + maxCarts);
+        }
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        LocalStoreServer store = new LocalStoreServer(server, executor, maxCarts);
+        server.createContext("/", store::handle);
+        server.setExecutor(executor);
+        server.start();
+        return store;
+    }
+
+    /**
+     * Returns the base URL of the running server, without a trailing slash.
+     *
+     * @return the server base URL.
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the IDs of all products in the Accessories category.
+     *
+     * @return the product IDs in listing order.
+     */
+    public static List<Integer> getProductIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (Product product : PRODUCTS) {
+            ids.add(product.id());
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the number of carts the server currently keeps.
+     *
+     * @return the number of cart sessions.
+     */
+    public int getCartCount() {
+        return carts.size();
+    }
+
+    /**
+     * Stops the server immediately.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+            Map<Integer, Integer> cart = cartOf(exchange);
+
+            if (query.containsKey("add-to-cart")) {
+                addToCart(cart, query.get("add-to-cart"));
+                redirect(exchange, path);
+            } else if ("/".equals(path)) {
+                send(exchange, 200, page("Home", cart, "<h1>Welcome to the store</h1>"));
+            } else if (ACCESSORIES_PATH.equals(path)) {
+                send(exchange, 200, page("Accessories", cart, "<h1>Accessories</h1>" + productList(PRODUCTS)));
+            } else if (path.startsWith("/product/")) {
+                handleProduct(exchange, path, cart);
+            } else if ("/cart/".equals(path)) {
+                send(exchange, 200, page("Cart", cart, cartBody(cart)));
+            } else if ("/checkout/".equals(path)) {
+                handleCheckout(exchange, cart);
+            } else {
+                send(exchange, 404, page("Page not found", cart, "<h1>Page not found</h1>"));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleProduct(HttpExchange exchange, String path, Map<Integer, Integer> cart) throws IOException {
+        Product product = null;
+        for (Product candidate : PRODUCTS) {
+            if (path.equals("/product/" + candidate.slug() + "/")) {
+                product = candidate;
+            }
+        }
+        if (product == null) {
+            send(exchange, 404, page("Page not found", cart, "<h1>Page not found</h1>"));
+            return;
+        }
+        if ("POST".equals(exchange.getRequestMethod())) {
+            addToCart(cart, readForm(exchange).get("add-to-cart"));
+            redirect(exchange, path + "?added=" + product.id());
+            return;
+        }
+        StringBuilder body = new StringBuilder();
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null && query.startsWith("added=")) {
+            body.append("<div class=\"woocommerce-message\" role=\"alert\">")
+                    .append("<a href=\"/cart/\" class=\"button wc-forward\">View cart</a> &ldquo;")
+                    .append(product.name()).append("&rdquo; has been added to your cart.</div>");
+        }
+        body.append("<div class=\"product\"><h1 class=\"product_title\">").append(product.name()).append("</h1>")
+                .append("<p class=\"price\">&#8362;").append(product.price()).append("</p>")
+                .append("<form class=\"cart\" method=\"post\" action=\"").append(path).append("\">")
+                .append("<input type=\"number\" name=\"quantity\" value=\"1\">")
+                .append("<button type=\"submit\" name=\"add-to-cart\" value=\"").append(product.id())
+                .append("\" class=\"single_add_to_cart_button button\">Add to cart</button></form></div>");
+        List<Product> related = new ArrayList<>(PRODUCTS);
+        related.remove(product);
+        body.append("<section class=\"related products\"><h2>Related products</h2>")
+                .append(productList(related.subList(0, 4))).append("</section>");
+        send(exchange, 200, page(product.name(), cart, body.toString()));
+    }
+
+    private void handleCheckout(HttpExchange exchange, Map<Integer, Integer> cart) throws IOException {
+        if (cart.isEmpty()) {
+            redirect(exchange, "/cart/");
+            return;
+        }
+        Map<String, String> values = Collections.emptyMap();
+        List<String> errors = new ArrayList<>();
+        if ("POST".equals(exchange.getRequestMethod())) {
+            values = readForm(exchange);
+            errors = validate(values);
+        }
+        StringBuilder body = new StringBuilder("<h1>Checkout</h1>");
+        if (!errors.isEmpty()) {
+            body.append("<ul class=\"woocommerce-error\" role=\"alert\">");
+            for (String error : errors) {
+                body.append("<li>").append(error).append("</li>");
+            }
+            body.append("</ul>");
+        }
+        body.append("<form name=\"checkout\" method=\"post\" class=\"checkout woocommerce-checkout\"")
+                .append(" action=\"/checkout/\">");
+        for (String[] field : BILLING_FIELDS) {
+            String type = field[0].equals("billing_email") ? "email" : "text";
+            body.append("<p class=\"form-row\"><label for=\"").append(field[0]).append("\">").append(field[1])
+                    .append("</label><input type=\"").append(type).append("\" name=\"").append(field[0])
+                    .append("\" id=\"").append(field[0]).append("\" value=\"")
+                    .append(escape(values.getOrDefault(field[0], ""))).append("\"></p>");
+        }
+        body.append("<button type=\"submit\" name=\"woocommerce_checkout_place_order\" id=\"place_order\">")
+                .append("Place order</button></form>");
+        send(exchange, 200, page("Checkout", cart, body.toString()));
+    }
+
+    private static List<String> validate(Map<String, String> values) {
+        List<String> errors = new ArrayList<>();
+        for (String[] field : BILLING_FIELDS) {
+            if (values.getOrDefault(field[0], "").isBlank()) {
+                errors.add("<strong>Billing " + field[1] + "</strong> is a required field.");
+            }
+        }
+        String postcode = values.getOrDefault("billing_postcode", "").trim();
+        if (!postcode.isEmpty() && !POSTCODE.matcher(postcode).matches()) {
+            errors.add("<strong>Billing Postcode / ZIP</strong> is not a valid postcode / ZIP.");
+        }
+        String phone = values.getOrDefault("billing_phone", "").trim();
+        if (!phone.isEmpty() && !PHONE.matcher(phone).matches()) {
+            errors.add("<strong>Billing Phone</strong> is not a valid phone number.");
+        }
+        String email = values.getOrDefault("billing_email", "").trim();
+        if (!email.isEmpty() && !EMAIL.matcher(email).matches()) {
+            errors.add("<strong>Billing Email address</strong> is not a valid email address.");
+        }
+        errors.add("Invalid payment method.");
+        return errors;
+    }
+
+    private static void addToCart(Map<Integer, Integer> cart, String productId) {
+        if (productId == null) {
+            return;
+        }
+        try {
+            int id = Integer.parseInt(productId.trim());
+            for (Product product : PRODUCTS) {
+                if (product.id() == id) {
+                    cart.merge(id, 1, Integer::sum);
+                }
+            }
+        } catch (NumberFormatException e) {
+            // WooCommerce ignores add-to-cart requests for unknown products as well.
+        }
+    }
+
+    private static String cartBody(Map<Integer, Integer> cart) {
+        if (cart.isEmpty()) {
+            return "<h1>Cart</h1><p class=\"cart-empty woocommerce-info\">Your cart is currently empty.</p>";
+        }
+        StringBuilder body = new StringBuilder("<h1>Cart</h1><table class=\"shop_table cart\">");
+        for (Product product : PRODUCTS) {
+            Integer quantity = cart.get(product.id());
+            if (quantity != null) {
+                body.append("<tr class=\"cart_item\"><td class=\"product-name\">").append(product.name())
+                        .append("</td><td class=\"product-quantity\">").append(quantity).append("</td></tr>");
+            }
+        }
+        body.append("</table><div class=\"wc-proceed-to-checkout\">")
+                .append("<a href=\"/checkout/\" class=\"checkout-button button alt wc-forward\"")
+                .append(" style=\"display:block\">")
+                .append("Proceed to checkout</a></div>");
+        return body.toString();
+    }
+
+    private static String productList(List<Product> products) {
+        StringBuilder list = new StringBuilder("<ul class=\"products columns-4\">");
+        for (Product product : products) {
+            list.append("<li class=\"product post-").append(product.id()).append("\">")
+                    .append("<a href=\"/product/").append(product.slug()).append("/\" data-product_id=\"")
+                    .append(product.id()).append("\" class=\"woocommerce-LoopProduct-link\" style=\"display:block\">")
+                    .append("<h2 class=\"woocommerce-loop-product__title\">").append(product.name()).append("</h2>")
+                    .append("<span class=\"price\">&#8362;").append(product.price()).append("</span></a></li>");
+        }
+        return list.append("</ul>").toString();
+    }
+
+    private static String page(String title, Map<Integer, Integer> cart, String content) {
+        int count = 0;
+        for (int quantity : cart.values()) {
+            count += quantity;
+        }
+        return "<!DOCTYPE html><html lang=\"en\"><head><meta charset=\"UTF-8\"><title>" + title
+                + " &ndash; Local Store</title></head><body>"
+                + "<header class=\"site-header\"><nav class=\"main-navigation\"><ul>"
+                + "<li><a href=\"/\">Home</a></li>"
+                + "<li><a href=\"" + ACCESSORIES_PATH + "\">Accessories</a></li></ul></nav>"
+                + "<ul class=\"site-header-cart\"><li class=\"ast-site-header-cart-li\">"
+                + "<a href=\"/cart/\" class=\"cart-container\">Cart <span class=\"count\">" + count + "</span></a>"
+                + "<div class=\"widget_shopping_cart\"><a href=\"/cart/\" class=\"button wc-forward\">View cart</a>"
+                + "</div></li></ul></header><main id=\"primary\" class=\"woocommerce\">" + content
+                + "</main></body></html>";
+    }
+
+    private Map<Integer, Integer> cartOf(HttpExchange exchange) {
+        List<String> cookies = exchange.getRequestHeaders().get("Cookie");
+        if (cookies != null) {
+            for (String header : cookies) {
+                for (String cookie : header.split(";")) {
+                    String[] pair = cookie.trim().split("=", 2);
+                    Map<Integer, Integer> cart = pair.length == 2 && SESSION_COOKIE.equals(pair[0])
+                            ? carts.get(pair[1]) : null;
+                    if (cart != null) {
+                        return cart;
+                    }
+                }
+            }
+        }
+        String session = UUID.randomUUID().toString();
+        Map<Integer, Integer> cart = new ConcurrentHashMap<>();
+        carts.put(session, cart);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly");
+        return cart;
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        return parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String pair : encoded.split("&")) {
+            String[] parts = pair.split("=", 2);
+            values.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length == 2 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return values;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(303, -1);
+    }
+
+    private static void send(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+        exchange.getResponseHeaders().add("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private record Product(int id, String slug, String name, String price) {
+    }
+}
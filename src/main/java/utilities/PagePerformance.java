@@ -0,0 +1,250 @@
+package utilities;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The PagePerformance class reads the browser's own timing of each page the page objects
+ * navigate to, to tell whether the store got slower or the test framework did.
+ *
+ * After a navigation, capture() fetches the Navigation Timing entry of the new document
+ * and its Resource Timing entries in a single script call: time to first byte,
+ * DOMContentLoaded, load, and the bytes transferred for the document and its resources.
+ * A page whose document has not changed since the last capture on that thread, such as
+ * an add to cart handled without a reload, is not counted twice. The script call is
+ * sent inside CommandCounter.uncounted(), so it does not count against the test's
+ * CommandBudget.
+ *
+ * Samples are kept per page type, such as "cart", for the run's report, and per thread
+ * until PagePerformanceExtension attaches them to the running test. The run's samples go
+ * into one LatencyHistogram per page type and metric, so the report costs the same
+ * memory however many pages a run loads, and its percentiles are accurate to about 1.5%.
+ * Capturing is on by default and turned off with the "page.perf" system property set to
+ * false.
+ */
+public final class PagePerformance {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PagePerformance.class);
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("page.perf", "true"));
+
+    /** The metrics of each sample, in report order. */
+    public static final List<String> METRICS = List.of("ttfb_ms", "dom_content_loaded_ms", "load_ms",
+            "document_bytes", "resource_count", "resource_bytes");
+
+    private static final String TIMING_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];"
+            + "if (!nav) { return null; }"
+            + "var resources = performance.getEntriesByType('resource');"
+            + "var resourceBytes = 0;"
+            + "for (var i = 0; i < resources.length; i++) { resourceBytes += resources[i].transferSize || 0; }"
+            + "return {origin: String(performance.timeOrigin),"
+            + " ttfb_ms: nav.responseStart - nav.startTime,"
+            + " dom_content_loaded_ms: nav.domContentLoadedEventEnd - nav.startTime,"
+            + " load_ms: nav.loadEventEnd > 0 ? nav.loadEventEnd - nav.startTime : -1,"
+            + " document_bytes: nav.transferSize || 0,"
+            + " resource_count: resources.length,"
+            + " resource_bytes: resourceBytes};";
+
+    private static final Map<String, LatencyHistogram> SAMPLES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<List<Sample>> CURRENT_TEST = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<String> LAST_DOCUMENT = new ThreadLocal<>();
+
+    private PagePerformance() {
+    }
+
+    /**
+     * Reads the timing of the page the browser just navigated to.
+     *
+     * @param driver the browser session.
+     * @param pageType the kind of page, such as "home" or "cart".
+     */
+    public static void capture(WebDriver driver, String pageType) {
+        if (!ENABLED || !(driver instanceof JavascriptExecutor script)) {
+            return;
+        }
+        Map<?, ?> timing;
+        try {
+            timing = (Map<?, ?>) CommandCounter.uncounted(() -> script.executeScript(TIMING_SCRIPT));
+        } catch (WebDriverException | ClassCastException e) {
+            LOGGER.debug("No page timing for {}: {}", pageType, e.getMessage());
+            return;
+        }
+        if (timing == null || String.valueOf(timing.get("origin")).equals(LAST_DOCUMENT.get())) {
+            return;
+        }
+        LAST_DOCUMENT.set(String.valueOf(timing.get("origin")));
+
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            Object value = timing.get(metric);
+            if (value instanceof Number number && number.doubleValue() >= 0) {
+                values.put(metric, number.doubleValue());
+                record(SAMPLES, pageType, metric, number.doubleValue());
+            }
+        }
+        CURRENT_TEST.get().add(new Sample(pageType, values));
+    }
+
+    /**
+     * Returns the samples captured on the current thread and forgets them.
+     *
+     * @return the samples, in the order they were captured.
+     */
+    public static List<Sample> drainCurrentTest() {
+        List<Sample> samples = CURRENT_TEST.get();
+        CURRENT_TEST.remove();
+        return samples;
+    }
+
+    /**
+     * Writes the run's p50, p95 and p99 of each metric per page type to "page-performance.csv"
+     * in a directory, and appends them with the run's time to a history file, so the
+     * percentiles can be followed from run to run. Each p50 is logged next to the one from
+     * the previous run in the history.
+     *
+     * @param directory the directory for this run's report.
+     * @param history the history file, created if missing.
+     * @throws IOException if the report or the history cannot be written.
+     */
+    public static void writeReport(Path directory, Path history) throws IOException {
+        writeReport(SAMPLES, directory, history);
+    }
+
+    /**
+     * Writes the report for the given samples instead of the run's, in the same way as
+     * writeReport(Path, Path).
+     *
+     * @param samples the samples to report.
+     * @param directory the directory for the report.
+     * @param history the history file, created if missing.
+     * @throws IOException if the report or the history cannot be written.
+     */
+    public static void writeReport(List<Sample> samples, Path directory, Path history) throws IOException {
+        Map<String, LatencyHistogram> histograms = new HashMap<>();
+        for (Sample sample : samples) {
+            sample.values().forEach((metric, value) -> record(histograms, sample.pageType(), metric, value));
+        }
+        writeReport(histograms, directory, history);
+    }
+
+    // Bytes and counts share the millisecond scale of the timings: the buckets only depend on magnitude.
+    private static void record(Map<String, LatencyHistogram> histograms, String pageType, String metric,
+                               double value) {
+        histograms.computeIfAbsent(pageType + "\t" + metric, key -> new LatencyHistogram())
+                .recordNanos(Math.round(value * 1_000_000));
+    }
+
+    private static void writeReport(Map<String, LatencyHistogram> samples, Path directory, Path history)
+            throws IOException {
+        if (samples.isEmpty()) {
+            return;
+        }
+        Map<String, String> previous = previousMedians(history);
+        String run = Instant.now().toString();
+        List<String> rows = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(samples).entrySet()) {
+            LatencyHistogram values = entry.getValue();
+            long count = values.getCount();
+            String[] key = entry.getKey().split("\t");
+            String p50 = format(values.getPercentileMillis(50));
+            rows.add(key[0] + "," + key[1] + "," + count + "," + p50 + ","
+                    + format(values.getPercentileMillis(95)) + "," + format(values.getPercentileMillis(99)));
+            LOGGER.info("{} {}: p50 {} over {} pages (previous run {})", key[0], key[1], p50, count,
+                    previous.getOrDefault(entry.getKey(), "n/a"));
+        }
+
+        Files.createDirectories(directory);
+        String header = "page,metric,count,p50,p95,p99";
+        List<String> report = new ArrayList<>(rows);
+        report.add(0, header);
+        Files.write(directory.resolve("page-performance.csv"), report, StandardCharsets.UTF_8);
+
+        Path parent = history.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        boolean fresh = !Files.exists(history);
+        try (Writer writer = Files.newBufferedWriter(history, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            if (fresh) {
+                writer.write("run," + header + "\n");
+            }
+            for (String row : rows) {
+                writer.write(run + "," + row + "\n");
+            }
+        }
+    }
+
+    /**
+     * Reads the p50 of each page type and metric from the last run in a history file.
+     *
+     * @param history the history file written by writeReport.
+     * @return the medians keyed by page type and metric, separated by a tab; empty if there is no history.
+     * @throws IOException if the history cannot be read.
+     */
+    public static Map<String, String> previousMedians(Path history) throws IOException {
+        Map<String, String> medians = new HashMap<>();
+        if (!Files.isRegularFile(history)) {
+            return medians;
+        }
+        String lastRun = null;
+        try (BufferedReader reader = Files.newBufferedReader(history, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                if (fields.length < 5 || fields[0].equals("run")) {
+                    continue;
+                }
+                if (!fields[0].equals(lastRun)) {
+                    lastRun = fields[0];
+                    medians.clear();
+                }
+                medians.put(fields[1] + "\t" + fields[2], fields[4]);
+            }
+        }
+        return medians;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    /**
+     * The PagePerformance.Sample record holds the timing of one page load.
+     *
+     * @param pageType the kind of page.
+     * @param values the value of each metric the browser reported, by metric name.
+     */
+    public record Sample(String pageType, Map<String, Double> values) {
+
+        /**
+         * Returns the sample's values as one line, such as "ttfb_ms=42.0, load_ms=812.3".
+         *
+         * @return the values, in report order.
+         */
+        public String describe() {
+            StringBuilder text = new StringBuilder();
+            values.forEach((metric, value) -> text.append(text.length() == 0 ? "" : ", ").append(metric)
+                    .append('=').append(format(value)));
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package utilities;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The PagePerformanceExtension class attaches the page timings captured by PagePerformance
+ * during a test to the test's result, and writes the per-page report when the run ends.
+ *
+ * Each page the test loaded becomes a report entry such as "page.perf.cart". The report
+ * goes to the directory named by the "page.perf.dir" system property,
+ * "target/page-performance" by default, and is appended to the history file named by
+ * "page.perf.history", "page-performance-history.csv" by default, which survives
+ * "mvn clean" so percentiles can be compared across runs.
+ */
+public class PagePerformanceExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final Path REPORT_DIR = Paths.get(System.getProperty("page.perf.dir", "target/page-performance"));
+    private static final Path HISTORY = Paths.get(System.getProperty("page.perf.history",
+            "page-performance-history.csv"));
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(PagePerformanceExtension.class);
+
+    /**
+     * Callback executed before all tests in the test class.
+     *
+     * This method registers the report writer with the root context, once per run.
+     *
+     * @param context the context of the test class.
+     */
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(ReportWriter.class,
+                key -> new ReportWriter(), ReportWriter.class);
+    }
+
+    /**
+     * Callback executed before each test.
+     *
+     * This method drops samples left on the thread by code that ran outside a test.
+     *
+     * @param context the context of the test method.
+     */
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        PagePerformance.drainCurrentTest();
+    }
+
+    /**
+     * Callback executed after each test.
+     *
+     * This method publishes the timing of every page the test loaded.
+     *
+     * @param context the context of the test method.
+     */
+    @Override
+    public void afterEach(ExtensionContext context) {
+        for (PagePerformance.Sample sample : PagePerformance.drainCurrentTest()) {
+            context.publishReportEntry("page.perf." + sample.pageType(), sample.describe());
+        }
+    }
+
+    /**
+     * Writes the page performance report when JUnit closes the root context.
+     */
+    private static final class ReportWriter implements ExtensionContext.Store.CloseableResource {
+        @Override
+        public void close() throws Throwable {
+            PagePerformance.writeReport(REPORT_DIR, HISTORY);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package utilities;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * The PageWait class waits for explicit, per-action readiness conditions instead of
+ * relying on a global implicit wait.
+ *
+ * A condition is checked once right away. If it does not hold yet, the browser itself
+ * waits for the next DOM mutation (through an injected MutationObserver) before the
+ * condition is checked again, so a wait costs a couple of WebDriver round trips rather
+ * than a fixed polling loop. Whole-page readiness is detected in a single round trip:
+ * the document must be complete, jQuery must have no AJAX requests in flight, and no
+ * nodes or text must have changed for a short moment. Attribute changes do not count
+ * there, so a carousel or spinner animating its style or class cannot hold the page
+ * busy until the timeout; element conditions still wake up on them.
+ *
+ * Every wait logs how long it actually took at DEBUG level, and the last duration is kept
+ * for callers that want to record it.
+ */
+public class PageWait {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PageWait.class);
+
+    /** Default time an action may wait for its condition, from the "page.wait.timeout" property (ms). */
+    public static final long DEFAULT_TIMEOUT_MILLIS = Long.getLong("page.wait.timeout", 5_000L);
+
+    private static final long QUIET_MILLIS = Long.getLong("page.wait.quiet", 100L);
+    private static final long MAX_MUTATION_WAIT_MILLIS = 250L;
+
+    private static final String AWAIT_MUTATION_SCRIPT =
+            "var callback = arguments[arguments.length - 1];"
+            + "var observer = new MutationObserver(function () { observer.disconnect(); callback(true); });"
+            + "observer.observe(document, {childList: true, subtree: true, attributes: true,"
+            + " characterData: true});"
+            + "setTimeout(function () { observer.disconnect(); callback(false); }, arguments[0]);";
+
+    private static final String AWAIT_PAGE_READY_SCRIPT =
+            "var callback = arguments[arguments.length - 1];"
+            + "var quietMillis = arguments[0];"
+            + "var deadline = Date.now() + arguments[1];"
+            + "var timer = null;"
+            + "function ajaxIdle() { return !window.jQuery || window.jQuery.active === 0; }"
+            + "function finish(result) { observer.disconnect(); clearTimeout(timer); callback(result); }"
+            + "function schedule() {"
+            + "  clearTimeout(timer);"
+            + "  if (Date.now() >= deadline) { finish(false); return; }"
+            + "  timer = setTimeout(function () {"
+            + "    if (document.readyState === 'complete' && ajaxIdle()) { finish(true); } else { schedule(); }"
+            + "  }, quietMillis);"
+            + "}"
+            + "var observer = new MutationObserver(schedule);"
+            + "observer.observe(document, {childList: true, subtree: true, characterData: true});"
+            + "schedule();";
+
+    private final WebDriver driver;
+    private final long timeoutMillis;
+    private long lastWaitMillis;
+
+    /**
+     * Constructs a PageWait with the default timeout.
+     *
+     * @param driver the WebDriver instance whose pages are waited on.
+     */
+    public PageWait(WebDriver driver) {
+        this(driver, Duration.ofMillis(DEFAULT_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * Constructs a PageWait with a specific timeout.
+     *
+     * @param driver the WebDriver instance whose pages are waited on.
+     * @param timeout the longest any single action may wait.
+     */
+    public PageWait(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Waits until the condition holds, checking it again whenever the DOM changes.
+     *
+     * @param action a short description of what is being waited for, used in logs and errors.
+     * @param condition the readiness condition.
+     * @param <T> the type of value the condition produces.
+     * @return the value produced by the condition.
+     * @throws TimeoutException if the condition does not hold within the timeout.
+     */
+    public <T> T until(String action, ExpectedCondition<T> condition) {
+        long start = System.nanoTime();
+        long deadline = start + timeoutMillis * 1_000_000L;
+        T value = check(condition);
+        while (value == null) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000L;
+            if (remainingMillis <= 0) {
+                record(action, start, false);
+                throw new TimeoutException(action + " was not ready after " + timeoutMillis + " ms");
+            }
+            awaitMutation(Math.min(remainingMillis, MAX_MUTATION_WAIT_MILLIS));
+            value = check(condition);
+        }
+        record(action, start, true);
+        return value;
+    }
+
+    /**
+     * Waits until the element is visible and enabled.
+     *
+     * @param action a short description of the element, used in logs and errors.
+     * @param element the element, usually a PageFactory proxy.
+     * @return the element, ready to be clicked.
+     */
+    public WebElement clickable(String action, WebElement element) {
+        return until(action, ExpectedConditions.elementToBeClickable(element));
+    }
+
+    /**
+     * Waits until the element is visible.
+     *
+     * @param action a short description of the element, used in logs and errors.
+     * @param element the element, usually a PageFactory proxy.
+     * @return the visible element.
+     */
+    public WebElement visible(String action, WebElement element) {
+        return until(action, ExpectedConditions.visibilityOf(element));
+    }
+
+    /**
+     * Waits until the current page has finished loading and its AJAX activity has settled.
+     *
+     * The whole check runs inside the browser in one round trip. If the page is still
+     * busy when the timeout runs out, the wait is logged and the caller carries on; the
+     * next element condition will fail with a precise message if something is missing.
+     *
+     * @param action a short description of the navigation, used in logs.
+     */
+    public void pageReady(String action) {
+        long start = System.nanoTime();
+        Object ready;
+        try {
+            ready = ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_PAGE_READY_SCRIPT,
+                    QUIET_MILLIS, timeoutMillis);
+        } catch (WebDriverException e) {
+            // The page navigated away while the script was waiting; it is loading something newer.
+            ready = Boolean.FALSE;
+        }
+        record(action, start, Boolean.TRUE.equals(ready));
+    }
+
+    /**
+     * Returns how long the most recent wait took.
+     *
+     * @return the duration of the last wait in milliseconds.
+     */
+    public long getLastWaitMillis() {
+        return lastWaitMillis;
+    }
+
+    private <T> T check(ExpectedCondition<T> condition) {
+        try {
+            T value = condition.apply(driver);
+            if (Boolean.FALSE.equals(value)) {
+                return null;
+            }
+            return value;
+        } catch (NotFoundException | StaleElementReferenceException e) {
+            return null;
+        }
+    }
+
+    private void awaitMutation(long millis) {
+        try {
+            ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_MUTATION_SCRIPT, millis);
+        } catch (WebDriverException e) {
+            // Navigation interrupted the observer; re-checking the condition is the right next step.
+        }
+    }
+
+    private void record(String action, long startNanos, boolean ready) {
+        lastWaitMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+        if (ready) {
+            LOGGER.debug("Waited {} ms for {}", lastWaitMillis, action);
+        } else {
+            LOGGER.warn("Gave up waiting for {} after {} ms", action, lastWaitMillis);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package utilities;
+
+/**
+ * The PersonDataException class signals that a single person record in a data file
+ * could not be turned into a Person.
+ *
+ * It carries the 1-based position of the offending record, so a bad row in a large
+ * file can be found and fixed without re-reading the whole file.
+ */
+public class PersonDataException extends RuntimeException {
+
+    private final int row;
+    private final String reason;
+
+    /**
+     * Constructs a PersonDataException for the given record.
+     *
+     * @param row the 1-based position of the record in the data file.
+     * @param message a description of what is wrong with the record.
+     */
+    public PersonDataException(int row, String message) {
+        super("Person record #" + row + ": " + message);
+        this.row = row;
+        this.reason = message;
+    }
+
+    /**
+     * Constructs a PersonDataException for the given record with an underlying cause.
+     *
+     * @param row the 1-based position of the record in the data file.
+     * @param message a description of what is wrong with the record.
+     * @param cause the exception raised while reading the record.
+     */
+    public PersonDataException(int row, String message, Throwable cause) {
+        super("Person record #" + row + ": " + message, cause);
+        this.row = row;
+        this.reason = message;
+    }
+
+    /**
+     * Returns the 1-based position of the record that could not be read.
+     *
+     * @return the record number.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Returns what is wrong with the record, without the record number.
+     *
+     * @return the description given when the exception was constructed.
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,235 @@
+package utilities;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.SplittableRandom;
+
+/**
+ * The PersonDataGenerator class writes people XML files of any size, in the format read
+ * by XmlReader, for volume tests and benchmarks.
+ *
+ * Records are written one at a time with a StAX writer, so a file with millions of people
+ * needs no more memory than one with three. The same seed always produces the same file.
+ * A share of the records can be given a deliberately invalid postcode, phone or email,
+ * each with its own ratio, to drive the checkout form's validation paths at scale.
+ *
+ * Generate a file from the command line with:
+ * java -cp target/classes utilities.PersonDataGenerator target/people-1000000.xml 1000000
+ * using the "people.seed" and "people.invalid.postcode", "people.invalid.phone" and
+ * "people.invalid.email" system properties for the seed and the ratios.
+ */
+public final class PersonDataGenerator {
+
+    // Hebrew names and places like those in src/assets/people.xml; the build reads sources as UTF-8.
+    private static final String[][] FIRST_NAMES = {
+        {"יוסי", "yosi"}, {"מרים", "miriam"}, {"דוד", "david"}, {"שרה", "sara"}, {"משה", "moshe"},
+        {"רחל", "rachel"}, {"אברהם", "avraham"}, {"נועה", "noa"}, {"איתי", "itay"}, {"תמר", "tamar"},
+        {"אורי", "uri"}, {"מאיה", "maya"}, {"עומר", "omer"}, {"שירה", "shira"}, {"יונתן", "yonatan"},
+    };
+    private static final String[] LAST_NAMES = {
+        "כהן", "לוי", "פרץ", "מזרחי", "ביטון", "אברהם", "פרידמן", "שפירא", "אזולאי", "דהן",
+    };
+    private static final String[] STREETS = {
+        "ירושלים", "בן גוריון", "גולדה מאיר", "הרצל", "ויצמן", "רוטשילד", "ז'בוטינסקי", "אלנבי",
+    };
+    private static final String[] CITIES = {
+        "תל אביב", "חיפה", "ירושלים", "באר שבע", "נתניה", "ראשון לציון", "פתח תקווה", "אשדוד",
+    };
+    private static final String STREET = "רחוב ";
+    private static final String[] PHONE_PREFIXES = {"050", "052", "053", "054", "058"};
+    private static final String[] EMAIL_DOMAINS = {"example.com", "example.org", "example.net"};
+
+    private static final String[] BAD_POSTCODES = {"", "1234", "12A45", "123456", "ABCDE"};
+    private static final String[] BAD_PHONES = {"", "054-12", "phone", "054-123456789", "+-()"};
+    private static final String[] BAD_EMAILS = {"", "@example.com", "no-at-sign.example.com", "name@", "a@@b.com"};
+
+    private final long seed;
+    private double invalidPostcodes;
+    private double invalidPhones;
+    private double invalidEmails;
+
+    /**
+     * Constructs a PersonDataGenerator with the given seed and only valid records.
+     *
+     * @param seed the seed of the random values; equal seeds write equal files.
+     */
+    public PersonDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the share of records written with an invalid postcode.
+     *
+     * @param ratio a value from 0 (none) to 1 (every record).
+     * @return this generator, for chaining.
+     * @throws IllegalArgumentException if the ratio is outside 0 to 1.
+     */
+    public PersonDataGenerator withInvalidPostcodes(double ratio) {
+        invalidPostcodes = checkRatio("postcode", ratio);
+        return this;
+    }
+
+    /**
+     * Sets the share of records written with an invalid phone number.
+     *
+     * @param ratio a value from 0 (none) to 1 (every record).
+     * @return this generator, for chaining.
+     * @throws IllegalArgumentException if the ratio is outside 0 to 1.
+     */
+    public PersonDataGenerator withInvalidPhones(double ratio) {
+        invalidPhones = checkRatio("phone", ratio);
+        return this;
+    }
+
+    /**
+     * Sets the share of records written with an invalid email address.
+     *
+     * @param ratio a value from 0 (none) to 1 (every record).
+     * @return this generator, for chaining.
+     * @throws IllegalArgumentException if the ratio is outside 0 to 1.
+     */
+    public PersonDataGenerator withInvalidEmails(double ratio) {
+        invalidEmails = checkRatio("email", ratio);
+        return this;
+    }
+
+    /**
+     * Writes a people XML file, replacing the target atomically once it is complete.
+     *
+     * @param target the file to write.
+     * @param people the number of person records.
+     * @return the counts of records and invalid fields written.
+     * @throws IOException if the file cannot be written.
+     */
+    public Summary write(Path target, long people) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            Summary summary;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                summary = write(out, people);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return summary;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Writes a people XML document to a stream, which is left open.
+     *
+     * @param out the stream receiving the UTF-8 encoded document.
+     * @param people the number of person records.
+     * @return the counts of records and invalid fields written.
+     * @throws IOException if the stream cannot be written.
+     */
+    public Summary write(OutputStream out, long people) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        BufferedOutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+        long badPostcodes = 0;
+        long badPhones = 0;
+        long badEmails = 0;
+        long invalidPeople = 0;
+        try {
+            XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(buffered, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters("\n");
+            xml.writeStartElement("people");
+            for (long row = 0; row < people; row++) {
+                String[] firstName = pick(random, FIRST_NAMES);
+                boolean badPostcode = random.nextDouble() < invalidPostcodes;
+                boolean badPhone = random.nextDouble() < invalidPhones;
+                boolean badEmail = random.nextDouble() < invalidEmails;
+
+                xml.writeCharacters("\n    ");
+                xml.writeStartElement("person");
+                writeField(xml, "firstName", firstName[0]);
+                writeField(xml, "lastName", pick(random, LAST_NAMES));
+                writeField(xml, "address", STREET + pick(random, STREETS) + " " + (1 + random.nextInt(120)));
+                writeField(xml, "postcode", badPostcode ? pick(random, BAD_POSTCODES)
+                        : String.valueOf(10000 + random.nextInt(90000)));
+                writeField(xml, "city", pick(random, CITIES));
+                writeField(xml, "phone", badPhone ? pick(random, BAD_PHONES)
+                        : pick(random, PHONE_PREFIXES) + "-" + (1000000 + random.nextInt(9000000)));
+                writeField(xml, "email", badEmail ? pick(random, BAD_EMAILS)
+                        : firstName[1] + "." + row + "@" + pick(random, EMAIL_DOMAINS));
+                xml.writeCharacters("\n    ");
+                xml.writeEndElement();
+
+                badPostcodes += badPostcode ? 1 : 0;
+                badPhones += badPhone ? 1 : 0;
+                badEmails += badEmail ? 1 : 0;
+                invalidPeople += badPostcode || badPhone || badEmail ? 1 : 0;
+            }
+            xml.writeCharacters("\n");
+            xml.writeEndElement();
+            xml.writeCharacters("\n");
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not write person XML", e);
+        }
+        buffered.flush();
+        return new Summary(people, invalidPeople, badPostcodes, badPhones, badEmails);
+    }
+
+    /**
+     * Writes a people XML file from the command line.
+     *
+     * @param args the target file and the number of people.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: PersonDataGenerator <file> <people>");
+            System.exit(2);
+        }
+        Summary summary = new PersonDataGenerator(Long.getLong("people.seed", 1L))
+                .withInvalidPostcodes(Double.parseDouble(System.getProperty("people.invalid.postcode", "0")))
+                .withInvalidPhones(Double.parseDouble(System.getProperty("people.invalid.phone", "0")))
+                .withInvalidEmails(Double.parseDouble(System.getProperty("people.invalid.email", "0")))
+                .write(Paths.get(args[0]), Long.parseLong(args[1]));
+        System.out.println(args[0] + ": " + summary);
+    }
+
+    private static void writeField(XMLStreamWriter xml, String name, String value) throws XMLStreamException {
+        xml.writeCharacters("\n        ");
+        xml.writeStartElement(name);
+        xml.writeCharacters(value);
+        xml.writeEndElement();
+    }
+
+    private static <T> T pick(SplittableRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static double checkRatio(String field, double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("Invalid " + field + " ratio must be between 0 and 1, was " + ratio);
+        }
+        return ratio;
+    }
+
+    /**
+     * The PersonDataGenerator.Summary record counts what one write produced.
+     *
+     * @param people the number of records written.
+     * @param invalidPeople the records with at least one invalid field.
+     * @param invalidPostcodes the records with an invalid postcode.
+     * @param invalidPhones the records with an invalid phone number.
+     * @param invalidEmails the records with an invalid email address.
+     */
+    public record Summary(long people, long invalidPeople, long invalidPostcodes, long invalidPhones,
+                          long invalidEmails) {
+    }
+}
@@ -0,0 +1,176 @@
+package utilities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The PersonDataset class reads a binary people file written by PersonDatasetCompiler.
+ *
+ * The file is memory-mapped, so opening it costs the same regardless of its size, and
+ * Person objects are only decoded when a row is requested. The row index allows jumping
+ * straight to any row, which lets a shard read just its own slice of the data.
+ *
+ * A row whose XML record could not be compiled holds an error record instead of a
+ * person. Reading it raises a PersonDataException for that row only, and streams yield
+ * an InvalidPerson in its place, so the rows around it can still be used.
+ *
+ * Every read works on its own view of the mapping, so one dataset can be shared between threads.
+ */
+public final class PersonDataset implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final int indexOffset;
+
+    private PersonDataset(FileChannel channel, MappedByteBuffer buffer, int rows, int indexOffset) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.rows = rows;
+        this.indexOffset = indexOffset;
+    }
+
+    /**
+     * Opens and memory-maps a compiled dataset.
+     *
+     * @param file the binary dataset file.
+     * @return the opened dataset.
+     * @throws IOException if the file cannot be read or is not a dataset in a supported format.
+     */
+    public static PersonDataset open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Dataset " + file + " is larger than 2 GB and cannot be mapped");
+            }
+            if (size < PersonDatasetCompiler.HEADER_SIZE) {
+                throw new IOException("Dataset " + file + " is truncated");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != PersonDatasetCompiler.MAGIC
+                    || buffer.getInt(4) != PersonDatasetCompiler.VERSION) {
+                throw new IOException("Dataset " + file + " has an unknown format");
+            }
+            int headerTail = 8 + PersonDatasetCompiler.HASH_SIZE;
+            int rows = buffer.getInt(headerTail);
+            long indexOffset = buffer.getLong(headerTail + 4);
+            if (rows < 0 || indexOffset + (long) rows * Long.BYTES != size) {
+                throw new IOException("Dataset " + file + " has a corrupt row index");
+            }
+            return new PersonDataset(channel, buffer, rows, (int) indexOffset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of people in the dataset.
+     *
+     * @return the row count.
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Decodes the person stored at the given row.
+     *
+     * @param row the 0-based row number.
+     * @return the Person stored in that row.
+     * @throws IndexOutOfBoundsException if the row does not exist.
+     * @throws PersonDataException if the row's XML record could not be compiled.
+     */
+    public Person get(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " is outside 0.." + (rows - 1));
+        }
+        ByteBuffer record = buffer.duplicate();
+        record.position((int) buffer.getLong(indexOffset + row * Long.BYTES));
+        if (record.get() == PersonDatasetCompiler.ERROR_RECORD) {
+            throw new PersonDataException(row + 1, readField(record));
+        }
+        String firstName = readField(record);
+        String lastName = readField(record);
+        String address = readField(record);
+        String postcode = readField(record);
+        String city = readField(record);
+        String phone = readField(record);
+        String email = readField(record);
+        return new Person(firstName, lastName, address, postcode, city, phone, email);
+    }
+
+    /**
+     * Streams every person in row order, decoding each one on demand. Rows that could not
+     * be compiled are streamed as InvalidPerson placeholders.
+     *
+     * @return a lazy stream over the whole dataset.
+     */
+    public Stream<Person> stream() {
+        return stream(0, rows);
+    }
+
+    /**
+     * Streams the people in a range of rows, decoding each one on demand. Rows that could
+     * not be compiled are streamed as InvalidPerson placeholders.
+     *
+     * @param fromRow the first row to include, 0-based.
+     * @param toRow the row to stop before.
+     * @return a lazy stream over the requested rows.
+     */
+    public Stream<Person> stream(int fromRow, int toRow) {
+        return IntStream.range(Math.max(0, fromRow), Math.min(rows, toRow)).mapToObj(this::getOrInvalid);
+    }
+
+    /**
+     * Decodes the person stored at the given row, or a placeholder if it could not be compiled.
+     *
+     * @param row the 0-based row number.
+     * @return the Person stored in that row, or an InvalidPerson that fails when it is used.
+     * @throws IndexOutOfBoundsException if the row does not exist.
+     */
+    public Person getOrInvalid(int row) {
+        try {
+            return get(row);
+        } catch (PersonDataException e) {
+            return new InvalidPerson(e);
+        }
+    }
+
+    /**
+     * Releases the file backing this dataset. The mapping itself is freed by the garbage collector.
+     *
+     * @throws UncheckedIOException if the file cannot be closed.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String readField(ByteBuffer record) {
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = record.get();
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        byte[] bytes = new byte[length];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
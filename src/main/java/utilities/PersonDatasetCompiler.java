@@ -0,0 +1,205 @@
+package utilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * The PersonDatasetCompiler class turns a people XML file into the compact binary
+ * format read by PersonDataset.
+ *
+ * The binary file starts with a fixed header (magic, format version, SHA-256 of the
+ * source XML, row count and the offset of the row index), followed by one record per
+ * person, and ends with the row index: one 8-byte offset per record. A record starts
+ * with a kind byte: a person record then holds seven UTF-8 fields, each prefixed with
+ * its byte length as a varint; an error record holds one such field, the reason the
+ * XML record could not be read. Because the header stores the source hash, the file is
+ * only rebuilt when the XML content actually changes.
+ *
+ * A bad XML record does not stop the compile: it is logged and kept as an error record
+ * in its row, which PersonDataset raises as a PersonDataException for that row alone.
+ * XML that is not well-formed ends the dataset with an error record, because the parser
+ * cannot read past it.
+ */
+public final class PersonDatasetCompiler {
+
+    static final int MAGIC = 0x50445331;  // "PDS1"
+    static final int VERSION = 2;
+    static final int HASH_SIZE = 32;
+    static final int HEADER_SIZE = 4 + 4 + HASH_SIZE + 4 + 8;
+    static final byte PERSON_RECORD = 0;
+    static final byte ERROR_RECORD = 1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersonDatasetCompiler.class);
+
+    private PersonDatasetCompiler() {
+    }
+
+    /**
+     * Compiles the XML source into the target file unless the target was already built
+     * from a source with the same content.
+     *
+     * @param source the people XML file.
+     * @param target the binary dataset file to create or reuse.
+     * @return the target path, for chaining into PersonDataset.open.
+     * @throws IOException if either file cannot be read or written.
+     * @throws PersonDataException if the XML prolog cannot be read.
+     */
+    public static Path compileIfStale(Path source, Path target) throws IOException {
+        byte[] sourceHash = sha256(source);
+        if (!Arrays.equals(sourceHash, readSourceHash(target))) {
+            compile(source, target, sourceHash);
+        }
+        return target;
+    }
+
+    /**
+     * Compiles the XML source into the target file, replacing it atomically.
+     *
+     * @param source the people XML file.
+     * @param target the binary dataset file to write.
+     * @param sourceHash the SHA-256 of the source, recorded in the header.
+     * @throws IOException if either file cannot be read or written.
+     * @throws PersonDataException if the XML prolog cannot be read.
+     */
+    public static void compile(Path source, Path target, byte[] sourceHash) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            writeDataset(source, temp, sourceHash);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 digest of a file's content.
+     *
+     * @param file the file to hash.
+     * @return the 32-byte digest.
+     * @throws IOException if the file cannot be read.
+     */
+    public static byte[] sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Compiles a dataset from the command line.
+     *
+     * @param args the XML source path and the binary target path.
+     * @throws IOException if either file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: PersonDatasetCompiler <people.xml> <people.pds>");
+            System.exit(2);
+        }
+        compileIfStale(Paths.get(args[0]), Paths.get(args[1]));
+    }
+
+    private static void writeDataset(Path source, Path target, byte[] sourceHash) throws IOException {
+        long[] offsets = new long[1024];
+        int rows = 0;
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+             Stream<Person> people = new XmlReader().streamXmlPerson(source.toString())) {
+            out.write(new byte[HEADER_SIZE]);
+            for (Person person : (Iterable<Person>) people::iterator) {
+                if (rows == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, rows * 2);
+                }
+                offsets[rows++] = out.size();
+                if (person instanceof InvalidPerson invalid) {
+                    String error = invalid.getError().getReason();
+                    LOGGER.warn("Person record #{} in {} cannot be read, its row will fail: {}", rows, source, error);
+                    out.writeByte(ERROR_RECORD);
+                    writeField(out, error);
+                    continue;
+                }
+                out.writeByte(PERSON_RECORD);
+                writeField(out, person.getFirstName());
+                writeField(out, person.getLastName());
+                writeField(out, person.getAddress());
+                writeField(out, person.getPostcode());
+                writeField(out, person.getCity());
+                writeField(out, person.getPhone());
+                writeField(out, person.getEmail());
+            }
+            long indexOffset = out.size();
+            for (int i = 0; i < rows; i++) {
+                out.writeLong(offsets[i]);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).put(sourceHash).putInt(rows).putLong(indexOffset).flip();
+            channel.write(header, 0);
+        }
+    }
+
+    private static void writeField(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        while ((length & ~0x7F) != 0) {
+            out.writeByte((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.writeByte(length);
+        out.write(bytes);
+    }
+
+    private static byte[] readSourceHash(Path target) throws IOException {
+        if (!Files.isRegularFile(target) || Files.size(target) < HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+            while (header.hasRemaining()) {
+                if (channel.read(header) == -1) {
+                    return null;
+                }
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            return null;
+        }
+        byte[] hash = new byte[HASH_SIZE];
+        header.get(hash);
+        return hash;
+    }
+}
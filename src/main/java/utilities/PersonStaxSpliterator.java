@@ -0,0 +1,164 @@
+package utilities;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * The PersonStaxSpliterator class pulls "person" elements out of an XML document one
+ * at a time with a StAX reader, so only the record being built is held in memory.
+ *
+ * A record with a missing field is handed out as an InvalidPerson carrying a
+ * PersonDataException for that row, so in a parameterized test only that row's
+ * invocation fails and the records after it are still read. A document that is not
+ * well-formed yields one InvalidPerson describing where it broke and then ends the
+ * iteration, because the parser cannot recover from it.
+ *
+ * The document's encoding is taken from its byte order mark or XML declaration, as the
+ * XML specification requires, and is UTF-8 when neither names one.
+ */
+class PersonStaxSpliterator extends Spliterators.AbstractSpliterator<Person> implements AutoCloseable {
+
+    private static final String[] FIELDS = {"firstName", "lastName", "address", "postcode", "city", "phone", "email"};
+
+    private final XMLStreamReader reader;
+    private final InputStream input;
+    private int row;
+    private boolean finished;
+
+    /**
+     * Constructs a PersonStaxSpliterator over the given XML input.
+     *
+     * @param input the XML document, in the encoding its prolog declares; it is closed
+     *              together with the spliterator.
+     * @throws XMLStreamException if the document prolog cannot be read.
+     */
+    PersonStaxSpliterator(InputStream input) throws XMLStreamException {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        this.input = input;
+        this.reader = factory.createXMLStreamReader(input);
+    }
+
+    /**
+     * Reads the next person record and hands it to the action.
+     *
+     * @param action the consumer receiving the Person, or an InvalidPerson for a record
+     *               that is incomplete or where the XML stops being well-formed.
+     * @return true if a record was read, false at the end of the document.
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super Person> action) {
+        if (finished) {
+            return false;
+        }
+        try {
+            while (!isPersonStart()) {
+                if (!reader.hasNext()) {
+                    finished = true;
+                    return false;
+                }
+                reader.next();
+            }
+        } catch (XMLStreamException e) {
+            // Broken between records: the next row stands for the rest of the document.
+            action.accept(malformed(++row, e));
+            return true;
+        }
+        row++;
+        Person person;
+        try {
+            person = readPerson();
+        } catch (XMLStreamException e) {
+            person = malformed(row, e);
+        }
+        action.accept(person);
+        return true;
+    }
+
+    /**
+     * Returns the number of person records read so far.
+     *
+     * @return the 1-based number of the last record read, or 0 before the first one.
+     */
+    int getRow() {
+        return row;
+    }
+
+    /**
+     * Closes the StAX reader and the underlying input.
+     */
+    @Override
+    public void close() {
+        finished = true;
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // The input is closed below either way.
+        }
+        try {
+            input.close();
+        } catch (IOException e) {
+            // Nothing useful can be done with a failure to close a read-only file.
+        }
+    }
+
+    private boolean isPersonStart() {
+        return reader.getEventType() == XMLStreamConstants.START_ELEMENT && "person".equals(reader.getLocalName());
+    }
+
+    private InvalidPerson malformed(int record, XMLStreamException e) {
+        finished = true;
+        return new InvalidPerson(new PersonDataException(record, "malformed XML" + describe(e.getLocation()), e));
+    }
+
+    private Person readPerson() throws XMLStreamException {
+        String[] values = new String[FIELDS.length];
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                int field = fieldIndex(reader.getLocalName());
+                if (field >= 0 && depth == 1) {
+                    values[field] = reader.getElementText();
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (values[i] == null) {
+                return new InvalidPerson(new PersonDataException(row, "missing <" + FIELDS[i] + "> element"));
+            }
+        }
+        return new Person(values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+    }
+
+    private static int fieldIndex(String name) {
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (FIELDS[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String describe(Location location) {
+        if (location == null) {
+            return "";
+        }
+        return " at line " + location.getLineNumber() + ", column " + location.getColumnNumber();
+    }
+}
@@ -0,0 +1,351 @@
+package utilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.jar.JarEntry;
+import java.util.stream.Stream;
+
+/**
+ * The RowResultCache class remembers the verdict of each parameterized test row, so an
+ * incremental run can skip rows that already passed with the same data and the same code.
+ *
+ * A row is identified by its test and a hash of its arguments, so it keeps its verdict
+ * when rows are added or moved in the data file. Each verdict is stored with a
+ * fingerprint of the classes the test depends on and of the run settings, such as the
+ * browser backend, and only counts while that fingerprint still matches.
+ *
+ * Verdicts are kept in a tab-separated file named by the "row.cache.file" system
+ * property, "row-results.tsv" by default, and merged into it when the run ends.
+ */
+public final class RowResultCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RowResultCache.class);
+    private static final RowResultCache SHARED =
+            new RowResultCache(Paths.get(System.getProperty("row.cache.file", "row-results.tsv")));
+
+    private final Path file;
+    private final Map<String, Verdict> stored;
+    private final Map<String, Verdict> measured = new ConcurrentHashMap<>();
+    private final Queue<ReportLine> report = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Creates a cache backed by a file, reading the verdicts it already holds.
+     *
+     * @param file the verdict file, which need not exist yet.
+     */
+    public RowResultCache(Path file) {
+        this.file = file;
+        this.stored = read(file);
+    }
+
+    /**
+     * Returns the cache shared by the whole run.
+     *
+     * @return the cache backed by the configured verdict file.
+     */
+    public static RowResultCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns a hash of a row's arguments. A Person is hashed on all its fields.
+     *
+     * @param arguments the arguments of the row.
+     * @return the hash as hexadecimal digits.
+     */
+    public static String hashOf(List<Object> arguments) {
+        MessageDigest digest = sha256();
+        for (Object argument : arguments) {
+            // An InvalidPerson has no fields to read; its string names the bad record.
+            List<String> fields = argument instanceof Person person && !(person instanceof InvalidPerson)
+                    ? List.of(person.getFirstName(), person.getLastName(), person.getAddress(),
+                            person.getPostcode(), person.getCity(), person.getPhone(), person.getEmail())
+                    : List.of(String.valueOf(argument));
+            for (String field : fields) {
+                digest.update(String.valueOf(field).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns a fingerprint of the compiled code of some classes and of their member classes.
+     *
+     * @param classes the classes to fingerprint.
+     * @return the fingerprint as hexadecimal digits.
+     * @throws UncheckedIOException if the class files cannot be read.
+     */
+    public static String fingerprintOf(List<Class<?>> classes) {
+        return fingerprintOf(classes, List.of());
+    }
+
+    /**
+     * Returns a fingerprint of the compiled code of some classes and of their member classes,
+     * and of the run settings that change what that code does.
+     *
+     * @param classes the classes to fingerprint.
+     * @param settings the settings, such as "browser.backend=chrome".
+     * @return the fingerprint as hexadecimal digits.
+     * @throws UncheckedIOException if the class files cannot be read.
+     */
+    public static String fingerprintOf(List<Class<?>> classes, List<String> settings) {
+        MessageDigest digest = sha256();
+        for (String setting : settings) {
+            digest.update(setting.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        List<Class<?>> pending = new ArrayList<>(classes);
+        Set<Class<?>> seen = new HashSet<>();
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.remove(0);
+            if (!seen.add(type)) {
+                continue;
+            }
+            String resource = "/" + type.getName().replace('.', '/') + ".class";
+            try (InputStream bytes = type.getResourceAsStream(resource)) {
+                if (bytes == null) {
+                    throw new IOException(resource + " not found");
+                }
+                digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+                digest.update(bytes.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not fingerprint " + type.getName(), e);
+            }
+            pending.addAll(List.of(type.getDeclaredClasses()));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Returns the classes of a package, package-private and member classes included, without
+     * initializing them. Subpackages are not included.
+     *
+     * @param packageName the package, such as "pageobjects".
+     * @return the classes, sorted by name.
+     * @throws IllegalArgumentException if the package has no classes.
+     * @throws UncheckedIOException if the package cannot be listed.
+     */
+    public static List<Class<?>> classesIn(String packageName) {
+        String path = packageName.replace('.', '/');
+        ClassLoader loader = RowResultCache.class.getClassLoader();
+        Set<String> files = new TreeSet<>();
+        try {
+            for (URL url : Collections.list(loader.getResources(path))) {
+                if (url.getProtocol().equals("jar")) {
+                    ((JarURLConnection) url.openConnection()).getJarFile().stream()
+                            .map(JarEntry::getName)
+                            .filter(name -> name.startsWith(path + "/") && name.indexOf('/', path.length() + 1) < 0)
+                            .forEach(name -> files.add(name.substring(path.length() + 1)));
+                } else {
+                    try (Stream<Path> directory = Files.list(Paths.get(URI.create(url.toString())))) {
+                        directory.forEach(file -> files.add(file.getFileName().toString()));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list package " + packageName, e);
+        }
+        List<Class<?>> classes = new ArrayList<>();
+        for (String file : files) {
+            if (file.endsWith(".class") && !file.equals("package-info.class")) {
+                String className = packageName + "." + file.substring(0, file.length() - ".class".length());
+                try {
+                    classes.add(Class.forName(className, false, loader));
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException("Could not load " + className, e);
+                }
+            }
+        }
+        if (classes.isEmpty()) {
+            throw new IllegalArgumentException("No classes found in package " + packageName);
+        }
+        return classes;
+    }
+
+    /**
+     * Returns whether a row passed in an earlier run with the same code.
+     *
+     * @param row the row.
+     * @return true if the stored verdict is a pass with the row's fingerprint.
+     */
+    public boolean hasPassed(Row row) {
+        Verdict verdict = stored.get(row.key());
+        return verdict != null && verdict.passed() && verdict.fingerprint().equals(row.fingerprint());
+    }
+
+    /**
+     * Records the verdict of a row that ran in this run.
+     *
+     * @param row the row.
+     * @param passed whether the row passed.
+     */
+    public void recordExecuted(Row row, boolean passed) {
+        measured.put(row.key(), new Verdict(passed, row.fingerprint()));
+        report.add(new ReportLine(row, passed ? "passed" : "failed", "executed"));
+    }
+
+    /**
+     * Records a row that was skipped because it passed in an earlier run.
+     *
+     * @param row the row.
+     */
+    public void recordCached(Row row) {
+        report.add(new ReportLine(row, "passed", "cached"));
+    }
+
+    /**
+     * Writes the verdicts of this run's rows, executed and cached, as CSV, by test and then
+     * by row number.
+     *
+     * @param reportFile the report file.
+     * @throws UncheckedIOException if the report cannot be written.
+     */
+    public void writeReport(Path reportFile) {
+        List<ReportLine> sorted = new ArrayList<>(report);
+        sorted.sort(Comparator.comparing((ReportLine line) -> line.row().test())
+                .thenComparingInt(line -> rowNumber(line.row().position()))
+                .thenComparing(line -> line.row().position()));
+        List<String> lines = new ArrayList<>();
+        lines.add("test,row,row hash,verdict,source");
+        for (ReportLine line : sorted) {
+            lines.add(line.toCsv());
+        }
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            Files.write(reportFile, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + reportFile, e);
+        }
+        long cached = report.stream().filter(line -> line.source().equals("cached")).count();
+        LOGGER.info("{} rows executed and {} passed in earlier runs; verdicts in {}", report.size() - cached, cached,
+                reportFile);
+    }
+
+    /**
+     * Merges the verdicts of the rows that ran in this run into the verdict file and clears them.
+     *
+     * @throws UncheckedIOException if the file cannot be written.
+     */
+    public synchronized void save() {
+        if (measured.isEmpty()) {
+            return;
+        }
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path lockFile = directory.resolve(file.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                Map<String, Verdict> merged = read(file);
+                merged.putAll(measured);
+                Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writer.write("# verdict\tcode fingerprint\trow hash\ttest\n");
+                    for (Map.Entry<String, Verdict> entry : merged.entrySet()) {
+                        Verdict verdict = entry.getValue();
+                        writer.write((verdict.passed() ? "passed" : "failed") + "\t" + verdict.fingerprint()
+                                + "\t" + entry.getKey() + "\n");
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            measured.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save row verdicts to " + file, e);
+        }
+    }
+
+    // Positions such as "#10" sort after "#2"; ones without digits go first.
+    private static int rowNumber(String position) {
+        String digits = position.replaceAll("\\D", "");
+        return digits.isEmpty() ? 0 : Integer.parseInt(digits);
+    }
+
+    private static Map<String, Verdict> read(Path file) {
+        Map<String, Verdict> verdicts = new TreeMap<>();
+        if (!Files.isRegularFile(file)) {
+            return verdicts;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", 3);
+                if (line.startsWith("#") || fields.length < 3) {
+                    continue;
+                }
+                verdicts.put(fields[2], new Verdict("passed".equals(fields[0]), fields[1]));
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unreadable {}: {}", file, e.getMessage());
+            verdicts.clear();
+        }
+        return verdicts;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The RowResultCache.Row record identifies one invocation of a parameterized test.
+     *
+     * @param test the test, as "Class.method".
+     * @param position the row's position in this run, such as "#3", for the report.
+     * @param hash the hash of the row's arguments.
+     * @param fingerprint the fingerprint of the code the test depends on.
+     */
+    public record Row(String test, String position, String hash, String fingerprint) {
+
+        private String key() {
+            return hash + "\t" + test;
+        }
+    }
+
+    private record Verdict(boolean passed, String fingerprint) {
+    }
+
+    private record ReportLine(Row row, String verdict, String source) {
+
+        private String toCsv() {
+            return row.test() + "," + row.position() + "," + row.hash().substring(0, 12) + "," + verdict + ","
+                    + source;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package utilities;
+
+/**
+ * The RunEvent record is one entry of the RunJournal.
+ *
+ * Events are created on the test threads and turned into JSON later by the journal's
+ * writer thread, so creating one costs no more than the record itself.
+ *
+ * @param epochMillis when the event happened, in milliseconds since the epoch.
+ * @param type what happened.
+ * @param thread the name of the thread it happened on.
+ * @param test the test it belongs to, as "Class.method", or StepMetrics.NO_TEST.
+ * @param row the parameter row, such as "#3", or an empty string.
+ * @param name the subject of the event, such as a step or browser name, or null.
+ * @param nanos the duration of the step, test or launch in nanoseconds, or 0.
+ * @param detail the outcome or other free-form detail, or null.
+ */
+public record RunEvent(long epochMillis, Type type, String thread, String test, String row, String name, long nanos,
+                       String detail) {
+
+    /**
+     * The kinds of run event.
+     */
+    public enum Type {
+        /** The run's journal started; the events after it belong to this run. */
+        JOURNAL_STARTED,
+        /** A test or parameter row started its body. */
+        TEST_STARTED,
+        /** A test or parameter row finished; the detail is its outcome. */
+        TEST_FINISHED,
+        /** A page-object step or WebDriver lookup finished. */
+        STEP,
+        /** A browser session was launched. */
+        DRIVER_LAUNCHED,
+        /** A browser session was quit. */
+        DRIVER_QUIT,
+        /** A data row was loaded for a parameterized test. */
+        ROW_LOADED,
+        /** The journal stopped; the detail is the number of events it dropped. */
+        JOURNAL_CLOSED
+    }
+
+    /**
+     * Creates an event that happened now on the current thread.
+     *
+     * @param type what happened.
+     * @param test the test it belongs to.
+     * @param row the parameter row.
+     * @param name the subject of the event.
+     * @param nanos the duration in nanoseconds.
+     * @param detail the outcome or other detail.
+     * @return the event.
+     */
+    public static RunEvent now(Type type, String test, String row, String name, long nanos, String detail) {
+        return new RunEvent(System.currentTimeMillis(), type, Thread.currentThread().getName(), test, row, name, nanos,
+                detail);
+    }
+}
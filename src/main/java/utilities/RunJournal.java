@@ -0,0 +1,211 @@
+package utilities;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * The RunJournal class records what happens during a run as a stream of RunEvents, one
+ * JSON object per line, without making test threads wait for the console or the disk.
+ *
+ * Test threads only claim a slot in a fixed-size ring buffer with a compare-and-set and
+ * store the event there. A single background thread drains the buffer in order, turns
+ * each event into JSON and passes it to the "run.journal" SLF4J logger, which logback.xml
+ * sends to an append-only file, "target/run-journal.jsonl" unless the "run.journal.file"
+ * system property says otherwise. The file is kept from run to run, and each run starts
+ * with a JOURNAL_STARTED event naming its process, so RunJournalSummary can tell the last
+ * run from the ones before it. If the buffer is full, the event is dropped and counted
+ * rather than blocking the test; the count is written when the journal closes, and also
+ * covers events offered while it was closing.
+ *
+ * The buffer holds the number of events given by the "run.journal.capacity" system
+ * property, rounded up to a power of two, 65536 by default. The journal closes, writing
+ * whatever is left, when the JVM shuts down. RunJournalSummary reads the file back.
+ * Journals with their own capacity and output can be created for tests.
+ */
+public final class RunJournal {
+
+    private static final Logger JOURNAL = LoggerFactory.getLogger("run.journal");
+    private static final RunJournal SHARED = new RunJournal(Integer.getInteger("run.journal.capacity", 65_536),
+            JOURNAL::info);
+
+    // Marks a dropped event's slot, so the writer skips it instead of waiting for the event.
+    private static final RunEvent DROPPED = RunEvent.now(RunEvent.Type.STEP, StepMetrics.NO_TEST, "", null, 0, null);
+
+    static {
+        SHARED.offer(RunEvent.now(RunEvent.Type.JOURNAL_STARTED, StepMetrics.NO_TEST, "", null, 0,
+                "pid " + ProcessHandle.current().pid()));
+        Runtime.getRuntime().addShutdownHook(new Thread(SHARED::close, "run-journal-close"));
+    }
+
+    private final Consumer<String> sink;
+    private final AtomicReferenceArray<RunEvent> slots;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a RunJournal and starts its writer thread. Unlike the shared journal, it
+     * is not closed when the JVM shuts down.
+     *
+     * @param capacity the number of events the buffer holds, rounded up to a power of two.
+     * @param sink receives each event as a line of JSON, on the writer thread.
+     */
+    public RunJournal(int capacity, Consumer<String> sink) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.sink = sink;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.writer = new Thread(this::drain, "run-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Returns the journal of this run.
+     *
+     * @return the shared journal.
+     */
+    public static RunJournal shared() {
+        return SHARED;
+    }
+
+    /**
+     * Records an event that happened now on the current thread.
+     *
+     * @param type what happened.
+     * @param test the test it belongs to, or StepMetrics.NO_TEST.
+     * @param row the parameter row, or an empty string.
+     * @param name the subject of the event, or null.
+     * @param nanos the duration in nanoseconds, or 0.
+     * @param detail the outcome or other detail, or null.
+     */
+    public static void record(RunEvent.Type type, String test, String row, String name, long nanos, String detail) {
+        SHARED.offer(RunEvent.now(type, test, row, name, nanos, detail));
+    }
+
+    /**
+     * Adds an event to the buffer without waiting.
+     *
+     * @param event the event.
+     * @return false if the event was dropped because the buffer is full or the journal is closed.
+     */
+    public boolean offer(RunEvent event) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (closed || sequence - tail.get() >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+        if (closed) {
+            // Closed after the check above: the writer may have stopped already, so nothing would write it.
+            dropped.increment();
+            slots.set((int) (sequence & mask), DROPPED);
+            return false;
+        }
+        slots.set((int) (sequence & mask), event);
+        return true;
+    }
+
+    /**
+     * Returns how many events were dropped because the buffer was full or the journal closed.
+     *
+     * @return the number of dropped events.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops accepting events, writes the ones still buffered and stops the writer thread.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join(5_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        write(RunEvent.now(RunEvent.Type.JOURNAL_CLOSED, StepMetrics.NO_TEST, "", null, 0,
+                Long.toString(getDroppedCount())));
+    }
+
+    private void drain() {
+        while (true) {
+            long sequence = tail.get();
+            int index = (int) (sequence & mask);
+            RunEvent event = slots.get(index);
+            if (event == null) {
+                if (sequence == head.get()) {
+                    // Read the head again after closed: a producer that claims a slot later sees closed too.
+                    if (closed && sequence == head.get()) {
+                        return;
+                    }
+                    LockSupport.parkNanos(1_000_000L);
+                } else {
+                    // A producer has claimed the slot but not stored its event yet.
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+            slots.set(index, null);
+            tail.set(sequence + 1);
+            if (event != DROPPED) {
+                write(event);
+            }
+        }
+    }
+
+    private void write(RunEvent event) {
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"time\":\"").append(Instant.ofEpochMilli(event.epochMillis())).append('"');
+        json.append(",\"type\":\"").append(event.type()).append('"');
+        appendString(json, "thread", event.thread());
+        appendString(json, "test", event.test());
+        appendString(json, "row", event.row());
+        appendString(json, "name", event.name());
+        json.append(",\"nanos\":").append(event.nanos());
+        appendString(json, "detail", event.detail());
+        json.append('}');
+        sink.accept(json.toString());
+    }
+
+    private static void appendString(StringBuilder json, String key, String value) {
+        if (value == null) {
+            return;
+        }
+        json.append(",\"").append(key).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
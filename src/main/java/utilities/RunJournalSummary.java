@@ -0,0 +1,159 @@
+package utilities;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The RunJournalSummary class reads a journal written by RunJournal back and sums it up:
+ * test outcomes and the slowest tests, step latencies, browser launches and data rows.
+ *
+ * The journal file is appended to from run to run, so only the events after its last
+ * JOURNAL_STARTED event, those of the last run, are summed up. Shards running on one host
+ * at the same time should each be given their own "run.journal.file". Run it with:
+ * java -cp target/classes:... utilities.RunJournalSummary target/run-journal.jsonl
+ */
+public final class RunJournalSummary {
+
+    private static final int SLOWEST = 10;
+
+    private final Map<String, Integer> outcomes = new TreeMap<>();
+    private final Map<String, Long> testNanos = new HashMap<>();
+    private final Map<String, LatencyHistogram> steps = new TreeMap<>();
+    private final LatencyHistogram launches = new LatencyHistogram();
+    private int quits;
+    private long rowsLoaded;
+    private long dropped;
+    private long events;
+
+    private RunJournalSummary() {
+    }
+
+    /**
+     * Prints the summary of a journal file.
+     *
+     * @param args the journal file; "target/run-journal.jsonl" if none is given.
+     * @throws IOException if the journal cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.print(summarize(Paths.get(args.length > 0 ? args[0] : "target/run-journal.jsonl")));
+    }
+
+    /**
+     * Reads a journal file and sums up its last run.
+     *
+     * @param journal the journal file.
+     * @return the summary as readable text.
+     * @throws IOException if the journal cannot be read.
+     */
+    public static String summarize(Path journal) throws IOException {
+        RunJournalSummary summary = new RunJournalSummary();
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    Map<String, String> event = parse(line);
+                    if ("JOURNAL_STARTED".equals(event.get("type"))) {
+                        summary = new RunJournalSummary();
+                    }
+                    summary.add(event);
+                }
+            }
+        }
+        return summary.format();
+    }
+
+    private void add(Map<String, String> event) {
+        events++;
+        long nanos = Long.parseLong(event.getOrDefault("nanos", "0"));
+        String test = event.getOrDefault("test", StepMetrics.NO_TEST) + event.getOrDefault("row", "");
+        switch (event.getOrDefault("type", "")) {
+            case "TEST_FINISHED" -> {
+                outcomes.merge(event.getOrDefault("detail", "unknown"), 1, Integer::sum);
+                testNanos.put(test, nanos);
+            }
+            case "STEP" -> steps.computeIfAbsent(event.get("name"), key -> new LatencyHistogram()).recordNanos(nanos);
+            case "DRIVER_LAUNCHED" -> launches.recordNanos(nanos);
+            case "DRIVER_QUIT" -> quits++;
+            case "ROW_LOADED" -> rowsLoaded++;
+            case "JOURNAL_CLOSED" -> dropped += Long.parseLong(event.getOrDefault("detail", "0"));
+            default -> {
+            }
+        }
+    }
+
+    private String format() {
+        StringBuilder text = new StringBuilder();
+        text.append(events).append(" events, ").append(dropped).append(" dropped\n");
+        text.append("Tests: ").append(outcomes).append('\n');
+        List<Map.Entry<String, Long>> slowest = new ArrayList<>(testNanos.entrySet());
+        slowest.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        for (Map.Entry<String, Long> test : slowest.subList(0, Math.min(SLOWEST, slowest.size()))) {
+            text.append(String.format(Locale.ROOT, "  %10.1f ms  %s%n", test.getValue() / 1e6, test.getKey()));
+        }
+        text.append("Steps:\n");
+        steps.forEach((step, histogram) -> text.append(String.format(Locale.ROOT,
+                "  %-50s %7d  p50 %8.1f ms  p95 %8.1f ms  max %8.1f ms%n", step, histogram.getCount(),
+                histogram.getPercentileMillis(50), histogram.getPercentileMillis(95), histogram.getMaxMillis())));
+        text.append(String.format(Locale.ROOT, "Browsers: %d launched (mean %.1f ms), %d quit%n",
+                launches.getCount(), launches.getCount() == 0 ? 0.0 : launches.getMeanMillis(), quits));
+        text.append("Data rows loaded: ").append(rowsLoaded).append('\n');
+        return text.toString();
+    }
+
+    // Reads the flat objects RunJournal writes: string and number values, no nesting.
+    private static Map<String, String> parse(String line) {
+        Map<String, String> fields = new HashMap<>();
+        int i = line.indexOf('{') + 1;
+        while (i > 0 && i < line.length()) {
+            int keyStart = line.indexOf('"', i);
+            if (keyStart < 0) {
+                break;
+            }
+            int keyEnd = line.indexOf('"', keyStart + 1);
+            String key = line.substring(keyStart + 1, keyEnd);
+            i = line.indexOf(':', keyEnd) + 1;
+            if (line.charAt(i) == '"') {
+                StringBuilder value = new StringBuilder();
+                for (i++; line.charAt(i) != '"'; i++) {
+                    char c = line.charAt(i);
+                    if (c == '\\') {
+                        c = line.charAt(++i);
+                        switch (c) {
+                            case 'n' -> value.append('\n');
+                            case 'r' -> value.append('\r');
+                            case 't' -> value.append('\t');
+                            case 'u' -> {
+                                value.append((char) Integer.parseInt(line.substring(i + 1, i + 5), 16));
+                                i += 4;
+                            }
+                            default -> value.append(c);
+                        }
+                    } else {
+                        value.append(c);
+                    }
+                }
+                fields.put(key, value.toString());
+                i++;
+            } else {
+                int end = i;
+                while (end < line.length() && line.charAt(end) != ',' && line.charAt(end) != '}') {
+                    end++;
+                }
+                fields.put(key, line.substring(i, end).trim());
+                i = end;
+            }
+            i = line.indexOf(',', i) + 1;
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,89 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ShardPlan class splits tests over a number of shards so that every shard takes
+ * about as long to run.
+ *
+ * Tests with a known duration are placed longest first, each on the shard with the least
+ * work so far, which keeps the longest and shortest shard within one test of each other.
+ * Tests without a known duration are placed by a hash of their key. The plan depends only
+ * on its inputs, so every shard can compute it on its own and they all agree.
+ */
+public final class ShardPlan {
+
+    private final int shardCount;
+    private final Map<String, Integer> assignments;
+    private final long[] plannedMillis;
+
+    private ShardPlan(int shardCount, Map<String, Integer> assignments, long[] plannedMillis) {
+        this.shardCount = shardCount;
+        this.assignments = assignments;
+        this.plannedMillis = plannedMillis;
+    }
+
+    /**
+     * Splits tests with known durations over shards.
+     *
+     * @param durations the duration of each test in milliseconds, by test key.
+     * @param shardCount the number of shards, at least 1.
+     * @return the plan.
+     * @throws IllegalArgumentException if shardCount is less than 1.
+     */
+    public static ShardPlan balance(Map<String, Long> durations, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be at least 1, was " + shardCount);
+        }
+        List<Map.Entry<String, Long>> tests = new ArrayList<>(durations.entrySet());
+        tests.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        long[] plannedMillis = new long[shardCount];
+        Map<String, Integer> assignments = new HashMap<>();
+        for (Map.Entry<String, Long> test : tests) {
+            int lightest = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (plannedMillis[shard] < plannedMillis[lightest]) {
+                    lightest = shard;
+                }
+            }
+            assignments.put(test.getKey(), lightest);
+            plannedMillis[lightest] += test.getValue();
+        }
+        return new ShardPlan(shardCount, assignments, plannedMillis);
+    }
+
+    /**
+     * Returns the shard a test runs in.
+     *
+     * @param testKey the test key.
+     * @return the shard index, from 0 to getShardCount() - 1.
+     */
+    public int shardOf(String testKey) {
+        Integer shard = assignments.get(testKey);
+        // String.hashCode is specified, so every JVM places an unknown test in the same shard.
+        return shard != null ? shard : Math.floorMod(testKey.hashCode(), shardCount);
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the shard count.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Returns the total known duration of the tests placed in a shard.
+     *
+     * @param shard the shard index.
+     * @return the planned duration in milliseconds, not counting tests without a known duration.
+     */
+    public long getPlannedMillis(int shard) {
+        return plannedMillis[shard];
+    }
+}
@@ -0,0 +1,95 @@
+package utilities;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionConfigurationException;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The ShardingExtension class runs only this JVM's share of the tests when the suite is
+ * split into shards, for example across CI machines or several Maven runs on one host:
+ * mvn test -Dshard.index=0 -Dshard.count=4
+ *
+ * The shard is picked with the "shard.index" (from 0) and "shard.count" system
+ * properties; without them every test runs. Test methods and single parameterized rows,
+ * such as the testFillForm rows from people.xml, are placed one by one, by a ShardPlan
+ * built from the durations in TestTimingStore, so all shards finish at about the same
+ * time. Test classes run in every shard, with only the tests placed in it. The plan is
+ * built from the history as it stood before any shard ran: a sharded run saves its own
+ * timings next to the history instead of into it, so a shard that starts after another
+ * has finished still builds the same plan.
+ *
+ * Tests placed in another shard are skipped before their method parameters are resolved,
+ * so one that takes its WebDriver as a method parameter, as StoreTest does, leases no
+ * browser here. A WebDriver injected into a test's constructor is leased when JUnit builds
+ * the instance, before this condition runs; TestLifecycleExtension then hands it back
+ * without resetting it.
+ *
+ * It is registered for every test class through JUnit's extension auto-detection.
+ */
+public class ShardingExtension implements ExecutionCondition {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardingExtension.class);
+    private static final int SHARD_COUNT = Integer.getInteger("shard.count", 1);
+    private static final int SHARD_INDEX = Integer.getInteger("shard.index", 0);
+    private static final Set<String> TEST_SEGMENTS = Set.of("method", "test-template-invocation");
+    // The type of the last "/[type:value]" segment; values may hold brackets, as in "m([Ljava.lang.String;)".
+    private static final Pattern LAST_SEGMENT = Pattern.compile("^.*/\\[([\\w-]+):");
+
+    /**
+     * Decides whether a test runs in this shard.
+     *
+     * @param context the context of the test class, test or parameterized row.
+     * @return enabled for containers and for tests placed in this shard, disabled otherwise.
+     * @throws ExtensionConfigurationException if the shard index is out of range.
+     */
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (SHARD_COUNT <= 1) {
+            return ConditionEvaluationResult.enabled("Sharding is off");
+        }
+        if (SHARD_INDEX < 0 || SHARD_INDEX >= SHARD_COUNT) {
+            throw new ExtensionConfigurationException("shard.index must be from 0 to " + (SHARD_COUNT - 1)
+                    + ", was " + SHARD_INDEX);
+        }
+        if (!isTest(context.getUniqueId())) {
+            return ConditionEvaluationResult.enabled("Containers run in every shard");
+        }
+        int shard = Plan.INSTANCE.shardOf(TestTimingStore.keyOf(context));
+        return shard == SHARD_INDEX
+                ? ConditionEvaluationResult.enabled("Placed in shard " + shard + " of " + SHARD_COUNT)
+                : ConditionEvaluationResult.disabled("Placed in shard " + shard + " of " + SHARD_COUNT);
+    }
+
+    /**
+     * Returns whether a unique ID names a test that is placed in a shard: a test method or a
+     * single parameterized row, rather than a container such as a class.
+     *
+     * @param uniqueId the JUnit unique ID.
+     * @return true for test methods and parameterized rows.
+     */
+    public static boolean isTest(String uniqueId) {
+        Matcher segment = LAST_SEGMENT.matcher(uniqueId);
+        return segment.find() && TEST_SEGMENTS.contains(segment.group(1));
+    }
+
+    /**
+     * Builds the plan once per JVM, on first use.
+     */
+    private static final class Plan {
+        private static final ShardPlan INSTANCE = create();
+
+        private static ShardPlan create() {
+            ShardPlan plan = ShardPlan.balance(TestTimingStore.shared().getDurations(), SHARD_COUNT);
+            LOGGER.info("Running shard {} of {}: {} ms of tests with a known duration", SHARD_INDEX, SHARD_COUNT,
+                    plan.getPlannedMillis(SHARD_INDEX));
+            return plan;
+        }
+    }
+}
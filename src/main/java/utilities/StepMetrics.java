@@ -0,0 +1,263 @@
+package utilities;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The StepMetrics class times page-object actions and keeps a latency histogram per
+ * action and per action and test, with the count, total and maximum per parameter row.
+ *
+ * Page objects wrap each public action in time(...). The test and row a step belongs to
+ * come from the running thread, where StepMetricsExtension registers them before each
+ * test. At the end of the run the extension writes the p50, p95 and p99 of every series
+ * to a JSON and a CSV report, which nightly runs can compare for regressions. Every step
+ * is also recorded in the RunJournal.
+ *
+ * A row records each action only a few times, too few for percentiles, and a data file
+ * can have hundreds of thousands of rows. So rows get no histogram: their totals are kept
+ * on the running thread and appended to the row report when the row ends, if one was
+ * started, and dropped otherwise. Memory therefore grows with the number of actions and
+ * tests, not rows.
+ */
+public final class StepMetrics {
+
+    /** Test name used for steps that run outside of any test. */
+    public static final String NO_TEST = "-";
+
+    private static final Map<Key, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<CurrentTest> CURRENT_TEST = new ThreadLocal<>();
+    private static Writer rowReport;
+
+    private StepMetrics() {
+    }
+
+    /**
+     * Times an action that returns a value.
+     *
+     * @param step the action name, such as "StoreHomePage.goToCart".
+     * @param action the action to run.
+     * @param <T> the action's result type.
+     * @return the action's result.
+     */
+    public static <T> T time(String step, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            record(step, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Times an action without a result.
+     *
+     * @param step the action name, such as "ProductPage.addToCart".
+     * @param action the action to run.
+     */
+    public static void time(String step, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            record(step, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records a duration measured elsewhere.
+     *
+     * @param step the action name.
+     * @param nanos the duration in nanoseconds.
+     */
+    public static void record(String step, long nanos) {
+        CurrentTest test = CURRENT_TEST.get();
+        String testName = test == null ? NO_TEST : test.name();
+        String row = test == null ? "" : test.row();
+        histogram(new Key(step, "*", "")).recordNanos(nanos);
+        histogram(new Key(step, testName, "*")).recordNanos(nanos);
+        if (!row.isEmpty()) {
+            long[] totals = test.rowTotals().computeIfAbsent(step, key -> new long[3]);
+            totals[0]++;
+            totals[1] += nanos;
+            totals[2] = Math.max(totals[2], nanos);
+        }
+        RunJournal.record(RunEvent.Type.STEP, testName, row, step, nanos, null);
+    }
+
+    /**
+     * Tags the steps run by the current thread with a test and parameter row.
+     *
+     * @param test the test name, such as "StoreTest.testFillForm".
+     * @param row the parameter row, such as "#2", or an empty string for plain tests.
+     */
+    public static void startTest(String test, String row) {
+        CURRENT_TEST.set(new CurrentTest(test, row, new TreeMap<>()));
+    }
+
+    /**
+     * Removes the test tag from the current thread, appending the totals of its row to the
+     * row report.
+     *
+     * @throws UncheckedIOException if the row report cannot be written.
+     */
+    public static void endTest() {
+        CurrentTest test = CURRENT_TEST.get();
+        CURRENT_TEST.remove();
+        if (test == null || test.rowTotals().isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : test.rowTotals().entrySet()) {
+            long[] totals = entry.getValue();
+            lines.append(csvField(entry.getKey())).append(',').append(csvField(test.name())).append(',')
+                    .append(csvField(test.row())).append(String.format(Locale.ROOT, ",%d,%.3f,%.3f\n", totals[0],
+                            totals[1] / 1e6, totals[2] / 1e6));
+        }
+        synchronized (StepMetrics.class) {
+            if (rowReport != null) {
+                try {
+                    rowReport.write(lines.toString());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not write the step row report", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts appending the totals of every row that ends from now on to a CSV file, until
+     * finishRowReport() is called. A row report that is already open is kept.
+     *
+     * @param file the report file.
+     * @throws IOException if the report cannot be created.
+     */
+    public static synchronized void startRowReport(Path file) throws IOException {
+        if (rowReport == null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            rowReport = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            rowReport.write("step,test,row,count,total_ms,max_ms\n");
+        }
+    }
+
+    /**
+     * Closes the row report, if one was started.
+     *
+     * @throws IOException if the report cannot be written.
+     */
+    public static synchronized void finishRowReport() throws IOException {
+        if (rowReport != null) {
+            try {
+                rowReport.close();
+            } finally {
+                rowReport = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the histogram of one series, or null if it has no samples. Parameter rows
+     * have no histogram of their own.
+     *
+     * @param step the action name.
+     * @param test the test name, or "*" for all tests.
+     * @param row "*" for all rows of a test, or "" together with test "*".
+     * @return the histogram, or null.
+     */
+    public static LatencyHistogram get(String step, String test, String row) {
+        return HISTOGRAMS.get(new Key(step, test, row));
+    }
+
+    /**
+     * Writes every series to "step-latency.json" and "step-latency.csv" in a directory.
+     *
+     * @param directory the directory to write the reports to.
+     * @throws IOException if the reports cannot be written.
+     */
+    public static void writeReport(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Map<Key, LatencyHistogram> sorted = new TreeMap<>(HISTOGRAMS);
+        try (Writer json = Files.newBufferedWriter(directory.resolve("step-latency.json"), StandardCharsets.UTF_8);
+             Writer csv = Files.newBufferedWriter(directory.resolve("step-latency.csv"), StandardCharsets.UTF_8)) {
+            csv.write("step,test,row,count,mean_ms,p50_ms,p95_ms,p99_ms,max_ms\n");
+            json.write("[\n");
+            boolean first = true;
+            for (Map.Entry<Key, LatencyHistogram> entry : sorted.entrySet()) {
+                Key key = entry.getKey();
+                LatencyHistogram histogram = entry.getValue();
+                String numbers = String.format(Locale.ROOT, "%d,%.3f,%.3f,%.3f,%.3f,%.3f", histogram.getCount(),
+                        histogram.getMeanMillis(), histogram.getPercentileMillis(50),
+                        histogram.getPercentileMillis(95), histogram.getPercentileMillis(99),
+                        histogram.getMaxMillis());
+                csv.write(csvField(key.step()) + "," + csvField(key.test()) + "," + csvField(key.row()) + ","
+                        + numbers + "\n");
+                String[] values = numbers.split(",");
+                json.write((first ? "" : ",\n") + "  {\"step\": " + jsonString(key.step())
+                        + ", \"test\": " + jsonString(key.test()) + ", \"row\": " + jsonString(key.row())
+                        + ", \"count\": " + values[0] + ", \"mean_ms\": " + values[1] + ", \"p50_ms\": " + values[2]
+                        + ", \"p95_ms\": " + values[3] + ", \"p99_ms\": " + values[4]
+                        + ", \"max_ms\": " + values[5] + "}");
+                first = false;
+            }
+            json.write("\n]\n");
+        }
+    }
+
+    /**
+     * Drops every recorded sample.
+     */
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    private static LatencyHistogram histogram(Key key) {
+        return HISTOGRAMS.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    static String jsonString(String value) {
+        StringBuilder out = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private static String csvField(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * The test and row the current thread runs, with the totals of each action in the row.
+     */
+    private record CurrentTest(String name, String row, Map<String, long[]> rowTotals) {
+    }
+
+    private record Key(String step, String test, String row) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int result = step.compareTo(other.step);
+            if (result == 0) {
+                result = test.compareTo(other.test);
+            }
+            return result == 0 ? row.compareTo(other.row) : result;
+        }
+    }
+}
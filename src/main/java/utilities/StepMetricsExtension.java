@@ -0,0 +1,111 @@
+package utilities;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The StepMetricsExtension class tags the page-object steps timed by StepMetrics with the
+ * test and parameter row they ran in, and writes the latency report when the run ends.
+ *
+ * The report goes to the directory named by the "step.metrics.dir" system property,
+ * "target/step-metrics" by default. The totals of each parameter row are appended to
+ * "step-latency-rows.csv" there as the row ends, so they are not held in memory.
+ */
+public class StepMetricsExtension implements BeforeAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final Path REPORT_DIR = Paths.get(System.getProperty("step.metrics.dir", "target/step-metrics"));
+    private static final Pattern INVOCATION = Pattern.compile("\\[test-template-invocation:(#\\d+)]");
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(StepMetricsExtension.class);
+
+    /**
+     * Callback executed before all tests in the test class.
+     *
+     * This method starts the row report and registers the report writer with the root
+     * context, once per run.
+     *
+     * @param context the context of the test class.
+     */
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(ReportWriter.class,
+                key -> new ReportWriter(), ReportWriter.class);
+    }
+
+    /**
+     * Callback executed before each test.
+     *
+     * This method tags the current thread with the test name and parameter row.
+     *
+     * @param context the context of the test method.
+     */
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        StepMetrics.startTest(testName(context), rowOf(context));
+    }
+
+    /**
+     * Callback executed after each test.
+     *
+     * This method removes the test tag from the current thread.
+     *
+     * @param context the context of the test method.
+     */
+    @Override
+    public void afterEach(ExtensionContext context) {
+        StepMetrics.endTest();
+    }
+
+    /**
+     * Returns the name used to tag a test, in the form "Class.method".
+     *
+     * @param context the context of the test method.
+     * @return the test name.
+     */
+    static String testName(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+    }
+
+    /**
+     * Returns the parameter row of a test invocation, such as "#2".
+     *
+     * @param context the context of the test method.
+     * @return the row, or an empty string for a test that is not parameterized.
+     */
+    static String rowOf(ExtensionContext context) {
+        Matcher matcher = INVOCATION.matcher(context.getUniqueId());
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    /**
+     * Writes the step latency report when JUnit closes the root context.
+     */
+    private static final class ReportWriter implements ExtensionContext.Store.CloseableResource {
+
+        private ReportWriter() {
+            try {
+                StepMetrics.startRowReport(REPORT_DIR.resolve("step-latency-rows.csv"));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start the step row report in " + REPORT_DIR, e);
+            }
+        }
+
+        @Override
+        public void close() throws Throwable {
+            try {
+                StepMetrics.writeReport(REPORT_DIR);
+            } finally {
+                StepMetrics.finishRowReport();
+            }
+        }
+    }
+}
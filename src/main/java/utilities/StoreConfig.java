@@ -0,0 +1,50 @@
+package utilities;
+
+/**
+ * The StoreConfig class holds the address of the store the page objects talk to.
+ *
+ * It defaults to the public store and can be pointed elsewhere with the
+ * "store.base.url" system property, or at runtime when a local stand-in is started.
+ */
+public final class StoreConfig {
+
+    /** Address of the public store, used when nothing else is configured. */
+    public static final String DEFAULT_BASE_URL = "https://atid.store";
+
+    private static volatile String baseUrl = trimSlash(System.getProperty("store.base.url", DEFAULT_BASE_URL));
+
+    private StoreConfig() {
+    }
+
+    /**
+     * Returns the base URL of the store, without a trailing slash.
+     *
+     * @return the store base URL.
+     */
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Points the page objects at another store.
+     *
+     * @param url the new base URL.
+     */
+    public static void setBaseUrl(String url) {
+        baseUrl = trimSlash(url);
+    }
+
+    /**
+     * Builds an absolute URL for a path on the store.
+     *
+     * @param path a path starting with "/".
+     * @return the absolute URL.
+     */
+    public static String url(String path) {
+        return baseUrl + path;
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -1,50 +1,159 @@
 package utilities;
 
 import org.junit.jupiter.api.extension.*;
+import org.junit.platform.commons.support.AnnotationSupport;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Constructor;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
  * The TestLifecycleExtension class implements JUnit 5 callbacks to manage the lifecycle
  * of tests involving Selenium WebDriver.
  *
- * This class is responsible for initializing the WebDriver before all tests and
- * closing it after all tests have been executed. It also facilitates the injection of
- * the WebDriver instance into test methods.
+ * Browser sessions come from shared, bounded BrowserPools. Each test leases its own
+ * session when its WebDriver parameter is resolved and hands it back after it finishes,
+ * so tests can run in parallel without sharing a browser. The pools are closed, quitting
+ * every session, once the whole test run has finished.
+ *
+ * The pool size is read from the "browser.pool.size" system property and defaults to
+ * the number of available processors. Sessions are launched with the ChromeProfile
+ * named by the "chrome.profile" system property.
+ *
+ * There is one pool per BrowserBackend. A test class runs on the backend named by its
+ * UseBackend annotation, or by a tag such as @Tag("htmlunit"), and otherwise on the
+ * backend given by the "browser.backend" system property, Chrome by default.
+ *
+ * With the "browser.pool.prewarm" system property set to a number of sessions, the pool
+ * of the default backend starts launching that many browsers in the background as soon
+ * as this extension is loaded, so browser startup overlaps with test setup and data
+ * loading, and the first tests receive sessions that are already running. The pool logs
+ * how much launch time this hid when the run ends. Every test class registers that pool
+ * to be closed with the run, whatever its own backend, so a run of HtmlUnit classes
+ * alone does not leave the pre-warmed browsers behind; a pool that no class got to
+ * register is closed when the JVM shuts down.
+ *
+ * Because sessions are reused, every test starts by resetting its session's cookies,
+ * web storage and cart, which keeps tests independent of the order they run in. Tests
+ * that take the WebDriver as a method parameter lease their session only once JUnit has
+ * decided to run them; a test skipped by an ExecutionCondition, such as ShardingExtension,
+ * leases nothing. A session injected into the test's constructor is leased when JUnit
+ * builds the instance, before those conditions run, so its reset waits until the test
+ * is about to run and a skipped test hands the session back untouched. A
+ * session that fails its reset, or whose test failed with a WebDriverException, such as
+ * a NoSuchSessionException after its driver died, is quit instead of going back to the
+ * pool, so one crashed browser does not fail every test that leases it later.
+ *
+ * With the "store.local" system property set to true, the extension also starts a
+ * LocalStoreServer for the run and points the page objects at it, so tests need no
+ * network access.
+ *
+ * Every session counts the WebDriver commands it sends through a CommandCounter, which
+ * CommandBudget annotations check against per-test limits.
  */
-public class TestLifecycleExtension implements BeforeAllCallback, AfterAllCallback, ParameterResolver {
+public class TestLifecycleExtension implements BeforeAllCallback, BeforeTestExecutionCallback, AfterEachCallback,
+        TestInstancePreDestroyCallback, ParameterResolver {
 
-    private static WebDriver driver;
-    ChromeDriverFactory chromeDriverFactory = new ChromeDriverFactory(driver);
+    private static final int POOL_SIZE = Integer.getInteger("browser.pool.size",
+            Runtime.getRuntime().availableProcessors());
+    private static final long LEASE_TIMEOUT_MILLIS = Long.getLong("browser.pool.lease.timeout", 300_000L);
+    private static final int PREWARM = Integer.getInteger("browser.pool.prewarm", 0);
+    private static final boolean LOCAL_STORE = Boolean.getBoolean("store.local");
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(TestLifecycleExtension.class);
+
+    private static final ThreadLocal<Lease> LEASED = new ThreadLocal<>();
+    private static final Map<BrowserBackend, BrowserPool> POOLS = new EnumMap<>(BrowserBackend.class);
+
+    static {
+        // Launch browsers while JUnit is still setting up and tests are loading their data.
+        if (PREWARM > 0) {
+            BrowserPool prewarmed = pool(BrowserBackend.fromSystemProperties());
+            prewarmed.prewarm(PREWARM);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (!prewarmed.isClosed()) {
+                    prewarmed.close();
+                }
+            }, "browser-pool-prewarm-close"));
+        }
+    }
 
     /**
      * Callback executed before all tests in the test class.
      *
-     * This method initializes the WebDriver, maximizes the browser window,
-     * and sets an implicit wait time for elements to be found.
+     * This method makes sure the browser pool of the class's backend exists, and the local store when
+     * one is requested, and registers them with the root context so JUnit closes them
+     * when the whole run is over. The pre-warmed pool is registered too, even when the
+     * class runs on another backend.
      *
      * @param context the context of the test class.
-     * @throws Exception if an error occurs during WebDriver initialization.
+     * @throws Exception if an error occurs while creating the pool or starting the store.
      */
     @Override
     public void beforeAll(ExtensionContext context) throws Exception {
-        driver = chromeDriverFactory.openBrowser();  // Initialize the WebDriver
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(5, TimeUnit.SECONDS);
+        ExtensionContext.Store rootStore = context.getRoot().getStore(NAMESPACE);
+        if (LOCAL_STORE) {
+            rootStore.getOrComputeIfAbsent(LocalStoreServer.class, key -> startLocalStore(), LocalStoreServer.class);
+        }
+        BrowserBackend backend = backendOf(context);
+        rootStore.getOrComputeIfAbsent(backend, key -> pool(backend), BrowserPool.class);
+        if (PREWARM > 0) {
+            BrowserBackend prewarmed = BrowserBackend.fromSystemProperties();
+            rootStore.getOrComputeIfAbsent(prewarmed, key -> pool(prewarmed), BrowserPool.class);
+        }
     }
 
     /**
-     * Callback executed after all tests in the test class.
+     * Callback executed right before each test runs, once every ExecutionCondition has let it.
      *
-     * This method closes the WebDriver instance, cleaning up resources used during the tests.
+     * This method resets the session leased for the test's constructor. A session that fails
+     * its reset fails the test and is quit in afterEach.
      *
-     * @param context the context of the test class.
-     * @throws Exception if an error occurs during WebDriver closure.
+     * @param context the context of the test method.
+     * @throws Exception if the session cannot be reset.
+     */
+    @Override
+    public void beforeTestExecution(ExtensionContext context) throws Exception {
+        Lease lease = LEASED.get();
+        if (lease != null && !lease.reset()) {
+            BrowserStateReset.reset(lease.driver());
+            LEASED.set(new Lease(lease.driver(), lease.pool(), true));
+        }
+    }
+
+    /**
+     * Callback executed after each test.
+     *
+     * This method returns the session leased by the test to the pool, or quits it if the
+     * test failed with a WebDriverException.
+     *
+     * @param context the context of the test method.
+     * @throws Exception if an error occurs while releasing the session.
      */
     @Override
-    public void afterAll(ExtensionContext context) throws Exception {
-        chromeDriverFactory.closeBrowser(driver);
+    public void afterEach(ExtensionContext context) throws Exception {
+        releaseLease(context);
+    }
+
+    /**
+     * Callback executed when the test instance is discarded.
+     *
+     * JUnit creates the test instance, leasing the session of a constructor parameter,
+     * before it decides whether to skip the test, for example when ShardingExtension places
+     * it in another shard. This method returns such a session, which was never reset or
+     * used, to the pool; for tests that ran, afterEach already has.
+     *
+     * @param context the context of the test method.
+     */
+    @Override
+    public void preDestroyTestInstance(ExtensionContext context) {
+        releaseLease(context);
     }
 
     /**
@@ -63,6 +172,15 @@ public class TestLifecycleExtension implements BeforeAllCallback, AfterAllCallba
     /**
      * Resolves the parameter to be injected into the test method.
      *
+     * The first resolution on a test's thread leases a session from the pool of the
+     * test class's backend. Later resolutions for the same test (for example a constructor
+     * and a method parameter) receive that same session. A method parameter is resolved
+     * after beforeTestExecution, so its session is reset here, clearing the state left by
+     * whichever test used it before without relaunching the browser; a session whose reset
+     * fails is quit and replaced by a fresh one. A constructor parameter is resolved before
+     * JUnit decides whether to run the test at all, so its reset is left to
+     * beforeTestExecution.
+     *
      * @param pContext the context of the parameter being resolved.
      * @param eContext the context of the test execution.
      * @return the WebDriver instance to be injected.
@@ -70,6 +188,136 @@ public class TestLifecycleExtension implements BeforeAllCallback, AfterAllCallba
      */
     @Override
     public Object resolveParameter(ParameterContext pContext, ExtensionContext eContext) {
-        return driver;  // Provide the WebDriver instance
+        Lease lease = LEASED.get();
+        if (lease == null) {
+            BrowserBackend backend = backendOf(eContext);
+            BrowserPool pool = pool(backend);
+            lease = pContext.getDeclaringExecutable() instanceof Constructor
+                    ? new Lease(lease(backend, pool), pool, false)
+                    : leaseReset(backend, pool);
+            LEASED.set(lease);
+        }
+        return lease.driver();
+    }
+
+    /**
+     * Returns the session leased by the test running on the current thread.
+     *
+     * @return the leased WebDriver instance, or null if the test has not leased one.
+     */
+    static WebDriver leasedDriver() {
+        Lease lease = LEASED.get();
+        return lease == null ? null : lease.driver();
+    }
+
+    /**
+     * Returns the backend the tests of a class run on.
+     *
+     * @param context the context of the test class or one of its tests.
+     * @return the class's UseBackend, else the backend named by one of its tags, else the default.
+     */
+    static BrowserBackend backendOf(ExtensionContext context) {
+        Optional<UseBackend> annotation = context.getTestClass()
+                .flatMap(testClass -> AnnotationSupport.findAnnotation(testClass, UseBackend.class));
+        if (annotation.isPresent()) {
+            return annotation.get().value();
+        }
+        for (BrowserBackend backend : BrowserBackend.values()) {
+            if (context.getTags().contains(backend.getTag())) {
+                return backend;
+            }
+        }
+        return BrowserBackend.fromSystemProperties();
+    }
+
+    /**
+     * Returns the shared browser pool of a backend, creating it on first use.
+     *
+     * @param backend the browser backend.
+     * @return the browser pool of that backend.
+     */
+    static synchronized BrowserPool pool(BrowserBackend backend) {
+        BrowserPool pool = POOLS.get(backend);
+        if (pool == null || pool.isClosed()) {
+            pool = new BrowserPool(backend.newFactory(), TestLifecycleExtension::configureSession,
+                    POOL_SIZE, LEASE_TIMEOUT_MILLIS);
+            POOLS.put(backend, pool);
+        }
+        return pool;
+    }
+
+    private static WebDriver lease(BrowserBackend backend, BrowserPool pool) {
+        try {
+            return pool.lease();
+        } catch (IllegalStateException e) {
+            throw new ParameterResolutionException("Could not lease a " + backend.getTag() + " session", e);
+        }
+    }
+
+    // Tries a second session when the first fails its reset, which usually means its browser is gone.
+    private static Lease leaseReset(BrowserBackend backend, BrowserPool pool) {
+        WebDriverException resetFailure = null;
+        for (int attempt = 0; attempt < 2; attempt++) {
+            WebDriver driver = lease(backend, pool);
+            try {
+                BrowserStateReset.reset(driver);
+                return new Lease(driver, pool, true);
+            } catch (WebDriverException e) {
+                pool.discard(driver);
+                resetFailure = e;
+            }
+        }
+        throw new ParameterResolutionException("Could not reset a " + backend.getTag() + " session", resetFailure);
+    }
+
+    private static void releaseLease(ExtensionContext context) {
+        Lease lease = LEASED.get();
+        if (lease != null) {
+            LEASED.remove();
+            if (context.getExecutionException().filter(TestLifecycleExtension::isSessionFailure).isPresent()) {
+                lease.pool().discard(lease.driver());
+            } else {
+                lease.pool().release(lease.driver());
+            }
+        }
+    }
+
+    /**
+     * Returns whether a test failure may have left its session unusable.
+     *
+     * @param failure the exception the test failed with.
+     * @return true if the failure is, or is caused by, a WebDriverException.
+     */
+    static boolean isSessionFailure(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebDriverException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static LocalStoreServer startLocalStore() {
+        try {
+            LocalStoreServer server = LocalStoreServer.start();
+            StoreConfig.setBaseUrl(server.getBaseUrl());
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the local store", e);
+        }
+    }
+
+    private static void configureSession(WebDriver driver) {
+        CommandCounter.install(driver);
+        // Page objects wait explicitly through PageWait, so lookups that find nothing return at once.
+        driver.manage().timeouts().implicitlyWait(0, TimeUnit.SECONDS);
+        driver.manage().timeouts().setScriptTimeout(PageWait.DEFAULT_TIMEOUT_MILLIS + 5_000L,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A session leased by a test, with the pool it goes back to and whether it was reset.
+     */
+    private record Lease(WebDriver driver, BrowserPool pool, boolean reset) {
     }
 }
@@ -0,0 +1,287 @@
+package utilities;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The TestTimingStore class remembers how long each test and each parameterized row took
+ * in earlier runs, and when it last failed, so the suite can be split into shards of
+ * equal duration and ordered to report failures early.
+ *
+ * The history is kept in a tab-separated file named by the "test.timings.file" system
+ * property, "test-timings.tsv" by default, keyed by each test's JUnit unique ID. A new
+ * duration is averaged with the stored one, so a single slow run does not reshuffle the
+ * shards. The file is rewritten when the run ends, merging in what other JVMs saved in
+ * the meantime, so parallel runs on one machine can share it.
+ *
+ * Shards only agree on how the tests are split when they read the same history, so a
+ * sharded run ("shard.count" above 1) treats the file as read-only and saves its outcomes
+ * to its own file next to it, such as "test-timings.tsv.shard-2". Once every shard has
+ * finished, mergeShards() folds those files into the history, for example with:
+ * java -cp target/classes:... utilities.TestTimingStore test-timings.tsv
+ */
+public final class TestTimingStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestTimingStore.class);
+    private static final String SHARD_SUFFIX = ".shard-";
+    private static final TestTimingStore SHARED = create();
+
+    private final Path file;
+    private final Path output;
+    private final Map<String, Timing> history;
+    private final Map<String, Timing> measured = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a store backed by a file, reading the history it already holds.
+     *
+     * @param file the timings file, which need not exist yet.
+     */
+    public TestTimingStore(Path file) {
+        this(file, file);
+    }
+
+    /**
+     * Creates a store that reads its history from one file and saves new outcomes to another.
+     *
+     * @param file the timings file the history is read from, which need not exist yet.
+     * @param output the file this run's outcomes are merged into by save().
+     */
+    public TestTimingStore(Path file, Path output) {
+        this.file = file;
+        this.output = output;
+        this.history = Collections.unmodifiableMap(read(file));
+    }
+
+    private static TestTimingStore create() {
+        Path file = Paths.get(System.getProperty("test.timings.file", "test-timings.tsv"));
+        if (Integer.getInteger("shard.count", 1) <= 1) {
+            return new TestTimingStore(file);
+        }
+        return new TestTimingStore(file, shardOutput(file, Integer.getInteger("shard.index", 0)));
+    }
+
+    /**
+     * Merges the shard outputs of a timings file into it, then deletes them.
+     *
+     * @param args the timings file; "test-timings.tsv" if none is given.
+     */
+    public static void main(String[] args) {
+        mergeShards(Paths.get(args.length > 0 ? args[0] : "test-timings.tsv"));
+    }
+
+    /**
+     * Returns the store shared by the whole run.
+     *
+     * @return the store backed by the configured timings file.
+     */
+    public static TestTimingStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the key a test's history is stored under.
+     *
+     * @param context the context of the test method or parameterized row.
+     * @return the test's unique ID.
+     */
+    public static String keyOf(ExtensionContext context) {
+        return context.getUniqueId();
+    }
+
+    /**
+     * Returns the history recorded by earlier runs, as read when the store was created.
+     *
+     * @return the timing of each test by test key, sorted by key.
+     */
+    public Map<String, Timing> getHistory() {
+        return history;
+    }
+
+    /**
+     * Returns the durations recorded by earlier runs.
+     *
+     * @return the duration in milliseconds of each test by test key.
+     */
+    public Map<String, Long> getDurations() {
+        return history.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().millis()));
+    }
+
+    /**
+     * Records the outcome of a test in this run.
+     *
+     * @param key the test key, as returned by keyOf.
+     * @param millis how long the test took in milliseconds.
+     * @param failed whether the test failed.
+     */
+    public void record(String key, long millis, boolean failed) {
+        measured.put(key, new Timing(millis, failed ? 1 : 0, failed ? 0 : Timing.NEVER_FAILED));
+    }
+
+    /**
+     * Merges the outcomes recorded in this run into the output file and clears them.
+     *
+     * @throws UncheckedIOException if the file cannot be written.
+     */
+    public synchronized void save() {
+        if (measured.isEmpty()) {
+            return;
+        }
+        mergeInto(output, measured);
+        LOGGER.info("Saved {} test timings to {}", measured.size(), output);
+        measured.clear();
+    }
+
+    /**
+     * Returns the file a shard saves its outcomes to.
+     *
+     * @param file the timings file the shards read.
+     * @param index the shard index, from 0.
+     * @return the shard's output file, next to the timings file.
+     */
+    public static Path shardOutput(Path file, int index) {
+        return file.resolveSibling(file.getFileName() + SHARD_SUFFIX + index);
+    }
+
+    /**
+     * Merges the outcomes every shard saved next to a timings file into it, in shard order,
+     * and deletes the shard files.
+     *
+     * @param file the timings file.
+     * @return the number of shard files merged.
+     * @throws UncheckedIOException if a file cannot be read, written or deleted.
+     */
+    public static int mergeShards(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        Pattern shardName = Pattern.compile(Pattern.quote(file.getFileName() + SHARD_SUFFIX) + "\\d+");
+        List<Path> shards;
+        try (Stream<Path> files = Files.list(directory)) {
+            shards = files.filter(path -> shardName.matcher(path.getFileName().toString()).matches()).sorted()
+                    .collect(Collectors.toList());
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list the shard timings of " + file, e);
+        }
+        for (Path shard : shards) {
+            mergeInto(file, read(shard));
+            try {
+                Files.delete(shard);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete " + shard, e);
+            }
+            LOGGER.info("Merged {} into {}", shard, file);
+        }
+        return shards.size();
+    }
+
+    private static void mergeInto(Path target, Map<String, Timing> outcomes) {
+        try {
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path lockFile = directory.resolve(target.getFileName() + ".lock");
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                Map<String, Timing> merged = read(target);
+                outcomes.forEach((key, timing) -> merged.merge(key, timing, Timing::then));
+                Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writer.write("# millis\tfailures\truns since last failure\ttest\n");
+                    for (Map.Entry<String, Timing> entry : merged.entrySet()) {
+                        Timing timing = entry.getValue();
+                        writer.write(timing.millis() + "\t" + timing.failures() + "\t" + timing.runsSinceFailure()
+                                + "\t" + entry.getKey() + "\n");
+                    }
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save test timings to " + target, e);
+        }
+    }
+
+    private static Map<String, Timing> read(Path file) {
+        Map<String, Timing> timings = new TreeMap<>();
+        if (!Files.isRegularFile(file)) {
+            return timings;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", 4);
+                if (line.startsWith("#") || fields.length < 2) {
+                    continue;
+                }
+                try {
+                    // Files written before failures were tracked hold only the duration and the key.
+                    timings.put(fields[fields.length - 1], fields.length == 4
+                            ? new Timing(Long.parseLong(fields[0]), Integer.parseInt(fields[1]),
+                                    Integer.parseInt(fields[2]))
+                            : new Timing(Long.parseLong(fields[0]), 0, Timing.NEVER_FAILED));
+                } catch (NumberFormatException e) {
+                    LOGGER.warn("Ignoring malformed line in {}: {}", file, line);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unreadable {}: {}", file, e.getMessage());
+            timings.clear();
+        }
+        return timings;
+    }
+
+    /**
+     * The TestTimingStore.Timing record holds the history of one test.
+     *
+     * @param millis the average duration in milliseconds.
+     * @param failures the number of runs the test failed in.
+     * @param runsSinceFailure the number of passing runs since the last failure, 0 if the
+     *                         last run failed, or NEVER_FAILED.
+     */
+    public record Timing(long millis, int failures, int runsSinceFailure) {
+
+        /** The runsSinceFailure of a test that never failed. */
+        public static final int NEVER_FAILED = -1;
+
+        /**
+         * Returns whether the test failed in one of the last few runs.
+         *
+         * @param runs how many of the latest runs count, at least 1.
+         * @return true if the test failed in one of those runs.
+         */
+        public boolean failedWithin(int runs) {
+            return runsSinceFailure != NEVER_FAILED && runsSinceFailure < runs;
+        }
+
+        private Timing then(Timing latest) {
+            int since;
+            if (latest.runsSinceFailure() == 0) {
+                since = 0;
+            } else {
+                since = runsSinceFailure == NEVER_FAILED ? NEVER_FAILED : runsSinceFailure + 1;
+            }
+            return new Timing((millis + latest.millis()) / 2, failures + latest.failures(), since);
+        }
+    }
+}
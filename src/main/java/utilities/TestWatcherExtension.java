@@ -1,7 +1,13 @@
 package utilities;
 
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.TestWatcher;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Optional;
 
@@ -9,9 +15,71 @@ import java.util.Optional;
  * The TestWatcherExtension class implements the TestWatcher interface from JUnit 5.
  *
  * This class provides callbacks for monitoring the status of tests during execution.
- * It defines actions to be taken when a test is successful, failed, aborted, or disabled.
+ * It records in the RunJournal when each test starts and how it ends: successful, failed,
+ * aborted or disabled. Failures are also logged.
+ *
+ * It also times every test that passes or fails and records the duration and outcome in
+ * the shared TestTimingStore, which saves them to the timings file when the run ends.
+ *
+ * When a test body fails, the screenshot, page source and console log of its browser are
+ * saved by the FailureArtifactCollector. They are fetched right after the body, while the
+ * test still holds its session; by the time testFailed is called the session is back in
+ * the pool. The files are written in the background and flushed after each test class.
  */
-public class TestWatcherExtension implements TestWatcher {
+public class TestWatcherExtension implements TestWatcher, BeforeTestExecutionCallback, AfterTestExecutionCallback,
+        AfterAllCallback {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestWatcherExtension.class);
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(TestWatcherExtension.class);
+
+    /**
+     * Callback executed right before the test body.
+     *
+     * This method records that the test started and notes the time.
+     *
+     * @param context the context of the test method.
+     */
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        RunJournal.record(RunEvent.Type.TEST_STARTED, StepMetricsExtension.testName(context),
+                StepMetricsExtension.rowOf(context), null, 0, null);
+        context.getStore(NAMESPACE).put("start", System.nanoTime());
+    }
+
+    /**
+     * Callback executed right after the test body.
+     *
+     * This method notes how long the test took and, if it failed, captures the failure
+     * artifacts of its browser.
+     *
+     * @param context the context of the test method.
+     */
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        Long start = context.getStore(NAMESPACE).remove("start", Long.class);
+        if (start != null) {
+            context.getStore(NAMESPACE).put("nanos", System.nanoTime() - start);
+        }
+        WebDriver driver = TestLifecycleExtension.leasedDriver();
+        Optional<Throwable> failure = context.getExecutionException();
+        if (driver != null && failure.isPresent()) {
+            String name = StepMetricsExtension.testName(context) + StepMetricsExtension.rowOf(context);
+            FailureArtifactCollector.shared().capture(name, driver, failure.get());
+        }
+    }
+
+    /**
+     * Callback executed after all tests in the test class.
+     *
+     * This method waits until the failure artifacts of the class's tests are written.
+     *
+     * @param context the context of the test class.
+     */
+    @Override
+    public void afterAll(ExtensionContext context) {
+        FailureArtifactCollector.shared().flush();
+    }
 
     /**
      * Callback executed when a test is successful.
@@ -20,7 +88,7 @@ public class TestWatcherExtension implements TestWatcher {
      */
     @Override
     public void testSuccessful(ExtensionContext context) {
-        System.out.println("Test " + context.getDisplayName() + " was successful!");
+        recordOutcome(context, journalFinished(context, "passed"), false);
     }
 
     /**
@@ -31,7 +99,8 @@ public class TestWatcherExtension implements TestWatcher {
      */
     @Override
     public void testFailed(ExtensionContext context, Throwable cause) {
-        System.out.println("Test " + context.getDisplayName() + " failed with exception: " + cause.getMessage());
+        LOGGER.warn("Test {} failed: {}", context.getDisplayName(), cause.toString());
+        recordOutcome(context, journalFinished(context, "failed: " + cause), true);
     }
 
     /**
@@ -42,7 +111,7 @@ public class TestWatcherExtension implements TestWatcher {
      */
     @Override
     public void testAborted(ExtensionContext context, Throwable cause) {
-        System.out.println("Test " + context.getDisplayName() + " was aborted due to: " + cause.getMessage());
+        journalFinished(context, "aborted: " + cause.getMessage());
     }
 
     /**
@@ -53,7 +122,33 @@ public class TestWatcherExtension implements TestWatcher {
      */
     @Override
     public void testDisabled(ExtensionContext context, Optional<String> reason) {
-        System.out.println("Test " + context.getDisplayName() + " was disabled. Reason: "
-                + reason.orElse("No reason provided"));
+        journalFinished(context, "disabled: " + reason.orElse("No reason provided"));
+    }
+
+    private static Long journalFinished(ExtensionContext context, String outcome) {
+        Long nanos = context.getStore(NAMESPACE).remove("nanos", Long.class);
+        RunJournal.record(RunEvent.Type.TEST_FINISHED, StepMetricsExtension.testName(context),
+                StepMetricsExtension.rowOf(context), null, nanos == null ? 0 : nanos, outcome);
+        return nanos;
+    }
+
+    private static void recordOutcome(ExtensionContext context, Long nanos, boolean failed) {
+        if (nanos == null && !failed) {
+            return;
+        }
+        TestTimingStore timings = TestTimingStore.shared();
+        String key = TestTimingStore.keyOf(context);
+        long millis;
+        if (nanos == null) {
+            // The test failed before its body ran, so keep the duration of earlier runs.
+            TestTimingStore.Timing earlier = timings.getHistory().get(key);
+            millis = earlier == null ? 0L : earlier.millis();
+        } else {
+            millis = nanos / 1_000_000L;
+        }
+        timings.record(key, millis, failed);
+        // Saved once, when JUnit closes the root context at the end of the run.
+        context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(TestTimingStore.class,
+                key -> (ExtensionContext.Store.CloseableResource) timings::save);
     }
 }
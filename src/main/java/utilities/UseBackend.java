@@ -0,0 +1,24 @@
+package utilities;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The UseBackend annotation makes TestLifecycleExtension lease the sessions of a test
+ * class from the given backend, whatever the "browser.backend" system property says.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface UseBackend {
+
+    /**
+     * The backend the class's tests run on.
+     *
+     * @return the browser backend.
+     */
+    BrowserBackend value();
+}
@@ -1,5 +1,7 @@
 package utilities;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -7,17 +9,31 @@ import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The XmlReader class is responsible for reading data from an XML file and converting
  * it into a list of Person objects. It parses the XML file using the DocumentBuilderFactory
  * and DocumentBuilder classes and normalizes the document.
+ *
+ * For large files it also offers a streaming mode built on StAX, which yields Person
+ * objects lazily instead of loading the whole document into memory.
  */
 public class XmlReader {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(XmlReader.class);
+
     /**
      * Reads an XML file and extracts Person data from it.
      *
@@ -26,8 +42,8 @@ public class XmlReader {
      * postcode, city, phone number, and email. These details are used to create new
      * Person objects, which are then added to a list.
      *
-     * If an exception occurs during the XML parsing process, it is caught, and the
-     * stack trace is printed.
+     * If an exception occurs during the XML parsing process, it is caught and logged,
+     * and the people read so far are returned.
      *
      * @param filePath the path to the XML file to be read.
      * @return a list of Person objects extracted from the XML file.
@@ -60,9 +76,49 @@ public class XmlReader {
                 }
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            LOGGER.error("Could not read people from {}", filePath, e);
         }
 
         return people;
     }
+
+    /**
+     * Streams Person data from an XML file without loading the whole document.
+     *
+     * The file is read with a StAX parser as the stream is consumed, so only the record
+     * currently being built is held in memory and the first Person is available as soon
+     * as its element has been parsed. A record with a missing field, or the point where
+     * the XML stops being well-formed, is streamed as an InvalidPerson whose getters throw
+     * a PersonDataException naming the offending record, so one bad record fails only the
+     * row that uses it instead of ending the stream. The file's encoding is read from its
+     * XML declaration.
+     *
+     * The returned stream holds the file open; close it, or consume it through an API
+     * that closes it (such as a JUnit method source), to release the file.
+     *
+     * @param filePath the path to the XML file to be read.
+     * @return a lazy, ordered stream of Person objects.
+     * @throws UncheckedIOException if the file cannot be opened.
+     * @throws PersonDataException if the XML prolog cannot be read.
+     */
+    public Stream<Person> streamXmlPerson(String filePath) {
+        InputStream input;
+        try {
+            input = new BufferedInputStream(Files.newInputStream(Paths.get(filePath)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open person data file " + filePath, e);
+        }
+        PersonStaxSpliterator spliterator;
+        try {
+            spliterator = new PersonStaxSpliterator(input);
+        } catch (XMLStreamException e) {
+            try {
+                input.close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw new PersonDataException(0, "cannot read XML document " + filePath, e);
+        }
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
 }
@@ -0,0 +1,89 @@
+package tests;
+
+import loadgen.ArrivalSchedule;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ArrivalScheduleTest class checks the pacing of load journeys against made-up
+ * times, so the results do not depend on how busy the machine is.
+ */
+public class ArrivalScheduleTest {
+
+    private static final long START = 5_000_000_000L;
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Users that are always ready get one arrival per interval, and none at or after the end.
+     */
+    @Test
+    public void testArrivalsSpacedByRate() {
+        ArrivalSchedule schedule = new ArrivalSchedule(10, START, START + 2_000 * MS);
+
+        List<Long> slots = new ArrayList<>();
+        for (OptionalLong slot = schedule.claim(START); slot.isPresent(); slot = schedule.claim(START)) {
+            slots.add(slot.getAsLong());
+        }
+
+        Assertions.assertEquals(20, slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            Assertions.assertEquals(START + i * 100 * MS, slots.get(i));
+        }
+    }
+
+    /**
+     * Arrivals missed while every user was busy are dropped rather than started in a burst.
+     * A late user gets the latest slot it missed, so its journey is timed from that slot,
+     * and the late and dropped arrivals are counted.
+     */
+    @Test
+    public void testMissedArrivalsDropped() {
+        ArrivalSchedule schedule = new ArrivalSchedule(10, START, START + 1_000 * MS);
+        Assertions.assertEquals(START, schedule.claim(START).getAsLong());
+
+        Assertions.assertEquals(START + 300 * MS, schedule.claim(START + 350 * MS).getAsLong());
+        Assertions.assertEquals(START + 400 * MS, schedule.claim(START + 360 * MS).getAsLong());
+        Assertions.assertEquals(START + 500 * MS, schedule.claim(START + 370 * MS).getAsLong());
+
+        Assertions.assertTrue(schedule.claim(START + 1_000 * MS).isEmpty());
+        Assertions.assertEquals(10, schedule.getScheduled());
+        Assertions.assertEquals(4, schedule.getClaimed());
+        Assertions.assertEquals(1, schedule.getLate());
+        Assertions.assertEquals(6, schedule.getDropped());
+    }
+
+    /**
+     * Users claiming at the same time from many threads each get a different arrival, and
+     * together no more than the rate allows.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testConcurrentClaimsShareSchedule() throws InterruptedException {
+        ArrivalSchedule schedule = new ArrivalSchedule(50, START, START + 10_000 * MS);
+        Set<Long> slots = ConcurrentHashMap.newKeySet();
+        List<Thread> users = new ArrayList<>();
+        for (int user = 0; user < 8; user++) {
+            users.add(new Thread(() -> {
+                for (OptionalLong slot = schedule.claim(START); slot.isPresent(); slot = schedule.claim(START)) {
+                    Assertions.assertTrue(slots.add(slot.getAsLong()), "arrival handed out twice");
+                }
+            }));
+        }
+        for (Thread user : users) {
+            user.start();
+        }
+        for (Thread user : users) {
+            user.join();
+        }
+
+        Assertions.assertEquals(500, slots.size());
+    }
+}
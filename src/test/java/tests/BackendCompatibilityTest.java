@@ -0,0 +1,209 @@
+package tests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pageobjects.AccessoriesPage;
+import pageobjects.CartBuilder;
+import pageobjects.CartPage;
+import pageobjects.CheckoutPage;
+import pageobjects.CheckoutPage.FillMode;
+import pageobjects.ProductPage;
+import pageobjects.StoreHomePage;
+import utilities.BrowserBackend;
+import utilities.BrowserStateReset;
+import utilities.Person;
+import utilities.TestLifecycleExtension;
+import utilities.UseBackend;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * The BackendCompatibilityTest class runs every page-object method on each browser backend
+ * and reports which methods behave the same on all of them.
+ *
+ * Each backend has a nested class that leases its session through TestLifecycleExtension
+ * and UseBackend, so the sessions are set up and reset as in any other test. Both backends
+ * follow the same seeded journeys, so their results can be compared one to one. A method
+ * that fails on a backend skips the methods that depend on it. The report is written to
+ * "target/backend-compatibility.md" once every backend has run. It is tagged "compat" and
+ * excluded from the default run. Run it against the local stand-in store with:
+ * mvn test -Dgroups=compat -DexcludedGroups=none -Dstore.local=true -Dtest=BackendCompatibilityTest
+ */
+@Tag("compat")
+@ExtendWith(TestLifecycleExtension.class)
+public class BackendCompatibilityTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackendCompatibilityTest.class);
+    private static final long SEED = 42L;
+    private static final Path REPORT = Paths.get("target", "backend-compatibility.md");
+    private static final Person PERSON = new Person("Dana", "Levi", "Herzl 1", "12345", "Haifa", "050-1234567",
+            "dana@example.com");
+    private static final Map<BrowserBackend, Map<String, String>> OUTCOMES =
+            Collections.synchronizedMap(new EnumMap<>(BrowserBackend.class));
+
+    /**
+     * Runs the journeys on Chrome.
+     */
+    @Nested
+    @UseBackend(BrowserBackend.CHROME)
+    class OnChrome {
+
+        /**
+         * Records the outcome of every page-object method on Chrome.
+         *
+         * @param driver the session leased from the Chrome pool.
+         */
+        @Test
+        public void testJourneys(WebDriver driver) {
+            OUTCOMES.put(BrowserBackend.CHROME, runJourneys(driver));
+        }
+    }
+
+    /**
+     * Runs the journeys on HtmlUnit.
+     */
+    @Nested
+    @UseBackend(BrowserBackend.HTMLUNIT)
+    class OnHtmlUnit {
+
+        /**
+         * Records the outcome of every page-object method on HtmlUnit.
+         *
+         * @param driver the session leased from the HtmlUnit pool.
+         */
+        @Test
+        public void testJourneys(WebDriver driver) {
+            OUTCOMES.put(BrowserBackend.HTMLUNIT, runJourneys(driver));
+        }
+    }
+
+    /**
+     * Writes the compatibility report once the journeys have run on every backend.
+     *
+     * @throws IOException if the report cannot be written.
+     */
+    @AfterAll
+    public static void writeReport() throws IOException {
+        Map<BrowserBackend, Map<String, String>> outcomes;
+        synchronized (OUTCOMES) {
+            outcomes = new EnumMap<>(OUTCOMES);
+        }
+        Assertions.assertEquals(BrowserBackend.values().length, outcomes.size(),
+                "Journeys did not run on every backend: " + outcomes.keySet());
+
+        StringBuilder report = new StringBuilder("| Page-object method |");
+        StringBuilder separator = new StringBuilder("|---|");
+        for (BrowserBackend backend : outcomes.keySet()) {
+            report.append(' ').append(backend.getTag()).append(" |");
+            separator.append("---|");
+        }
+        report.append(" Same |\n").append(separator).append("---|\n");
+        Map<String, String> reference = outcomes.get(BrowserBackend.CHROME);
+        for (String method : reference.keySet()) {
+            report.append("| ").append(method).append(" |");
+            boolean same = reference.get(method).startsWith("ok");
+            for (Map<String, String> backendOutcomes : outcomes.values()) {
+                String outcome = backendOutcomes.get(method);
+                report.append(' ').append(outcome).append(" |");
+                same &= reference.get(method).equals(outcome);
+            }
+            report.append(same ? " yes |\n" : " no |\n");
+        }
+
+        Files.createDirectories(REPORT.getParent());
+        Files.writeString(REPORT, report, StandardCharsets.UTF_8);
+        LOGGER.info("Backend compatibility, also written to {}:\n{}", REPORT, report);
+        Assertions.assertFalse(reference.isEmpty());
+    }
+
+    private static Map<String, String> runJourneys(WebDriver driver) {
+        Map<String, String> outcomes = new LinkedHashMap<>();
+        Journey ui = new Journey(outcomes);
+        StoreHomePage home = new StoreHomePage(driver);
+        ui.step("StoreHomePage.goToStore", () -> {
+            home.goToStore();
+            return null;
+        });
+        AccessoriesPage accessories = ui.step("StoreHomePage.goToAccessories",
+                () -> home.goToAccessories(new Random(SEED)));
+        ProductPage product = ui.step("AccessoriesPage.selectRandomProduct",
+                () -> accessories.selectRandomProduct());
+        ui.step("ProductPage.addToCart", () -> {
+            product.addToCart();
+            return null;
+        });
+        ui.step("StoreHomePage.getCountCart", () -> home.getCountCart());
+        CartPage cart = ui.step("StoreHomePage.goToCart", () -> home.goToCart());
+        CheckoutPage checkout = ui.step("CartPage.checkout", () -> cart.checkout());
+        ui.step("CheckoutPage.fillForm(KEYSTROKES)", () -> {
+            checkout.fillForm(PERSON, FillMode.KEYSTROKES);
+            return null;
+        });
+        ui.step("CheckoutPage.returnErrorElem", () -> checkout.returnErrorElem().isDisplayed());
+
+        BrowserStateReset.reset(driver);
+        Journey http = new Journey(outcomes);
+        CheckoutPage built = http.step("CartBuilder.openCheckout",
+                () -> new CartBuilder(new Random(SEED)).withRandomAccessory().openCheckout(driver));
+        http.step("CheckoutPage.fillForm(BATCHED)", () -> {
+            built.fillForm(PERSON, FillMode.BATCHED);
+            return null;
+        });
+        http.step("CheckoutPage.returnErrorElem after BATCHED", () -> built.returnErrorElem().isDisplayed());
+
+        BrowserStateReset.reset(driver);
+        Journey cartOnly = new Journey(outcomes);
+        CartPage builtCart = cartOnly.step("CartBuilder.openCart",
+                () -> new CartBuilder(new Random(SEED)).withRandomAccessory().withRandomAccessory()
+                        .openCart(driver));
+        cartOnly.step("StoreHomePage.getCountCart on cart page", () -> new StoreHomePage(driver).getCountCart());
+        cartOnly.step("CartPage.checkout from built cart", () -> builtCart.checkout() != null);
+        return outcomes;
+    }
+
+    /**
+     * A chain of dependent page-object calls that records the outcome of each call.
+     */
+    private static final class Journey {
+        private final Map<String, String> outcomes;
+        private boolean failed;
+
+        private Journey(Map<String, String> outcomes) {
+            this.outcomes = outcomes;
+        }
+
+        private <T> T step(String method, Supplier<T> call) {
+            if (failed) {
+                outcomes.put(method, "skipped");
+                return null;
+            }
+            try {
+                T value = call.get();
+                boolean plain = value instanceof Boolean || value instanceof Number || value instanceof String;
+                outcomes.put(method, plain ? "ok: " + value : "ok");
+                return value;
+            } catch (RuntimeException e) {
+                failed = true;
+                outcomes.put(method, "error: " + e.getClass().getSimpleName());
+                return null;
+            }
+        }
+    }
+}
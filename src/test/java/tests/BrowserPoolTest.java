@@ -0,0 +1,254 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+import utilities.BrowserPool;
+import utilities.OpenCloseBrowser;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The BrowserPoolTest class checks BrowserPool's leasing and pre-warming with a fake
+ * browser factory, so no real browser is started.
+ */
+public class BrowserPoolTest {
+
+    /**
+     * However many tests lease at once, the pool never holds more sessions than its size,
+     * and every session is reused rather than launched again.
+     *
+     * @throws Exception if a leasing thread fails.
+     */
+    @Test
+    public void testSizeBoundUnderConcurrentLeases() throws Exception {
+        FakeBrowsers browsers = new FakeBrowsers(null);
+        browsers.launchMillis = 20;
+        BrowserPool pool = new BrowserPool(browsers, driver -> { }, 3, 10_000);
+        Set<WebDriver> leased = ConcurrentHashMap.newKeySet();
+        AtomicInteger mostLeased = new AtomicInteger();
+        ExecutorService tests = Executors.newFixedThreadPool(12);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                runs.add(tests.submit(() -> {
+                    WebDriver driver = pool.lease();
+                    Assertions.assertTrue(leased.add(driver), "session leased twice");
+                    mostLeased.accumulateAndGet(leased.size(), Math::max);
+                    Thread.sleep(5);
+                    leased.remove(driver);
+                    pool.release(driver);
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            tests.shutdownNow();
+        }
+
+        Assertions.assertEquals(3, browsers.opened.size());
+        Assertions.assertTrue(mostLeased.get() <= 3, "leased at once: " + mostLeased.get());
+        pool.close();
+        Assertions.assertTrue(browsers.open.isEmpty());
+    }
+
+    /**
+     * A lease fails once the timeout passes without a session coming free.
+     */
+    @Test
+    public void testLeaseTimesOut() {
+        BrowserPool pool = new BrowserPool(new FakeBrowsers(null), driver -> { }, 1, 100);
+        pool.lease();
+
+        long start = System.nanoTime();
+        IllegalStateException timeout = Assertions.assertThrows(IllegalStateException.class, pool::lease);
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        Assertions.assertTrue(timeout.getMessage().contains("within 100 ms"), timeout.getMessage());
+        pool.close();
+    }
+
+    /**
+     * A browser that fails to start gives its slot back for the next lease.
+     */
+    @Test
+    public void testFailedLaunchFreesSlot() {
+        FakeBrowsers browsers = new FakeBrowsers(null);
+        browsers.failuresLeft = 1;
+        BrowserPool pool = new BrowserPool(browsers, driver -> { }, 1, 100);
+
+        Assertions.assertThrows(IllegalStateException.class, pool::lease);
+        WebDriver driver = pool.lease();
+
+        Assertions.assertSame(browsers.opened.get(0), driver);
+        pool.close();
+    }
+
+    /**
+     * A session whose setup fails is quit, and its slot goes to the next lease.
+     */
+    @Test
+    public void testFailedSessionSetupFreesSlot() {
+        FakeBrowsers browsers = new FakeBrowsers(null);
+        AtomicInteger setups = new AtomicInteger();
+        BrowserPool pool = new BrowserPool(browsers, driver -> {
+            if (setups.incrementAndGet() == 1) {
+                throw new IllegalStateException("could not set timeouts");
+            }
+        }, 1, 100);
+
+        Assertions.assertThrows(IllegalStateException.class, pool::lease);
+        Assertions.assertEquals(List.of(browsers.opened.get(0)), browsers.closed);
+        WebDriver driver = pool.lease();
+
+        Assertions.assertSame(browsers.opened.get(1), driver);
+        pool.close();
+    }
+
+    /**
+     * A lease waiting on a full pool takes the slot of a session another test discards.
+     *
+     * @throws Exception if the waiting lease fails.
+     */
+    @Test
+    public void testWaitingLeaseTakesDiscardedSlot() throws Exception {
+        FakeBrowsers browsers = new FakeBrowsers(null);
+        BrowserPool pool = new BrowserPool(browsers, driver -> { }, 1, 5_000);
+        WebDriver broken = pool.lease();
+        ExecutorService waiter = Executors.newSingleThreadExecutor();
+        try {
+            Future<WebDriver> waiting = waiter.submit(pool::lease);
+            Thread.sleep(50);
+            pool.discard(broken);
+
+            WebDriver replacement = waiting.get(2, TimeUnit.SECONDS);
+            Assertions.assertNotSame(broken, replacement);
+            Assertions.assertEquals(2, browsers.opened.size());
+        } finally {
+            waiter.shutdownNow();
+            pool.close();
+        }
+    }
+
+    /**
+     * A pre-warmed launch that a lease gave up waiting for still reaches the pool, so its
+     * slot and its browser are not lost.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testTimedOutPrewarmReturnsToPool() throws InterruptedException {
+        CountDownLatch launchGate = new CountDownLatch(1);
+        FakeBrowsers browsers = new FakeBrowsers(launchGate);
+        BrowserPool pool = new BrowserPool(browsers, driver -> { }, 1, 200);
+
+        Assertions.assertEquals(1, pool.prewarm(1));
+        Assertions.assertThrows(IllegalStateException.class, pool::lease);
+        launchGate.countDown();
+
+        WebDriver driver = pool.lease();
+        Assertions.assertSame(browsers.opened.get(0), driver);
+        Assertions.assertEquals(1, browsers.opened.size());
+        pool.close();
+        Assertions.assertTrue(browsers.closed.contains(driver));
+    }
+
+    /**
+     * Closing the pool quits leased, idle and pre-warmed sessions, including launches that
+     * are still under way.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testCloseQuitsEverySession() throws InterruptedException {
+        FakeBrowsers browsers = new FakeBrowsers(null);
+        BrowserPool pool = new BrowserPool(browsers, driver -> { }, 4, 1_000);
+        WebDriver leased = pool.lease();
+        WebDriver idle = pool.lease();
+        pool.release(idle);
+        browsers.launchMillis = 100;
+        Assertions.assertEquals(2, pool.prewarm(5));
+
+        pool.close();
+
+        Assertions.assertEquals(4, browsers.opened.size());
+        Assertions.assertEquals(Set.copyOf(browsers.opened), Set.copyOf(browsers.closed));
+        Assertions.assertEquals(4, browsers.closed.size());
+        Assertions.assertThrows(IllegalStateException.class, pool::lease);
+        pool.release(leased);
+        Assertions.assertEquals(4, browsers.closed.size());
+    }
+
+    /**
+     * A factory of fake sessions that records what it opened and closed.
+     */
+    static final class FakeBrowsers implements OpenCloseBrowser {
+        final List<WebDriver> opened = new CopyOnWriteArrayList<>();
+        final List<WebDriver> closed = new CopyOnWriteArrayList<>();
+        final Set<WebDriver> open = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch launchGate;
+        volatile long launchMillis;
+        volatile int failuresLeft;
+
+        FakeBrowsers(CountDownLatch launchGate) {
+            this.launchGate = launchGate;
+        }
+
+        @Override
+        public WebDriver openBrowser() {
+            try {
+                if (launchGate != null) {
+                    launchGate.await(10, TimeUnit.SECONDS);
+                }
+                Thread.sleep(launchMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            synchronized (this) {
+                if (failuresLeft > 0) {
+                    failuresLeft--;
+                    throw new IllegalStateException("browser failed to start");
+                }
+            }
+            WebDriver driver = fakeDriver(opened.size());
+            opened.add(driver);
+            open.add(driver);
+            return driver;
+        }
+
+        @Override
+        public void closeBrowser(WebDriver driver) {
+            open.remove(driver);
+            closed.add(driver);
+        }
+    }
+
+    private static WebDriver fakeDriver(int id) {
+        return (WebDriver) Proxy.newProxyInstance(BrowserPoolTest.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "fake browser " + id;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,164 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import utilities.CachingElementLocatorFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CachingElementLocatorTest class checks the element cache of page objects against a
+ * fake browser: cache hits and misses, dropping the cache when the document changes, and
+ * recovering from stale elements.
+ */
+public class CachingElementLocatorTest {
+
+    /**
+     * Repeated use of a field looks it up once while the document stays the same.
+     */
+    @Test
+    public void testRepeatedUseHitsCache() {
+        FakeBrowser browser = new FakeBrowser();
+        Page page = new Page(browser.driver);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("total of document 0", page.total.getText());
+        }
+
+        Assertions.assertEquals(1, browser.finds);
+        Assertions.assertEquals(1, page.elements.getMisses());
+        Assertions.assertEquals(2, page.elements.getHits());
+        Assertions.assertEquals(0, page.elements.getDocumentChanges());
+    }
+
+    /**
+     * A navigation the page object did not announce, such as going back, drops the cache
+     * before a stale element is used.
+     */
+    @Test
+    public void testDocumentChangeDropsCache() {
+        FakeBrowser browser = new FakeBrowser();
+        Page page = new Page(browser.driver);
+        Assertions.assertEquals(2, page.rows.size());
+        page.total.getText();
+
+        browser.navigate(5);
+
+        Assertions.assertEquals("total of document 1", page.total.getText());
+        Assertions.assertEquals(5, page.rows.size());
+        Assertions.assertEquals(1, page.elements.getDocumentChanges());
+        Assertions.assertEquals(0, browser.staleCalls);
+        Assertions.assertEquals(4, browser.finds);
+    }
+
+    /**
+     * An element that goes stale while the document stays, for example because a script
+     * re-rendered it, is looked up again and the call is repeated once.
+     */
+    @Test
+    public void testStaleElementRetriedOnce() {
+        FakeBrowser browser = new FakeBrowser();
+        Page page = new Page(browser.driver);
+        page.total.getText();
+
+        browser.rerender();
+
+        Assertions.assertEquals("total of document 0", page.total.getText());
+        Assertions.assertEquals(1, browser.staleCalls);
+        Assertions.assertEquals(2, browser.finds);
+        Assertions.assertEquals(0, page.elements.getDocumentChanges());
+    }
+
+    /**
+     * A page object with a single element and a list, like the store's pages.
+     */
+    static final class Page {
+        final CachingElementLocatorFactory elements;
+
+        @FindBy(id = "total")
+        WebElement total;
+
+        @FindBy(className = "row")
+        List<WebElement> rows;
+
+        Page(WebDriver driver) {
+            elements = CachingElementLocatorFactory.initElements(driver, this);
+        }
+    }
+
+    /**
+     * A browser whose document and rendering can be replaced, making earlier elements stale.
+     */
+    static final class FakeBrowser {
+        int document;
+        int render;
+        int rowCount = 2;
+        int finds;
+        int staleCalls;
+        final WebDriver driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findElement":
+                            finds++;
+                            return element((By) args[0]);
+                        case "findElements":
+                            finds++;
+                            List<WebElement> found = new ArrayList<>();
+                            for (int i = 0; i < rowCount; i++) {
+                                found.add(element((By) args[0]));
+                            }
+                            return found;
+                        case "executeScript":
+                            return "origin-" + document + " https://store.test/page-" + document;
+                        case "getCurrentUrl":
+                            return "https://store.test/page-" + document;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        void navigate(int rows) {
+            document++;
+            render++;
+            rowCount = rows;
+        }
+
+        void rerender() {
+            render++;
+        }
+
+        private WebElement element(By by) {
+            int ownDocument = document;
+            int ownRender = render;
+            return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{WebElement.class},
+                    (proxy, method, args) -> {
+                        if (ownRender != render) {
+                            staleCalls++;
+                            throw new StaleElementReferenceException(by + " is stale");
+                        }
+                        switch (method.getName()) {
+                            case "getText":
+                                return "total of document " + ownDocument;
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pageobjects.CartBuilder;
+import pageobjects.CheckoutPage;
+import pageobjects.CheckoutPage.FillMode;
+import utilities.Person;
+import utilities.TestLifecycleExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The CheckoutFillModeTest class compares how long CheckoutPage.fillForm takes when it
+ * types every field and when it fills them all in one script call.
+ *
+ * It is tagged "perf" and excluded from the default run. Run it against the local
+ * stand-in store with:
+ * mvn test -Dgroups=perf -DexcludedGroups=none -Dstore.local=true -Dtest=CheckoutFillModeTest
+ */
+@Tag("perf")
+@ExtendWith(TestLifecycleExtension.class)
+public class CheckoutFillModeTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckoutFillModeTest.class);
+    private static final int ROUNDS = Integer.getInteger("perf.rounds", 10);
+
+    private final WebDriver driver;
+
+    /**
+     * Constructor for the CheckoutFillModeTest class.
+     *
+     * @param driver the WebDriver instance used to drive the browser actions.
+     */
+    public CheckoutFillModeTest(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Fills the checkout form in both modes, alternating between them, and reports the
+     * median and worst latency of each. Both modes must reach the validation errors.
+     */
+    @Test
+    public void testCompareFillModes() {
+        Person person = new Person("Dana", "Levi", "Herzl 1", "12345", "Haifa", "050-1234567", "dana@example.com");
+        Map<FillMode, List<Long>> latencies = new EnumMap<>(FillMode.class);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (FillMode mode : FillMode.values()) {
+                CheckoutPage checkoutPage = new CartBuilder().withRandomAccessory().openCheckout(driver);
+                long start = System.nanoTime();
+                checkoutPage.fillForm(person, mode);
+                latencies.computeIfAbsent(mode, key -> new ArrayList<>()).add(System.nanoTime() - start);
+                Assertions.assertTrue(checkoutPage.returnErrorElem().isDisplayed(), mode + " did not submit the form");
+            }
+        }
+
+        for (Map.Entry<FillMode, List<Long>> entry : latencies.entrySet()) {
+            List<Long> samples = entry.getValue();
+            Collections.sort(samples);
+            LOGGER.info(String.format(Locale.ROOT, "fillForm %-10s median %6.1f ms, max %6.1f ms over %d rounds",
+                    entry.getKey(), samples.get(samples.size() / 2) / 1e6, samples.get(samples.size() - 1) / 1e6,
+                    samples.size()));
+        }
+    }
+}
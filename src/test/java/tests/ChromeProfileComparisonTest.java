@@ -0,0 +1,121 @@
+package tests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utilities.ChromeDriverFactory;
+import utilities.ChromeProfile;
+import utilities.LocalStoreServer;
+import utilities.PageWait;
+import utilities.StoreConfig;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The ChromeProfileComparisonTest class compares how long Chrome takes to start and to
+ * load the store's home and Accessories pages with the standard and the lean profile, so
+ * each pipeline stage can pick the profile that suits it.
+ *
+ * It is tagged "perf" and excluded from the default run. Run it with:
+ * mvn test -Dgroups=perf -DexcludedGroups=none -Dtest=ChromeProfileComparisonTest
+ */
+@Tag("perf")
+public class ChromeProfileComparisonTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChromeProfileComparisonTest.class);
+    private static final int ROUNDS = Integer.getInteger("perf.rounds", 5);
+    private static final String[] PAGES = {"/", "/product-category/accessories/"};
+    private static final String RESOURCE_COUNT_SCRIPT =
+            "return performance.getEntriesByType('resource').length;";
+
+    private static LocalStoreServer localStore;
+
+    /**
+     * Starts the local stand-in store when the "store.local" system property is set.
+     *
+     * @throws IOException if the local store cannot start.
+     */
+    @BeforeAll
+    public static void startStore() throws IOException {
+        if (Boolean.getBoolean("store.local")) {
+            localStore = LocalStoreServer.start();
+            StoreConfig.setBaseUrl(localStore.getBaseUrl());
+        }
+    }
+
+    /**
+     * Stops the local stand-in store, if one was started.
+     */
+    @AfterAll
+    public static void stopStore() {
+        if (localStore != null) {
+            localStore.close();
+        }
+    }
+
+    /**
+     * Launches Chrome with each profile, alternating between them, and reports the median
+     * and worst startup and page-load times of each, with the resources the pages fetched.
+     */
+    @Test
+    public void testCompareProfiles() {
+        ChromeProfile[] profiles = {ChromeProfile.standard(), ChromeProfile.lean()};
+        List<List<Long>> startups = new ArrayList<>();
+        List<List<Long>> loads = new ArrayList<>();
+        long[] resources = new long[profiles.length];
+        for (int i = 0; i < profiles.length; i++) {
+            startups.add(new ArrayList<>());
+            loads.add(new ArrayList<>());
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < profiles.length; i++) {
+                ChromeDriverFactory factory = new ChromeDriverFactory(profiles[i]);
+                long start = System.nanoTime();
+                WebDriver driver = factory.openBrowser();
+                startups.get(i).add(System.nanoTime() - start);
+                try {
+                    PageWait wait = new PageWait(driver);
+                    for (String page : PAGES) {
+                        start = System.nanoTime();
+                        driver.get(StoreConfig.url(page));
+                        wait.pageReady(page);
+                        loads.get(i).add(System.nanoTime() - start);
+                        resources[i] += ((Number) ((JavascriptExecutor) driver)
+                                .executeScript(RESOURCE_COUNT_SCRIPT)).longValue();
+                        Assertions.assertFalse(driver.getTitle().isEmpty(), page + " did not load");
+                    }
+                } finally {
+                    factory.closeBrowser(driver);
+                }
+            }
+        }
+
+        for (int i = 0; i < profiles.length; i++) {
+            LOGGER.info(String.format(Locale.ROOT, "%-8s startup median %7.1f ms, max %7.1f ms"
+                            + " | page load median %7.1f ms, max %7.1f ms | %5.1f resources per page",
+                    profiles[i].name(), median(startups.get(i)), max(startups.get(i)), median(loads.get(i)),
+                    max(loads.get(i)), resources[i] / (double) loads.get(i).size()));
+        }
+    }
+
+    private static double median(List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2) / 1e6;
+    }
+
+    private static double max(List<Long> samples) {
+        return Collections.max(samples) / 1e6;
+    }
+}
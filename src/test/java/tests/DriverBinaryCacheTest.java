@@ -0,0 +1,202 @@
+package tests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilities.DriverBinaryCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The DriverBinaryCacheTest class checks the order in which DriverBinaryCache looks up a
+ * driver, and what it remembers, using a private cache directory and PATH.
+ */
+public class DriverBinaryCacheTest {
+
+    private static final String PROPERTY = "driverbinarycachetest.driver";
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger downloads = new AtomicInteger();
+
+    @AfterEach
+    public void clearProperty() {
+        System.clearProperty(PROPERTY);
+    }
+
+    /**
+     * A driver set on the command line wins over the saved path and the PATH, and is
+     * published through the system property.
+     */
+    @Test
+    public void testPresetWins() throws IOException {
+        Path preset = executable("preset/fakedriver");
+        Path bin = executable("bin/fakedriver").getParent();
+        saveCache(executable("saved/fakedriver"));
+
+        DriverBinaryCache cache = cache(bin.toString(), preset.toString());
+
+        Assertions.assertEquals(preset, cache.resolve());
+        Assertions.assertEquals(preset.toString(), System.getProperty(PROPERTY));
+        Assertions.assertEquals(0, downloads.get());
+    }
+
+    /**
+     * A preset that is not executable is ignored, and the path saved by an earlier run is
+     * used before the PATH.
+     */
+    @Test
+    public void testSavedPathBeforePath() throws IOException {
+        Path saved = executable("saved/fakedriver");
+        Path bin = executable("bin/fakedriver").getParent();
+        saveCache(saved);
+
+        DriverBinaryCache cache = cache(bin.toString(), tempDir.resolve("missing/fakedriver").toString());
+
+        Assertions.assertEquals(saved, cache.resolve());
+        Assertions.assertEquals(0, downloads.get());
+    }
+
+    /**
+     * A saved path that is gone falls through to the PATH, whose driver and browser are
+     * saved for the next run.
+     */
+    @Test
+    public void testPathWhenSavedPathGone() throws IOException {
+        Path bin = executable("bin/fakedriver").getParent();
+        Path browser = executable("bin/fakebrowser");
+        saveCache(tempDir.resolve("gone/fakedriver"));
+
+        DriverBinaryCache cache = cache(tempDir.resolve("empty") + File.pathSeparator + bin, null);
+
+        Assertions.assertEquals(bin.resolve("fakedriver"), cache.resolve());
+        Assertions.assertEquals(Optional.of(browser), cache.browserBinary());
+        Assertions.assertEquals(0, downloads.get());
+        Properties saved = loadCache();
+        Assertions.assertEquals(bin.resolve("fakedriver").toAbsolutePath().toString(), saved.getProperty("path"));
+        Assertions.assertEquals(browser.toAbsolutePath().toString(), saved.getProperty("browser"));
+        Assertions.assertEquals("PATH", saved.getProperty("source"));
+    }
+
+    /**
+     * With nothing saved and nothing on the PATH, WebDriverManager is asked once, and its
+     * driver and browser are saved.
+     */
+    @Test
+    public void testWebDriverManagerLast() throws IOException {
+        Path downloaded = executable("downloads/fakedriver");
+        Path browser = executable("downloads/fakebrowser");
+
+        DriverBinaryCache cache = cache(tempDir.resolve("empty").toString(), null, downloaded, browser);
+
+        Assertions.assertEquals(downloaded, cache.resolve());
+        Assertions.assertEquals(downloaded, cache.resolve());
+        Assertions.assertEquals(Optional.of(browser), cache.browserBinary());
+        Assertions.assertEquals(1, downloads.get());
+        Properties saved = loadCache();
+        Assertions.assertEquals("WebDriverManager", saved.getProperty("source"));
+        Assertions.assertEquals("1.0", saved.getProperty("version"));
+    }
+
+    /**
+     * When no lookup finds a driver, resolve() says how to set one.
+     */
+    @Test
+    public void testNoDriverFound() {
+        DriverBinaryCache cache = new DriverBinaryCache("fakedriver", PROPERTY, () -> {
+            downloads.incrementAndGet();
+            throw new IllegalStateException("offline");
+        }, List.of("fakebrowser"), tempDir.resolve("cache"), tempDir.resolve("empty").toString(), null);
+
+        IllegalStateException e = Assertions.assertThrows(IllegalStateException.class, cache::resolve);
+        Assertions.assertTrue(e.getMessage().contains("-D" + PROPERTY), e.getMessage());
+        Assertions.assertEquals(1, downloads.get());
+    }
+
+    /**
+     * The browser saved with the driver is used by the next run without searching the
+     * PATH again, unless it has been removed since.
+     */
+    @Test
+    public void testBrowserBinaryCached() throws IOException {
+        Path bin = executable("bin/fakedriver").getParent();
+        Path browser = executable("bin/fakebrowser");
+        cache(bin.toString(), null).resolve();
+
+        Assertions.assertEquals(Optional.of(browser), cache(null, null).browserBinary());
+
+        Files.delete(browser);
+        Assertions.assertEquals(Optional.empty(), cache(null, null).browserBinary());
+    }
+
+    /**
+     * invalidate() deletes the saved path and skips the PATH, whose driver the browser
+     * rejected, so the next resolve() goes to WebDriverManager.
+     */
+    @Test
+    public void testInvalidateSkipsPath() throws IOException {
+        Path bin = executable("bin/fakedriver").getParent();
+        Path downloaded = executable("downloads/fakedriver");
+        DriverBinaryCache cache = cache(bin.toString(), null, downloaded, null);
+        Assertions.assertEquals(bin.resolve("fakedriver"), cache.resolve());
+
+        cache.invalidate();
+
+        Assertions.assertFalse(Files.exists(cacheFile()));
+        Assertions.assertEquals(downloaded, cache.resolve());
+        Assertions.assertEquals(1, downloads.get());
+        Assertions.assertEquals("WebDriverManager", loadCache().getProperty("source"));
+    }
+
+    private DriverBinaryCache cache(String searchPath, String preset) {
+        return cache(searchPath, preset, tempDir.resolve("downloads/fakedriver"), null);
+    }
+
+    private DriverBinaryCache cache(String searchPath, String preset, Path downloaded, Path browser) {
+        return new DriverBinaryCache("fakedriver", PROPERTY, () -> {
+            downloads.incrementAndGet();
+            return new DriverBinaryCache.Download(downloaded, browser, "1.0");
+        }, List.of("fakebrowser"), tempDir.resolve("cache"), searchPath, preset);
+    }
+
+    private Path executable(String name) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "#!/bin/sh\necho FakeDriver 1.0\n");
+        Assertions.assertTrue(file.toFile().setExecutable(true), "Could not make " + file + " executable");
+        return file;
+    }
+
+    private Path cacheFile() {
+        return tempDir.resolve("cache/fakedriver.properties");
+    }
+
+    private void saveCache(Path driver) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("path", driver.toString());
+        Files.createDirectories(cacheFile().getParent());
+        try (Writer writer = Files.newBufferedWriter(cacheFile(), StandardCharsets.UTF_8)) {
+            properties.store(writer, null);
+        }
+    }
+
+    private Properties loadCache() throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(cacheFile(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+}
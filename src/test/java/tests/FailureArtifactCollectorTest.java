@@ -0,0 +1,89 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import utilities.FailureArtifactCollector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The FailureArtifactCollectorTest class checks that failure artifacts are written in the
+ * background, and within the disk cap.
+ */
+public class FailureArtifactCollectorTest {
+
+    private static final String PAGE = "<html><body>Checkout</body></html>";
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * After a flush, the failure, page source and screenshot are on disk.
+     *
+     * @throws IOException if the artifacts cannot be read.
+     */
+    @Test
+    public void testArtifactsWrittenByFlush() throws IOException {
+        FailureArtifactCollector collector = new FailureArtifactCollector(tempDir, 1024 * 1024);
+
+        collector.capture("StoreTest.testFillForm#3", fakeBrowser(new byte[1000]), new AssertionError("boom"));
+        collector.flush();
+
+        Assertions.assertTrue(Files.readString(tempDir.resolve("StoreTest.testFillForm#3-failure.txt"))
+                .contains("boom"));
+        try (InputStream page = new GZIPInputStream(
+                Files.newInputStream(tempDir.resolve("StoreTest.testFillForm#3-page.html.gz")))) {
+            Assertions.assertEquals(PAGE, new String(page.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        Assertions.assertEquals(1000, Files.size(tempDir.resolve("StoreTest.testFillForm#3-screenshot.png")));
+    }
+
+    /**
+     * Artifacts that would take the total over the cap are skipped. The failures carry no
+     * stack trace, so every text artifact is a few dozen bytes and only the second 3,000-byte
+     * screenshot crosses the 5,000-byte cap.
+     */
+    @Test
+    public void testDiskCapRespected() {
+        FailureArtifactCollector collector = new FailureArtifactCollector(tempDir, 5_000);
+
+        collector.capture("first", fakeBrowser(new byte[3_000]), failureWithoutTrace());
+        collector.flush();
+        collector.capture("second", fakeBrowser(new byte[3_000]), failureWithoutTrace());
+        collector.flush();
+
+        Assertions.assertTrue(Files.exists(tempDir.resolve("first-screenshot.png")));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("second-screenshot.png")));
+        Assertions.assertTrue(Files.exists(tempDir.resolve("second-failure.txt")));
+    }
+
+    private static Throwable failureWithoutTrace() {
+        AssertionError failure = new AssertionError("boom");
+        failure.setStackTrace(new StackTraceElement[0]);
+        return failure;
+    }
+
+    private static WebDriver fakeBrowser(byte[] screenshot) {
+        return (WebDriver) Proxy.newProxyInstance(FailureArtifactCollectorTest.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, TakesScreenshot.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getScreenshotAs":
+                            return ((OutputType<?>) args[0]).convertFromPngBytes(screenshot);
+                        case "getPageSource":
+                            return PAGE;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,161 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrdererContext;
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.Test;
+import utilities.HistoricalTimingOrderer;
+import utilities.TestTimingStore.Timing;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The HistoricalTimingOrdererTest class checks the order of classes and methods for a
+ * known history: recent failures first, then tests without history, then the rest by
+ * duration, fastest first when run serially and slowest first in parallel.
+ */
+public class HistoricalTimingOrdererTest {
+
+    private static final String ENGINE = "[engine:junit-jupiter]/";
+    private static final Map<String, Timing> HISTORY = Map.ofEntries(
+            Map.entry(key(Fast.class, "[method:run()]"), new Timing(100, 0, Timing.NEVER_FAILED)),
+            Map.entry(key(Slow.class, "[method:run()]"), new Timing(2_500, 0, Timing.NEVER_FAILED)),
+            Map.entry(key(Slow.class, "[method:check()]"), new Timing(2_500, 0, Timing.NEVER_FAILED)),
+            Map.entry(key(FailedLongAgo.class, "[method:run()]"), new Timing(300, 1, 5)),
+            Map.entry(key(FailedLastRun.class, "[method:run()]"), new Timing(9_000, 1, 0)),
+            Map.entry(key(FailedTwoRunsAgo.class, "[method:run()]"), new Timing(50, 2, 2)),
+            // Rows count towards their parameterized method.
+            Map.entry(key(Methods.class, "[test-template:rows(java.lang.String)]/[test-template-invocation:#1]"),
+                    new Timing(400, 0, Timing.NEVER_FAILED)),
+            Map.entry(key(Methods.class, "[test-template:rows(java.lang.String)]/[test-template-invocation:#2]"),
+                    new Timing(400, 1, 1)),
+            Map.entry(key(Methods.class, "[method:quick()]"), new Timing(10, 0, Timing.NEVER_FAILED)),
+            Map.entry(key(Methods.class, "[method:slow()]"), new Timing(900, 0, Timing.NEVER_FAILED)),
+            // The same method name in another class does not count.
+            Map.entry(key(FailedLastRun.class, "[method:unknown()]"), new Timing(1, 1, 0)));
+
+    /**
+     * Run serially, recent failures come first, then classes without history, then the
+     * rest fastest first.
+     */
+    @Test
+    public void testClassOrderSerial() {
+        Assertions.assertEquals(List.of(FailedLastRun.class, FailedTwoRunsAgo.class, NoHistory.class, Fast.class,
+                FailedLongAgo.class, Slow.class), orderClasses(false));
+    }
+
+    /**
+     * Run in parallel, the classes after the failures and the unknown ones go slowest first.
+     */
+    @Test
+    public void testClassOrderParallel() {
+        Assertions.assertEquals(List.of(FailedLastRun.class, FailedTwoRunsAgo.class, NoHistory.class, Slow.class,
+                FailedLongAgo.class, Fast.class), orderClasses(true));
+    }
+
+    /**
+     * Methods follow the same order, with a parameterized method counting all its rows.
+     */
+    @Test
+    public void testMethodOrder() {
+        Assertions.assertEquals(List.of("rows", "unknown", "quick", "slow"), orderMethods(false));
+        Assertions.assertEquals(List.of("rows", "unknown", "slow", "quick"), orderMethods(true));
+    }
+
+    private static List<Class<?>> orderClasses(boolean parallel) {
+        List<ClassDescriptor> descriptors = new ArrayList<>();
+        for (Class<?> testClass : List.of(Slow.class, Fast.class, FailedLongAgo.class, NoHistory.class,
+                FailedTwoRunsAgo.class, FailedLastRun.class)) {
+            descriptors.add(descriptor(ClassDescriptor.class, "getTestClass", testClass));
+        }
+        new HistoricalTimingOrderer(HISTORY).orderClasses(context(ClassOrdererContext.class,
+                "getClassDescriptors", descriptors, parallel));
+        return descriptors.stream().<Class<?>>map(ClassDescriptor::getTestClass).toList();
+    }
+
+    private static List<String> orderMethods(boolean parallel) {
+        List<MethodDescriptor> descriptors = new ArrayList<>();
+        for (String name : List.of("slow", "quick", "unknown", "rows")) {
+            Method method = List.of(Methods.class.getDeclaredMethods()).stream()
+                    .filter(candidate -> candidate.getName().equals(name)).findFirst().orElseThrow();
+            descriptors.add(descriptor(MethodDescriptor.class, "getMethod", method));
+        }
+        MethodOrdererContext context = context(MethodOrdererContext.class, "getMethodDescriptors", descriptors,
+                parallel);
+        new HistoricalTimingOrderer(HISTORY).orderMethods(context);
+        return descriptors.stream().map(descriptor -> descriptor.getMethod().getName()).toList();
+    }
+
+    private static String key(Class<?> testClass, String test) {
+        return ENGINE + "[class:" + testClass.getName() + "]/" + test;
+    }
+
+    private static <T> T descriptor(Class<T> type, String getter, Object value) {
+        return type.cast(Proxy.newProxyInstance(HistoricalTimingOrdererTest.class.getClassLoader(),
+                new Class<?>[]{type}, (proxy, method, args) -> {
+                    if (method.getName().equals(getter)) {
+                        return value;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+
+    private static <T> T context(Class<T> type, String getter, List<?> descriptors, boolean parallel) {
+        return type.cast(Proxy.newProxyInstance(HistoricalTimingOrdererTest.class.getClassLoader(),
+                new Class<?>[]{type}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getConfigurationParameter":
+                            return Optional.of(Boolean.toString(parallel))
+                                    .filter(value -> "junit.jupiter.execution.parallel.enabled".equals(args[0]));
+                        case "getTestClass":
+                            return Methods.class;
+                        default:
+                            if (method.getName().equals(getter)) {
+                                return descriptors;
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }));
+    }
+
+    // Stand-ins for test classes; they hold no tests, so JUnit does not run them.
+
+    static final class Fast {
+    }
+
+    static final class Slow {
+    }
+
+    static final class FailedLongAgo {
+    }
+
+    static final class FailedLastRun {
+    }
+
+    static final class FailedTwoRunsAgo {
+    }
+
+    static final class NoHistory {
+    }
+
+    static final class Methods {
+        void quick() {
+        }
+
+        void slow() {
+        }
+
+        void unknown() {
+        }
+
+        void rows(String row) {
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import pageobjects.CartBuilder;
+import pageobjects.CheckoutPage;
+import pageobjects.CheckoutPage.FillMode;
+import utilities.BrowserBackend;
+import utilities.Person;
+import utilities.TestLifecycleExtension;
+import utilities.UseBackend;
+
+/**
+ * The HtmlUnitCheckoutTest class checks the checkout validation on the HtmlUnit backend,
+ * which needs no browser process, whatever backend the rest of the run uses.
+ */
+@UseBackend(BrowserBackend.HTMLUNIT)
+@ExtendWith(TestLifecycleExtension.class)
+public class HtmlUnitCheckoutTest {
+
+    private static final Person INVALID = new Person("Dana", "Levi", "Herzl 1", "12", "Haifa", "050-1234567",
+            "dana@example.com");
+
+    /**
+     * A checkout with an invalid postcode is refused with validation errors.
+     *
+     * @param driver the session leased from the HtmlUnit pool.
+     */
+    @Test
+    public void testInvalidPostcodeRejected(WebDriver driver) {
+        Assertions.assertInstanceOf(HtmlUnitDriver.class, driver);
+
+        CheckoutPage checkoutPage = new CartBuilder().withRandomAccessory().openCheckout(driver);
+        checkoutPage.fillForm(INVALID, FillMode.KEYSTROKES);
+
+        Assertions.assertTrue(checkoutPage.returnErrorElem().isDisplayed());
+        Assertions.assertTrue(checkoutPage.returnErrorElem().getText().contains("postcode"),
+                checkoutPage.returnErrorElem().getText());
+    }
+
+    /**
+     * Without UseBackend of its own, a class tagged with a backend's name runs on that backend.
+     */
+    @Nested
+    @Tag("htmlunit")
+    class TaggedForHtmlUnit {
+
+        /**
+         * The session comes from the HtmlUnit pool.
+         *
+         * @param driver the session leased for the test.
+         */
+        @Test
+        public void testTagSelectsBackend(WebDriver driver) {
+            Assertions.assertInstanceOf(HtmlUnitDriver.class, driver);
+        }
+    }
+}
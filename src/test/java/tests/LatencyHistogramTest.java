@@ -0,0 +1,51 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utilities.LatencyHistogram;
+
+/**
+ * The LatencyHistogramTest class checks the percentiles and merging of LatencyHistogram.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Percentiles of 1 to 1000 ms land within the histogram's 1.5% bucket precision.
+     */
+    @Test
+    public void testPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.recordNanos(millis * 1_000_000L);
+        }
+
+        Assertions.assertEquals(1000, histogram.getCount());
+        Assertions.assertEquals(500.5, histogram.getMeanMillis(), 0.001);
+        Assertions.assertEquals(1000.0, histogram.getMaxMillis(), 0.001);
+        Assertions.assertEquals(500, histogram.getPercentileMillis(50), 500 * 0.015);
+        Assertions.assertEquals(950, histogram.getPercentileMillis(95), 950 * 0.015);
+        Assertions.assertEquals(990, histogram.getPercentileMillis(99), 990 * 0.015);
+    }
+
+    /**
+     * Merging two histograms gives the same result as recording every sample in one.
+     */
+    @Test
+    public void testMergeAddsSamples() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            fast.recordNanos(2_000_000L);
+        }
+        for (int i = 0; i < 10; i++) {
+            slow.recordNanos(300_000_000L);
+        }
+
+        fast.merge(slow);
+
+        Assertions.assertEquals(100, fast.getCount());
+        Assertions.assertEquals(2.0, fast.getPercentileMillis(90), 2.0 * 0.015);
+        Assertions.assertEquals(300.0, fast.getPercentileMillis(91), 300.0 * 0.015);
+        Assertions.assertEquals(300.0, fast.getMaxMillis(), 0.001);
+    }
+}
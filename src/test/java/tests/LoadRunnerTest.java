@@ -0,0 +1,86 @@
+package tests;
+
+import loadgen.LoadProfile;
+import loadgen.LoadReport;
+import loadgen.LoadRunner;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utilities.LocalStoreServer;
+import utilities.Person;
+import utilities.XmlReader;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The LoadRunnerTest class runs short loads against the local stand-in store, checking
+ * that every step of the journey succeeds and that the arrival rate paces the journeys.
+ */
+public class LoadRunnerTest {
+
+    private static final String[] STEPS = {"StoreHomePage.goToStore", "StoreHomePage.goToAccessories",
+            "AccessoriesPage.selectRandomProduct", "ProductPage.addToCart", "StoreHomePage.goToCart",
+            "CartPage.checkout", "CheckoutPage.fillForm", LoadReport.JOURNEY};
+
+    private static LocalStoreServer store;
+    private static List<Person> people;
+
+    /**
+     * Starts the local stand-in store and reads the test people.
+     *
+     * @throws IOException if the store cannot start.
+     */
+    @BeforeAll
+    public static void startStore() throws IOException {
+        store = LocalStoreServer.start();
+        people = new XmlReader().readXmlPerson("./src/assets/people.xml");
+    }
+
+    /**
+     * Stops the local stand-in store.
+     */
+    @AfterAll
+    public static void stopStore() {
+        store.close();
+    }
+
+    /**
+     * Unpaced users complete journeys without a single failed step.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testJourneysSucceed() throws InterruptedException {
+        LoadReport report = new LoadRunner(new LoadProfile(8, Duration.ofMillis(500), 0, Duration.ofSeconds(2)),
+                store.getBaseUrl(), people).run();
+
+        for (String step : STEPS) {
+            Assertions.assertNotNull(report.getLatency(step), step + " never succeeded");
+            Assertions.assertEquals(0, report.getErrors(step), step + " failed");
+        }
+        Assertions.assertTrue(report.getThroughput(LoadReport.JOURNEY) > 0);
+    }
+
+    /**
+     * A target arrival rate caps the journeys started, however many users are free, and
+     * every one of the 20 arrivals is either started or reported as dropped. How many a
+     * busy machine misses varies, so only the cap is checked here; ArrivalScheduleTest
+     * checks the pacing itself.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testArrivalRatePacesJourneys() throws InterruptedException {
+        LoadReport report = new LoadRunner(new LoadProfile(8, Duration.ZERO, 10, Duration.ofSeconds(2)),
+                store.getBaseUrl(), people).run();
+
+        long journeys = report.getLatency(LoadReport.JOURNEY).getCount();
+        Assertions.assertTrue(journeys >= 1 && journeys <= 20, "Expected at most 20 journeys, got " + journeys);
+        Assertions.assertEquals(10.0, report.getTargetRate());
+        Assertions.assertTrue(report.getAchievedRate() <= 10.0, "Achieved " + report.getAchievedRate() + "/s");
+        Assertions.assertEquals(20, Math.round(report.getAchievedRate() * 2) + report.getDroppedArrivals());
+    }
+}
@@ -0,0 +1,174 @@
+package tests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utilities.LocalStoreServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+
+/**
+ * The LocalStoreServerTest class checks the local stand-in store over plain HTTP: its
+ * pages, the cart kept per session cookie, and the checkout validation errors.
+ */
+public class LocalStoreServerTest {
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER).build();
+
+    private static LocalStoreServer store;
+
+    /**
+     * Starts the local stand-in store.
+     *
+     * @throws IOException if the store cannot start.
+     */
+    @BeforeAll
+    public static void startStore() throws IOException {
+        store = LocalStoreServer.start();
+    }
+
+    /**
+     * Stops the local stand-in store.
+     */
+    @AfterAll
+    public static void stopStore() {
+        store.close();
+    }
+
+    /**
+     * The pages the page objects visit are served, and unknown pages are not found.
+     *
+     * @throws Exception if a request fails.
+     */
+    @Test
+    public void testPagesServed() throws Exception {
+        HttpResponse<String> home = get("/", null);
+        Assertions.assertEquals(200, home.statusCode());
+        Assertions.assertTrue(home.body().contains("Welcome to the store"));
+
+        String accessories = get("/product-category/accessories/", null).body();
+        for (int id : LocalStoreServer.getProductIds()) {
+            Assertions.assertTrue(accessories.contains("data-product_id=\"" + id + "\""), "product " + id);
+        }
+
+        String product = get("/product/red-hat/", null).body();
+        Assertions.assertTrue(product.contains("<h1 class=\"product_title\">Red Hat</h1>"));
+        Assertions.assertTrue(product.contains("name=\"add-to-cart\" value=\"104\""));
+        Assertions.assertEquals(404, get("/product/green-hat/", null).statusCode());
+        Assertions.assertEquals(404, get("/no-such-page/", null).statusCode());
+    }
+
+    /**
+     * A new visitor gets a session cookie, and the cart follows that cookie only.
+     *
+     * @throws Exception if a request fails.
+     */
+    @Test
+    public void testCartFollowsSessionCookie() throws Exception {
+        HttpResponse<String> first = get("/", null);
+        String cookie = sessionCookie(first).orElseThrow();
+        Assertions.assertTrue(first.headers().firstValue("Set-Cookie").orElseThrow().contains("HttpOnly"));
+
+        HttpResponse<String> added = post("/product/red-hat/", cookie, "add-to-cart=104");
+        Assertions.assertEquals(303, added.statusCode());
+        Assertions.assertEquals("/product/red-hat/?added=104", added.headers().firstValue("Location").orElseThrow());
+        Assertions.assertTrue(sessionCookie(added).isEmpty(), "a known session gets no new cookie");
+        Assertions.assertTrue(get("/product/red-hat/?added=104", cookie).body().contains("has been added"));
+
+        String cart = get("/cart/", cookie).body();
+        Assertions.assertTrue(cart.contains("<td class=\"product-name\">Red Hat</td>"));
+        Assertions.assertTrue(cart.contains("class=\"count\">1<"));
+        Assertions.assertTrue(get("/cart/", null).body().contains("Your cart is currently empty."));
+        Assertions.assertTrue(get("/cart/", "not-a-session").body().contains("Your cart is currently empty."));
+    }
+
+    /**
+     * Checkout needs a cart, and a submitted form lists every field error together with
+     * the payment error the store always reports.
+     *
+     * @throws Exception if a request fails.
+     */
+    @Test
+    public void testCheckoutValidation() throws Exception {
+        String cookie = sessionCookie(get("/", null)).orElseThrow();
+        HttpResponse<String> empty = get("/checkout/", cookie);
+        Assertions.assertEquals(303, empty.statusCode());
+        Assertions.assertEquals("/cart/", empty.headers().firstValue("Location").orElseThrow());
+
+        get("/?add-to-cart=101", cookie);
+        String form = get("/checkout/", cookie).body();
+        Assertions.assertTrue(form.contains("id=\"billing_first_name\""));
+        Assertions.assertFalse(form.contains("woocommerce-error"));
+
+        String submitted = post("/checkout/", cookie, "billing_first_name=%3Cb%3EDana&billing_last_name="
+                + "&billing_address_1=Herzl+1&billing_postcode=12&billing_city=Haifa&billing_phone=abc"
+                + "&billing_email=dana%40example").body();
+        Assertions.assertTrue(submitted.contains("<strong>Billing Last name</strong> is a required field."));
+        Assertions.assertTrue(submitted.contains("is not a valid postcode / ZIP."));
+        Assertions.assertTrue(submitted.contains("is not a valid phone number."));
+        Assertions.assertTrue(submitted.contains("is not a valid email address."));
+        Assertions.assertTrue(submitted.contains("<li>Invalid payment method.</li>"));
+        Assertions.assertFalse(submitted.contains("First name</strong> is a required field."));
+        Assertions.assertTrue(submitted.contains("value=\"&lt;b&gt;Dana\""), "submitted values are escaped");
+    }
+
+    /**
+     * Requests without a cookie do not grow the store without bound: the least recently
+     * used carts are dropped, and their sessions start over with an empty cart.
+     *
+     * @throws Exception if a request fails.
+     */
+    @Test
+    public void testLeastRecentlyUsedCartsDropped() throws Exception {
+        try (LocalStoreServer small = LocalStoreServer.start(2)) {
+            String kept = sessionCookie(get(small, "/?add-to-cart=101", null)).orElseThrow();
+            String dropped = sessionCookie(get(small, "/?add-to-cart=102", null)).orElseThrow();
+            get(small, "/", kept);
+            get(small, "/", null);
+
+            Assertions.assertEquals(2, small.getCartCount());
+            Assertions.assertTrue(get(small, "/cart/", kept).body().contains("Anchor Bracelet"));
+            HttpResponse<String> restarted = get(small, "/cart/", dropped);
+            Assertions.assertTrue(sessionCookie(restarted).isPresent());
+            Assertions.assertTrue(restarted.body().contains("Your cart is currently empty."));
+        }
+    }
+
+    private static HttpResponse<String> get(String path, String session) throws Exception {
+        return get(store, path, session);
+    }
+
+    private static HttpResponse<String> get(LocalStoreServer server, String path, String session) throws Exception {
+        return send(request(server, path, session).GET());
+    }
+
+    private static HttpResponse<String> post(String path, String session, String form) throws Exception {
+        return send(request(store, path, session)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)));
+    }
+
+    private static HttpRequest.Builder request(LocalStoreServer server, String path, String session) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + path));
+        if (session != null) {
+            request.header("Cookie", LocalStoreServer.SESSION_COOKIE + "=" + session);
+        }
+        return request;
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static Optional<String> sessionCookie(HttpResponse<?> response) {
+        return response.headers().firstValue("Set-Cookie")
+                .map(cookie -> cookie.substring(cookie.indexOf('=') + 1, cookie.indexOf(';')));
+    }
+}
@@ -0,0 +1,127 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import utilities.PagePerformance;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The PagePerformanceTest class checks the page timing report: the percentile math, the
+ * report and history files, and that a document is captured only once.
+ */
+public class PagePerformanceTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The report's percentiles come from a histogram: within its 1.5% bucket precision, and
+     * never above the largest value, whatever the metric's unit.
+     *
+     * @throws IOException if the report cannot be written or read.
+     */
+    @Test
+    public void testPercentilesWithinBucketPrecision() throws IOException {
+        List<PagePerformance.Sample> samples = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            samples.add(new PagePerformance.Sample("home", Map.of("load_ms", (double) i, "resource_bytes",
+                    i * 10_000.0)));
+        }
+        PagePerformance.writeReport(samples, tempDir, tempDir.resolve("history.csv"));
+
+        List<String> lines = Files.readAllLines(tempDir.resolve("page-performance.csv"));
+        assertRow(lines.get(1), "home,load_ms,100", 50, 95, 99);
+        assertRow(lines.get(2), "home,resource_bytes,100", 500_000, 950_000, 990_000);
+    }
+
+    /**
+     * The report holds one row per page type and metric, and each run is appended to the
+     * history under a single header, where the next run finds its medians.
+     *
+     * @throws IOException if the report cannot be written or read.
+     * @throws InterruptedException if the test is interrupted between runs.
+     */
+    @Test
+    public void testReportAndHistory() throws IOException, InterruptedException {
+        Path history = tempDir.resolve("history/page-performance-history.csv");
+        Assertions.assertTrue(PagePerformance.previousMedians(history).isEmpty());
+
+        PagePerformance.writeReport(List.of(sample("cart", 30), sample("cart", 10), sample("cart", 20),
+                sample("home", 5)), tempDir.resolve("first"), history);
+
+        // 20 ms reads back as the upper bound of its histogram bucket.
+        Assertions.assertEquals(List.of("page,metric,count,p50,p95,p99",
+                        "cart,ttfb_ms,3,20.2,30.0,30.0",
+                        "home,ttfb_ms,1,5.0,5.0,5.0"),
+                Files.readAllLines(tempDir.resolve("first/page-performance.csv")));
+        Assertions.assertEquals(Map.of("cart\tttfb_ms", "20.2", "home\tttfb_ms", "5.0"),
+                PagePerformance.previousMedians(history));
+
+        // Runs are told apart by their start time in the history.
+        Thread.sleep(5);
+        PagePerformance.writeReport(List.of(sample("cart", 40)), tempDir.resolve("second"), history);
+
+        List<String> lines = Files.readAllLines(history);
+        Assertions.assertEquals(4, lines.size());
+        Assertions.assertEquals("run,page,metric,count,p50,p95,p99", lines.get(0));
+        Assertions.assertTrue(lines.get(3).endsWith(",cart,ttfb_ms,1,40.0,40.0,40.0"), lines.get(3));
+        Assertions.assertEquals(Map.of("cart\tttfb_ms", "40.0"), PagePerformance.previousMedians(history));
+    }
+
+    /**
+     * A page whose document has the same time origin as the last capture, such as an add to
+     * cart without a reload, is captured once; a new document is captured again.
+     */
+    @Test
+    public void testSameDocumentCapturedOnce() {
+        String[] origin = {"1700000000000.5"};
+        WebDriver driver = fakeBrowser(origin);
+        PagePerformance.drainCurrentTest();
+
+        PagePerformance.capture(driver, "product");
+        PagePerformance.capture(driver, "product");
+        origin[0] = "1700000000900.25";
+        PagePerformance.capture(driver, "cart");
+
+        List<PagePerformance.Sample> samples = PagePerformance.drainCurrentTest();
+        Assertions.assertEquals(List.of("product", "cart"), samples.stream().map(PagePerformance.Sample::pageType)
+                .toList());
+        Assertions.assertTrue(PagePerformance.drainCurrentTest().isEmpty());
+    }
+
+    private static void assertRow(String row, String prefix, double p50, double p95, double p99) {
+        Assertions.assertTrue(row.startsWith(prefix + ","), row);
+        String[] fields = row.split(",");
+        Assertions.assertEquals(p50, Double.parseDouble(fields[3]), p50 * 0.015);
+        Assertions.assertEquals(p95, Double.parseDouble(fields[4]), p95 * 0.015);
+        Assertions.assertEquals(p99, Double.parseDouble(fields[5]), p99 * 0.015);
+    }
+
+    private static PagePerformance.Sample sample(String pageType, double ttfb) {
+        return new PagePerformance.Sample(pageType, Map.of("ttfb_ms", ttfb));
+    }
+
+    /**
+     * A browser whose Navigation Timing entry has the given time origin. Its load is still
+     * under way, so the capture holds no values and leaves the run's report alone.
+     */
+    private static WebDriver fakeBrowser(String[] origin) {
+        return (WebDriver) Proxy.newProxyInstance(PagePerformanceTest.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    if ("executeScript".equals(method.getName())) {
+                        return Map.of("origin", origin[0], "load_ms", -1L);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,88 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilities.Person;
+import utilities.PersonDataGenerator;
+import utilities.XmlReader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The PersonDataGeneratorTest class checks that generated people files are reproducible,
+ * readable by XmlReader, and hold the requested share of invalid fields.
+ */
+public class PersonDataGeneratorTest {
+
+    private static final Pattern POSTCODE = Pattern.compile("\\d{5}");
+    private static final Pattern PHONE = Pattern.compile("05\\d-\\d{7}");
+    private static final Pattern EMAIL = Pattern.compile("[a-z]+\\.\\d+@example\\.(com|org|net)");
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The same seed writes the same document, and another seed writes a different one.
+     *
+     * @throws IOException if the document cannot be written.
+     */
+    @Test
+    public void testSeedIsReproducible() throws IOException {
+        Assertions.assertArrayEquals(generate(7), generate(7));
+        Assertions.assertFalse(Arrays.equals(generate(7), generate(8)));
+    }
+
+    /**
+     * Every record reads back, and the invalid fields match both the summary and the ratios.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Test
+    public void testInvalidFieldRatios() throws IOException {
+        Path file = tempDir.resolve("people.xml");
+        PersonDataGenerator.Summary summary = new PersonDataGenerator(42)
+                .withInvalidPostcodes(0.1)
+                .withInvalidPhones(0.2)
+                .withInvalidEmails(0.0)
+                .write(file, 5000);
+
+        List<Person> people;
+        try (Stream<Person> stream = new XmlReader().streamXmlPerson(file.toString())) {
+            people = stream.collect(Collectors.toList());
+        }
+        Assertions.assertEquals(5000, people.size());
+        Assertions.assertEquals(5000, summary.people());
+
+        long badPostcodes = people.stream().filter(p -> !POSTCODE.matcher(p.getPostcode()).matches()).count();
+        long badPhones = people.stream().filter(p -> !PHONE.matcher(p.getPhone()).matches()).count();
+        long badEmails = people.stream().filter(p -> !EMAIL.matcher(p.getEmail()).matches()).count();
+        Assertions.assertEquals(summary.invalidPostcodes(), badPostcodes);
+        Assertions.assertEquals(summary.invalidPhones(), badPhones);
+        Assertions.assertEquals(0, badEmails);
+        Assertions.assertEquals(500, badPostcodes, 100);
+        Assertions.assertEquals(1000, badPhones, 150);
+    }
+
+    /**
+     * A ratio outside 0 to 1 is rejected.
+     */
+    @Test
+    public void testRejectsBadRatio() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new PersonDataGenerator(1).withInvalidEmails(1.5));
+    }
+
+    private static byte[] generate(long seed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PersonDataGenerator(seed).withInvalidEmails(0.5).write(out, 200);
+        return out.toByteArray();
+    }
+}
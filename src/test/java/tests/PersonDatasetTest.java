@@ -0,0 +1,122 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilities.InvalidPerson;
+import utilities.Person;
+import utilities.PersonDataException;
+import utilities.PersonDataset;
+import utilities.PersonDatasetCompiler;
+import utilities.XmlReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The PersonDatasetTest class checks that the compiled binary dataset round-trips the
+ * XML data and is only rebuilt when the source changes.
+ */
+public class PersonDatasetTest {
+
+    private static final Path PEOPLE_XML = Paths.get("./src/assets/people.xml");
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Every row read back from the binary file matches the XML record, including random access.
+     *
+     * @throws IOException if the dataset cannot be written or read.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<Person> expected = new XmlReader().readXmlPerson(PEOPLE_XML.toString());
+        Path target = PersonDatasetCompiler.compileIfStale(PEOPLE_XML, tempDir.resolve("people.pds"));
+
+        try (PersonDataset dataset = PersonDataset.open(target)) {
+            Assertions.assertEquals(expected.size(), dataset.size());
+            for (int row = expected.size() - 1; row >= 0; row--) {
+                assertSamePerson(expected.get(row), dataset.get(row));
+            }
+            List<Person> tail = dataset.stream(1, dataset.size()).collect(Collectors.toList());
+            Assertions.assertEquals(expected.size() - 1, tail.size());
+            assertSamePerson(expected.get(1), tail.get(0));
+        }
+    }
+
+    /**
+     * The dataset is reused while the XML is unchanged and rebuilt once its content changes.
+     *
+     * @throws IOException if the dataset cannot be written or read.
+     */
+    @Test
+    public void testRebuildsOnlyWhenSourceChanges() throws IOException {
+        Path source = tempDir.resolve("people.xml");
+        Files.copy(PEOPLE_XML, source, StandardCopyOption.REPLACE_EXISTING);
+        Path target = PersonDatasetCompiler.compileIfStale(source, tempDir.resolve("people.pds"));
+        FileTime old = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(target, old);
+
+        PersonDatasetCompiler.compileIfStale(source, target);
+        Assertions.assertEquals(old, Files.getLastModifiedTime(target));
+
+        String xml = Files.readString(source).replace("yosi@example.com", "yossi@example.com");
+        Files.writeString(source, xml);
+        PersonDatasetCompiler.compileIfStale(source, target);
+        Assertions.assertNotEquals(old, Files.getLastModifiedTime(target));
+        try (PersonDataset dataset = PersonDataset.open(target)) {
+            Assertions.assertEquals("yossi@example.com", dataset.get(0).getEmail());
+        }
+    }
+
+    /**
+     * A record with a missing field fails only its own row of the compiled dataset.
+     *
+     * @throws IOException if the dataset cannot be written or read.
+     */
+    @Test
+    public void testBadRecordFailsOnlyItsRow() throws IOException {
+        Path source = tempDir.resolve("people.xml");
+        Files.writeString(source, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<people>"
+                + person("a@example.com", true) + person("b@example.com", false) + person("c@example.com", true)
+                + "</people>");
+        Path target = PersonDatasetCompiler.compileIfStale(source, tempDir.resolve("people.pds"));
+
+        try (PersonDataset dataset = PersonDataset.open(target)) {
+            Assertions.assertEquals(3, dataset.size());
+            Assertions.assertEquals("a@example.com", dataset.get(0).getEmail());
+            PersonDataException error = Assertions.assertThrows(PersonDataException.class, () -> dataset.get(1));
+            Assertions.assertEquals(2, error.getRow());
+            Assertions.assertTrue(error.getMessage().contains("postcode"));
+            Assertions.assertEquals("c@example.com", dataset.get(2).getEmail());
+
+            List<Person> people = dataset.stream().collect(Collectors.toList());
+            Assertions.assertInstanceOf(InvalidPerson.class, people.get(1));
+            Assertions.assertThrows(PersonDataException.class, people.get(1)::getEmail);
+            Assertions.assertEquals("c@example.com", people.get(2).getEmail());
+        }
+    }
+
+    private static String person(String email, boolean withPostcode) {
+        return "<person><firstName>Dana</firstName><lastName>Levi</lastName><address>Herzl 1</address>"
+                + (withPostcode ? "<postcode>12345</postcode>" : "")
+                + "<city>Haifa</city><phone>050-1234567</phone><email>" + email + "</email></person>";
+    }
+
+    private static void assertSamePerson(Person expected, Person actual) {
+        Assertions.assertEquals(expected.getFirstName(), actual.getFirstName());
+        Assertions.assertEquals(expected.getLastName(), actual.getLastName());
+        Assertions.assertEquals(expected.getAddress(), actual.getAddress());
+        Assertions.assertEquals(expected.getPostcode(), actual.getPostcode());
+        Assertions.assertEquals(expected.getCity(), actual.getCity());
+        Assertions.assertEquals(expected.getPhone(), actual.getPhone());
+        Assertions.assertEquals(expected.getEmail(), actual.getEmail());
+    }
+}
@@ -0,0 +1,92 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pageobjects.CheckoutPage;
+import utilities.Person;
+import utilities.RowResultCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The RowResultCacheTest class checks which rows an incremental run may skip.
+ */
+public class RowResultCacheTest {
+
+    private static final Person PERSON = new Person("Dana", "Levi", "Herzl 1", "12345", "Haifa", "050-1234567",
+            "dana@example.com");
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Only a row that passed, with unchanged data and code, counts as passed in the next run.
+     */
+    @Test
+    public void testPassedRowsRecognised() {
+        Path file = tempDir.resolve("rows.tsv");
+        String fingerprint = RowResultCache.fingerprintOf(List.of(CheckoutPage.class));
+        String hash = RowResultCache.hashOf(List.of(PERSON));
+        Person moved = new Person("Dana", "Levi", "Herzl 2", "12345", "Haifa", "050-1234567", "dana@example.com");
+        RowResultCache.Row passed = new RowResultCache.Row("StoreTest.testFillForm", "#1", hash, fingerprint);
+        RowResultCache.Row failed = new RowResultCache.Row("StoreTest.testFillForm", "#2",
+                RowResultCache.hashOf(List.of(moved)), fingerprint);
+
+        RowResultCache first = new RowResultCache(file);
+        first.recordExecuted(passed, true);
+        first.recordExecuted(failed, false);
+        first.save();
+
+        RowResultCache second = new RowResultCache(file);
+        Assertions.assertTrue(second.hasPassed(new RowResultCache.Row("StoreTest.testFillForm", "#7", hash,
+                fingerprint)));
+        Assertions.assertFalse(second.hasPassed(failed));
+        Assertions.assertFalse(second.hasPassed(new RowResultCache.Row("StoreTest.testFillForm", "#1", hash,
+                RowResultCache.fingerprintOf(List.of(CheckoutPage.class, Person.class)))));
+        Assertions.assertNotEquals(hash, RowResultCache.hashOf(List.of(moved)));
+    }
+
+    /**
+     * A package fingerprint covers all its classes, including the package-private ones a
+     * test cannot name.
+     */
+    @Test
+    public void testPackageClassesListed() {
+        List<Class<?>> classes = RowResultCache.classesIn("utilities");
+
+        Assertions.assertTrue(classes.contains(RowResultCache.class), classes.toString());
+        Assertions.assertTrue(classes.contains(RowResultCache.Row.class), classes.toString());
+        Assertions.assertTrue(classes.stream()
+                .anyMatch(type -> type.getName().equals("utilities.CachingElementLocator")), classes.toString());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RowResultCache.classesIn("no.such.pkg"));
+    }
+
+    /**
+     * The report lists cached and executed verdicts side by side, in row number order.
+     *
+     * @throws IOException if the report cannot be read.
+     */
+    @Test
+    public void testReportIncludesCachedRows() throws IOException {
+        RowResultCache cache = new RowResultCache(tempDir.resolve("rows.tsv"));
+        String hash = RowResultCache.hashOf(List.of(PERSON));
+        cache.recordExecuted(new RowResultCache.Row("StoreTest.testFillForm", "#10", hash, "code"), true);
+        cache.recordCached(new RowResultCache.Row("StoreTest.testFillForm", "#1", hash, "code"));
+        cache.recordExecuted(new RowResultCache.Row("StoreTest.testFillForm", "#2", hash, "code"), false);
+
+        Path report = tempDir.resolve("report.csv");
+        cache.writeReport(report);
+
+        List<String> lines = Files.readAllLines(report);
+        Assertions.assertEquals(4, lines.size());
+        Assertions.assertTrue(lines.get(1).startsWith("StoreTest.testFillForm,#1,"), lines.get(1));
+        Assertions.assertTrue(lines.get(1).endsWith(",passed,cached"), lines.get(1));
+        Assertions.assertTrue(lines.get(2).startsWith("StoreTest.testFillForm,#2,"), lines.get(2));
+        Assertions.assertTrue(lines.get(2).endsWith(",failed,executed"), lines.get(2));
+        Assertions.assertTrue(lines.get(3).startsWith("StoreTest.testFillForm,#10,"), lines.get(3));
+    }
+}
@@ -0,0 +1,72 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilities.RunJournalSummary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The RunJournalSummaryTest class checks that RunJournalSummary reads journal lines back.
+ */
+public class RunJournalSummaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Outcomes, slow tests, steps, browsers and rows are counted from the journal.
+     *
+     * @throws IOException if the journal cannot be written or read.
+     */
+    @Test
+    public void testSummarizeJournal() throws IOException {
+        Path journal = tempDir.resolve("run-journal.jsonl");
+        Files.write(journal, List.of(
+                "{\"time\":\"2026-01-01T00:00:00Z\",\"type\":\"DRIVER_LAUNCHED\",\"thread\":\"main\",\"test\":\"-\","
+                        + "\"row\":\"\",\"name\":\"ChromeDriverFactory\",\"nanos\":900000000}",
+                "{\"time\":\"2026-01-01T00:00:01Z\",\"type\":\"ROW_LOADED\",\"thread\":\"main\","
+                        + "\"test\":\"StoreTest.testFillForm\",\"row\":\"#1\",\"name\":\"people.pds\",\"nanos\":0}",
+                "{\"time\":\"2026-01-01T00:00:02Z\",\"type\":\"STEP\",\"thread\":\"w-1\","
+                        + "\"test\":\"StoreTest.testFillForm\",\"row\":\"#1\",\"name\":\"CartPage.checkout\","
+                        + "\"nanos\":40000000}",
+                "{\"time\":\"2026-01-01T00:00:03Z\",\"type\":\"TEST_FINISHED\",\"thread\":\"w-1\","
+                        + "\"test\":\"StoreTest.testFillForm\",\"row\":\"#1\",\"nanos\":3000000000,"
+                        + "\"detail\":\"failed: expected \\\"true\\\", was false\"}",
+                "{\"time\":\"2026-01-01T00:00:04Z\",\"type\":\"JOURNAL_CLOSED\",\"thread\":\"close\",\"test\":\"-\","
+                        + "\"row\":\"\",\"nanos\":0,\"detail\":\"2\"}"));
+
+        String summary = RunJournalSummary.summarize(journal);
+
+        Assertions.assertTrue(summary.startsWith("5 events, 2 dropped"), summary);
+        Assertions.assertTrue(summary.contains("failed: expected \"true\", was false=1"), summary);
+        Assertions.assertTrue(summary.contains("3000.0 ms  StoreTest.testFillForm#1"), summary);
+        Assertions.assertTrue(summary.contains("CartPage.checkout"), summary);
+        Assertions.assertTrue(summary.contains("1 launched (mean 900.0 ms)"), summary);
+        Assertions.assertTrue(summary.contains("Data rows loaded: 1"), summary);
+    }
+
+    /**
+     * A journal file that holds several runs is summed up from its last JOURNAL_STARTED event on.
+     *
+     * @throws IOException if the journal cannot be written or read.
+     */
+    @Test
+    public void testSummarizeLastRunOnly() throws IOException {
+        Path journal = tempDir.resolve("run-journal.jsonl");
+        String started = "{\"time\":\"2026-01-01T00:00:00Z\",\"type\":\"JOURNAL_STARTED\",\"thread\":\"main\","
+                + "\"test\":\"-\",\"row\":\"\",\"nanos\":0,\"detail\":\"pid 1\"}";
+        String rowLoaded = "{\"time\":\"2026-01-01T00:00:01Z\",\"type\":\"ROW_LOADED\",\"thread\":\"main\","
+                + "\"test\":\"StoreTest.testFillForm\",\"row\":\"#1\",\"name\":\"people.pds\",\"nanos\":0}";
+        Files.write(journal, List.of(started, rowLoaded, rowLoaded, started, rowLoaded));
+
+        String summary = RunJournalSummary.summarize(journal);
+
+        Assertions.assertTrue(summary.startsWith("2 events, 0 dropped"), summary);
+        Assertions.assertTrue(summary.contains("Data rows loaded: 1"), summary);
+    }
+}
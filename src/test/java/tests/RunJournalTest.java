@@ -0,0 +1,202 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utilities.RunEvent;
+import utilities.RunJournal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The RunJournalTest class checks that RunJournal writes every buffered event once and
+ * in order, and counts the events it has to drop.
+ */
+public class RunJournalTest {
+
+    private static final Pattern NAME = Pattern.compile("\"name\":\"([^\"]*)\"");
+    private static final Pattern DETAIL = Pattern.compile("\"detail\":\"([^\"]*)\"");
+
+    /**
+     * Events offered from many threads at once are each written exactly once, and the
+     * events of each thread come out in the order it offered them.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testConcurrentProducersWrittenOnceInOrder() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 5_000;
+        List<String> lines = new CopyOnWriteArrayList<>();
+        RunJournal journal = new RunJournal(1_024, lines::add);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String producer = "p" + p;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!journal.offer(event(producer + "-" + i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long droppedWhileFull = journal.getDroppedCount();
+        journal.close();
+
+        Map<String, Integer> next = new HashMap<>();
+        for (String line : lines.subList(0, lines.size() - 1)) {
+            String[] name = field(NAME, line).split("-");
+            int expected = next.getOrDefault(name[0], 0);
+            Assertions.assertEquals(expected, Integer.parseInt(name[1]), "out of order or repeated: " + line);
+            next.put(name[0], expected + 1);
+        }
+        Assertions.assertEquals(producers * perProducer + 1, lines.size());
+        for (int p = 0; p < producers; p++) {
+            Assertions.assertEquals(perProducer, next.get("p" + p));
+        }
+        Assertions.assertTrue(lines.get(lines.size() - 1).contains("\"type\":\"JOURNAL_CLOSED\""));
+        Assertions.assertEquals(Long.toString(droppedWhileFull), field(DETAIL, lines.get(lines.size() - 1)));
+    }
+
+    /**
+     * While the writer is stuck, a full buffer drops new events instead of blocking, and
+     * the drops are counted in the closing event.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testFullBufferDropsAreCounted() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> lines = new CopyOnWriteArrayList<>();
+        RunJournal journal = new RunJournal(4, line -> {
+            writing.countDown();
+            await(release);
+            lines.add(line);
+        });
+
+        Assertions.assertTrue(journal.offer(event("first")));
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(journal.offer(event("buffered-" + i)));
+        }
+        Assertions.assertFalse(journal.offer(event("dropped-0")));
+        Assertions.assertFalse(journal.offer(event("dropped-1")));
+        Assertions.assertEquals(2, journal.getDroppedCount());
+
+        release.countDown();
+        journal.close();
+
+        Assertions.assertEquals(List.of("first", "buffered-0", "buffered-1", "buffered-2", "buffered-3"),
+                lines.subList(0, 5).stream().map(line -> field(NAME, line)).toList());
+        Assertions.assertEquals("2", field(DETAIL, lines.get(5)));
+    }
+
+    /**
+     * Closing writes the events still in the buffer before the closing event, and later
+     * events are refused.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testCloseDrainsRemainingEvents() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> lines = new CopyOnWriteArrayList<>();
+        RunJournal journal = new RunJournal(64, line -> {
+            writing.countDown();
+            await(release);
+            lines.add(line);
+        });
+        journal.offer(event("e0"));
+        Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < 20; i++) {
+            journal.offer(event("e" + i));
+        }
+
+        Thread closer = new Thread(journal::close);
+        closer.start();
+        Thread.sleep(50);
+        Assertions.assertTrue(lines.isEmpty(), "the writer was still held");
+        release.countDown();
+        closer.join();
+
+        Assertions.assertEquals(21, lines.size());
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals("e" + i, field(NAME, lines.get(i)));
+        }
+        Assertions.assertEquals("0", field(DETAIL, lines.get(20)));
+        Assertions.assertFalse(journal.offer(event("late")));
+        Assertions.assertEquals(21, lines.size());
+    }
+
+    /**
+     * Every event accepted while the journal is closing is written; the ones that lose the
+     * race with close are refused, never accepted and lost.
+     *
+     * @throws InterruptedException if the test is interrupted.
+     */
+    @Test
+    public void testOffersRacingCloseAreWrittenOrRefused() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            List<String> lines = new CopyOnWriteArrayList<>();
+            RunJournal journal = new RunJournal(1_024, lines::add);
+            AtomicLong accepted = new AtomicLong();
+            List<Thread> threads = new ArrayList<>();
+            for (int p = 0; p < 4; p++) {
+                threads.add(new Thread(() -> {
+                    for (int refused = 0; refused < 100; ) {
+                        if (journal.offer(event("e"))) {
+                            accepted.incrementAndGet();
+                        } else {
+                            refused++;
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            Thread.sleep(2);
+            journal.close();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            Assertions.assertEquals(accepted.get(), lines.stream().filter(line -> line.contains("\"name\":\"e\""))
+                    .count(), "accepted events lost in round " + round);
+        }
+    }
+
+    private static RunEvent event(String name) {
+        return RunEvent.now(RunEvent.Type.STEP, "RunJournalTest", "", name, 0, null);
+    }
+
+    private static String field(Pattern pattern, String line) {
+        Matcher matcher = pattern.matcher(line);
+        Assertions.assertTrue(matcher.find(), line);
+        return matcher.group(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
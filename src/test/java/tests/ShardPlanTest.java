@@ -0,0 +1,62 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utilities.ShardPlan;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The ShardPlanTest class checks that ShardPlan balances shards by duration and places
+ * every test in exactly one shard.
+ */
+public class ShardPlanTest {
+
+    /**
+     * Shards of rows with uneven durations end up within one row of each other.
+     */
+    @Test
+    public void testShardsBalancedByDuration() {
+        Random random = new Random(7);
+        Map<String, Long> durations = new HashMap<>();
+        long longest = 0;
+        long total = 0;
+        for (int row = 0; row < 200; row++) {
+            long millis = 500 + random.nextInt(random.nextBoolean() ? 1_000 : 20_000);
+            durations.put("[test-template-invocation:#" + row + "]", millis);
+            longest = Math.max(longest, millis);
+            total += millis;
+        }
+
+        ShardPlan plan = ShardPlan.balance(durations, 4);
+
+        long planned = 0;
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            planned += plan.getPlannedMillis(shard);
+            min = Math.min(min, plan.getPlannedMillis(shard));
+            max = Math.max(max, plan.getPlannedMillis(shard));
+        }
+        Assertions.assertEquals(total, planned);
+        Assertions.assertTrue(max - min <= longest, "Shards differ by " + (max - min) + " ms");
+    }
+
+    /**
+     * Tests without a known duration land in the same shard whichever plan places them.
+     */
+    @Test
+    public void testUnknownTestsPlacedConsistently() {
+        ShardPlan first = ShardPlan.balance(Map.of("known", 1_000L), 3);
+        ShardPlan second = ShardPlan.balance(Map.of(), 3);
+
+        for (int row = 0; row < 50; row++) {
+            String key = "[test-template-invocation:#" + row + "]";
+            int shard = first.shardOf(key);
+            Assertions.assertTrue(shard >= 0 && shard < 3);
+            Assertions.assertEquals(shard, second.shardOf(key));
+        }
+    }
+}
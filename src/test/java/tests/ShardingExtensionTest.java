@@ -0,0 +1,40 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utilities.ShardingExtension;
+
+/**
+ * The ShardingExtensionTest class checks which JUnit unique IDs ShardingExtension places
+ * in shards.
+ */
+public class ShardingExtensionTest {
+
+    private static final String CLASS = "[engine:junit-jupiter]/[class:tests.StoreTest]";
+
+    /**
+     * Test methods and parameterized rows are placed, whatever their parameter types.
+     */
+    @Test
+    public void testMethodsAndRowsArePlaced() {
+        Assertions.assertTrue(ShardingExtension.isTest(CLASS + "/[method:testPurchaseFlow()]"));
+        Assertions.assertTrue(ShardingExtension.isTest(CLASS + "/[method:testSearch(java.lang.String, int)]"));
+        Assertions.assertTrue(ShardingExtension.isTest(CLASS + "/[method:testNames([Ljava.lang.String;)]"));
+        Assertions.assertTrue(ShardingExtension.isTest(CLASS + "/[method:testNames(java.lang.String[])]"));
+        Assertions.assertTrue(ShardingExtension.isTest(CLASS + "/[method:testGrid([[I)]"));
+        Assertions.assertTrue(ShardingExtension.isTest(
+                CLASS + "/[test-template:testFillForm(utilities.Person)]/[test-template-invocation:#12]"));
+    }
+
+    /**
+     * Engines, classes, nested classes and parameterized methods are containers.
+     */
+    @Test
+    public void testContainersAreNotPlaced() {
+        Assertions.assertFalse(ShardingExtension.isTest("[engine:junit-jupiter]"));
+        Assertions.assertFalse(ShardingExtension.isTest(CLASS));
+        Assertions.assertFalse(ShardingExtension.isTest(CLASS + "/[nested-class:Checkout]"));
+        Assertions.assertFalse(ShardingExtension.isTest(CLASS + "/[test-template:testFillForm(utilities.Person)]"));
+        Assertions.assertFalse(ShardingExtension.isTest(CLASS + "/[test-template:testNames([Ljava.lang.String;)]"));
+    }
+}
@@ -0,0 +1,35 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import utilities.StepMetrics;
+
+/**
+ * The StepMetricsTest class checks which series StepMetrics keeps histograms for.
+ */
+public class StepMetricsTest {
+
+    private static final String STEP = "StepMetricsTest.step";
+    private static final String TEST = "StepMetricsTest.rows";
+
+    /**
+     * The rows of a test share the test's histogram and get none of their own, so memory
+     * does not grow with the number of rows.
+     */
+    @Test
+    public void testRowsShareTestHistogram() {
+        StepMetrics.startTest(TEST, "#1");
+        StepMetrics.record(STEP, 2_000_000L);
+        StepMetrics.record(STEP, 4_000_000L);
+        StepMetrics.endTest();
+        StepMetrics.startTest(TEST, "#2");
+        StepMetrics.record(STEP, 6_000_000L);
+        StepMetrics.endTest();
+
+        Assertions.assertEquals(3, StepMetrics.get(STEP, TEST, "*").getCount());
+        Assertions.assertEquals(6.0, StepMetrics.get(STEP, TEST, "*").getMaxMillis(), 0.001);
+        Assertions.assertTrue(StepMetrics.get(STEP, "*", "").getCount() >= 3);
+        Assertions.assertNull(StepMetrics.get(STEP, TEST, "#1"));
+        Assertions.assertNull(StepMetrics.get(STEP, TEST, "#2"));
+    }
+}
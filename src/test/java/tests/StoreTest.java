@@ -5,11 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import pageobjects.*;
 import utilities.*;
-import java.util.List;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -21,29 +24,24 @@ import java.util.stream.Stream;
  * - A test for completing a purchase flow by selecting two random products.
  * - A parameterized test that reads XML data to fill out a checkout form.
  */
-@ExtendWith({TestLifecycleExtension.class, TestWatcherExtension.class})
+@ExtendWith({TestLifecycleExtension.class, TestWatcherExtension.class, StepMetricsExtension.class,
+        PagePerformanceExtension.class})
 public class StoreTest {
 
-    // WebDriver instance used for browser automation.
-    WebDriver driver;
-
-    /**
-     * Constructor for the StoreTest class.
-     *
-     * @param driver the WebDriver instance used to drive the browser actions.
-     */
-    public StoreTest(WebDriver driver) {
-        this.driver = driver;
-    }
+    // Builds the testFillForm cart by clicking through the store instead of over HTTP.
+    private static final boolean UI_CART_SETUP = "ui".equalsIgnoreCase(System.getProperty("cart.setup"));
 
     /**
      * Test to validate the complete purchase flow.
      *
      * This test navigates to the store, selects two random products from the Accessories section,
      * adds them to the cart, and verifies that the cart contains two items.
+     *
+     * @param driver the WebDriver instance used to drive the browser actions.
      */
     @Test
-    public void testPurchaseFlow() {
+    @CommandBudget(maxCommands = 80)
+    public void testPurchaseFlow(WebDriver driver) {
         // Initialize the homepage and navigate to store
         StoreHomePage homePage = new StoreHomePage(driver);
         homePage.goToStore();
@@ -62,30 +60,59 @@ public class StoreTest {
     /**
      * Provides a stream of Person objects from an XML file for parameterized tests.
      *
-     * This method reads the people.xml file located at "./src/assets/people.xml" and converts
-     * its data into a stream of Person objects to be used in parameterized tests.
+     * The people.xml file located at "./src/assets/people.xml", or the file named by the
+     * "people.file" system property, such as one written by PersonDataGenerator, is
+     * compiled once into a memory-mapped binary dataset under "./target/datasets", and
+     * rebuilt only when the XML content changes, so later runs start without parsing any
+     * XML. A record that could not be read is handed out as an InvalidPerson, which fails
+     * only its own row. Each row is recorded in the RunJournal as it is handed to the test,
+     * and tracked by IncrementalRowsExtension so a row that passed before is skipped before
+     * it leases a browser.
      *
      * @return a stream of Person objects from the XML file.
+     * @throws IOException if the data file cannot be compiled or opened.
      */
-    static Stream<Person> personProvider() {
-        XmlReader xmlReader = new XmlReader();
-        List<Person> people = xmlReader.readXmlPerson("./src/assets/people.xml");
-        return people.stream();
+    static Stream<Person> personProvider() throws IOException {
+        Path source = Paths.get(System.getProperty("people.file", "./src/assets/people.xml"));
+        String name = source.getFileName().toString().replaceFirst("\\.xml$", "");
+        Path dataset = PersonDatasetCompiler.compileIfStale(source, Paths.get("./target/datasets", name + ".pds"));
+        PersonDataset people = PersonDataset.open(dataset);
+        return IncrementalRowsExtension.trackRows("StoreTest.testFillForm",
+                IntStream.range(0, people.size()).mapToObj(row -> {
+                    RunJournal.record(RunEvent.Type.ROW_LOADED, "StoreTest.testFillForm", "#" + (row + 1),
+                            dataset.toString(), 0, null);
+                    return people.getOrInvalid(row);
+                })).onClose(people::close);
     }
 
     /**
      * Parameterized test to fill out a checkout form with data from an XML file.
      *
-     * For each Person object provided by personProvider, this test navigates through the store,
-     * selects a random product, and proceeds to the checkout form where the form is filled out using
-     * the person's details.
+     * For each Person object provided by personProvider, this test gets a cart holding one
+     * random product, proceeds to the checkout form and fills it out using the person's
+     * details. The cart is built over HTTP by default; run with -Dcart.setup=ui to click
+     * through the store instead. With -Dincremental=true, rows that passed before with the
+     * same person, the same page objects and utilities and the same cart and form settings
+     * are not run again. The browser is a method parameter, so a skipped row never leases one.
      *
      * @param person the Person object containing form data.
-     * @throws InterruptedException if the test is interrupted during execution.
+     * @param driver the WebDriver instance used to drive the browser actions.
      */
     @ParameterizedTest
     @MethodSource("personProvider")
-    public void testFillForm(Person person){
+    @CommandBudget(maxCommands = 80)
+    // Whole packages, so page objects and the utilities they load cannot be left out of the fingerprint.
+    @IncrementalRows(packages = {"pageobjects", "utilities"}, properties = {"cart.setup", "checkout.fill.mode"})
+    public void testFillForm(Person person, WebDriver driver){
+        CheckoutPage checkoutPage = UI_CART_SETUP ? checkoutThroughUi(driver) : new CartBuilder()
+                .withRandomAccessory()
+                .openCheckout(driver);
+
+        checkoutPage.fillForm(person);
+        Assertions.assertTrue(checkoutPage.returnErrorElem().isDisplayed());
+    }
+
+    private CheckoutPage checkoutThroughUi(WebDriver driver) {
         StoreHomePage homePage = new StoreHomePage(driver);
         homePage.goToStore();
 
@@ -95,9 +122,6 @@ public class StoreTest {
 
         // Proceed to checkout
         CartPage cartPage = homePage.goToCart();
-        CheckoutPage checkoutPage = cartPage.checkout();
-
-        checkoutPage.fillForm(person);
-        Assertions.assertTrue(driver.findElement(By.xpath("//ul[@role='alert']")).isDisplayed());
+        return cartPage.checkout();
     }
 }
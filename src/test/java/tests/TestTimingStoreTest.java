@@ -0,0 +1,76 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilities.TestTimingStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The TestTimingStoreTest class checks that TestTimingStore keeps durations and failure
+ * history across runs.
+ */
+public class TestTimingStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Durations are averaged over runs, and a failure is remembered for the runs after it.
+     */
+    @Test
+    public void testHistoryAcrossRuns() {
+        Path file = tempDir.resolve("timings.tsv");
+
+        TestTimingStore first = new TestTimingStore(file);
+        first.record("flaky", 1_000L, true);
+        first.record("steady", 200L, false);
+        first.save();
+
+        TestTimingStore second = new TestTimingStore(file);
+        Assertions.assertEquals(1_000L, second.getHistory().get("flaky").millis());
+        Assertions.assertTrue(second.getHistory().get("flaky").failedWithin(1));
+        Assertions.assertFalse(second.getHistory().get("steady").failedWithin(3));
+        second.record("flaky", 3_000L, false);
+        second.save();
+
+        TestTimingStore.Timing flaky = new TestTimingStore(file).getHistory().get("flaky");
+        Assertions.assertEquals(2_000L, flaky.millis());
+        Assertions.assertEquals(1, flaky.failures());
+        Assertions.assertEquals(1, flaky.runsSinceFailure());
+        Assertions.assertFalse(flaky.failedWithin(1));
+        Assertions.assertTrue(flaky.failedWithin(2));
+        Assertions.assertEquals(200L, new TestTimingStore(file).getDurations().get("steady"));
+    }
+
+    /**
+     * A shard leaves the history it planned from untouched, and its outcomes reach the
+     * history once the shards are merged.
+     *
+     * @throws IOException if the timings file cannot be read.
+     */
+    @Test
+    public void testShardsSaveBesideHistory() throws IOException {
+        Path file = tempDir.resolve("timings.tsv");
+        TestTimingStore seed = new TestTimingStore(file);
+        seed.record("row1", 1_000L, false);
+        seed.save();
+        String before = Files.readString(file);
+
+        TestTimingStore shard = new TestTimingStore(file, TestTimingStore.shardOutput(file, 1));
+        shard.record("row1", 3_000L, false);
+        shard.record("row2", 500L, true);
+        shard.save();
+
+        Assertions.assertEquals(before, Files.readString(file));
+        Assertions.assertEquals(1, TestTimingStore.mergeShards(file));
+        Assertions.assertFalse(Files.exists(TestTimingStore.shardOutput(file, 1)));
+        TestTimingStore merged = new TestTimingStore(file);
+        Assertions.assertEquals(2_000L, merged.getHistory().get("row1").millis());
+        Assertions.assertTrue(merged.getHistory().get("row2").failedWithin(1));
+        Assertions.assertEquals(0, TestTimingStore.mergeShards(file));
+    }
+}
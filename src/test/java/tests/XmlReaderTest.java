@@ -0,0 +1,128 @@
+package tests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utilities.InvalidPerson;
+import utilities.Person;
+import utilities.PersonDataException;
+import utilities.XmlReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The XmlReaderTest class checks that the streaming reader yields the same people as the
+ * DOM reader and reports bad records per row.
+ */
+public class XmlReaderTest {
+
+    private static final String PEOPLE_XML = "./src/assets/people.xml";
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * The streaming reader returns the same records, in the same order, as the DOM reader.
+     */
+    @Test
+    public void testStreamMatchesDomReader() {
+        XmlReader xmlReader = new XmlReader();
+        List<Person> expected = xmlReader.readXmlPerson(PEOPLE_XML);
+
+        List<Person> actual;
+        try (Stream<Person> people = xmlReader.streamXmlPerson(PEOPLE_XML)) {
+            actual = people.collect(Collectors.toList());
+        }
+
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).toString(), actual.get(i).toString());
+            Assertions.assertEquals(expected.get(i).getEmail(), actual.get(i).getEmail());
+        }
+    }
+
+    /**
+     * A record with a missing field is streamed as an InvalidPerson that fails on its own
+     * row, and the rows after it can still be read.
+     *
+     * @throws IOException if the temporary file cannot be written.
+     */
+    @Test
+    public void testMissingFieldIsReportedPerRow() throws IOException {
+        Path file = writeXml(person("a@example.com", true) + person("b@example.com", false)
+                + person("c@example.com", true));
+
+        try (Stream<Person> people = new XmlReader().streamXmlPerson(file.toString())) {
+            Iterator<Person> iterator = people.iterator();
+            Assertions.assertEquals("a@example.com", iterator.next().getEmail());
+
+            Person invalid = iterator.next();
+            Assertions.assertInstanceOf(InvalidPerson.class, invalid);
+            PersonDataException error = Assertions.assertThrows(PersonDataException.class, invalid::getEmail);
+            Assertions.assertEquals(2, error.getRow());
+            Assertions.assertTrue(error.getMessage().contains("postcode"));
+
+            Assertions.assertEquals("c@example.com", iterator.next().getEmail());
+            Assertions.assertFalse(iterator.hasNext());
+        }
+    }
+
+    /**
+     * Records before a syntax error are delivered before the error, which ends the stream as
+     * one InvalidPerson.
+     *
+     * @throws IOException if the temporary file cannot be written.
+     */
+    @Test
+    public void testStreamIsLazy() throws IOException {
+        Path file = writeXml(person("a@example.com", true) + "<person><firstName>broken</person>");
+
+        try (Stream<Person> people = new XmlReader().streamXmlPerson(file.toString())) {
+            Assertions.assertEquals("a@example.com", people.findFirst().orElseThrow().getEmail());
+        }
+        try (Stream<Person> people = new XmlReader().streamXmlPerson(file.toString())) {
+            List<Person> all = people.collect(Collectors.toList());
+            Assertions.assertEquals(2, all.size());
+            PersonDataException error = Assertions.assertThrows(PersonDataException.class, all.get(1)::getEmail);
+            Assertions.assertEquals(2, error.getRow());
+            Assertions.assertTrue(error.getMessage().contains("malformed XML"));
+        }
+    }
+
+    /**
+     * The file is decoded in the encoding its XML declaration names, not always as UTF-8.
+     *
+     * @throws IOException if the temporary file cannot be written.
+     */
+    @Test
+    public void testDeclaredEncodingIsUsed() throws IOException {
+        Path file = tempDir.resolve("people-latin1.xml");
+        String xml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<people>"
+                + person("a@example.com", true).replace("Levi", "M\u00fcller") + "</people>";
+        Files.write(file, xml.getBytes(StandardCharsets.ISO_8859_1));
+
+        try (Stream<Person> people = new XmlReader().streamXmlPerson(file.toString())) {
+            Assertions.assertEquals("M\u00fcller", people.findFirst().orElseThrow().getLastName());
+        }
+    }
+
+    private Path writeXml(String people) throws IOException {
+        Path file = tempDir.resolve("people.xml");
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<people>" + people + "</people>";
+        Files.write(file, xml.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String person(String email, boolean withPostcode) {
+        return "<person><firstName>Dana</firstName><lastName>Levi</lastName><address>Herzl 1</address>"
+                + (withPostcode ? "<postcode>12345</postcode>" : "")
+                + "<city>Haifa</city><phone>050-1234567</phone><email>" + email + "</email></person>";
+    }
+}